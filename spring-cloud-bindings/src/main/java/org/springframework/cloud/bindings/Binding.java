@@ -21,6 +21,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -51,7 +52,7 @@ public final class Binding {
 
     private final String provider;
 
-    private final Map<String, String> secret;
+    private final SecretMap secret;
 
     private final String type;
 
@@ -60,7 +61,18 @@ public final class Binding {
      * @param path   the path to the {@code Binding}.
      */
     public Binding(Path path) {
-        this(path.getFileName().toString(), path, createSecretMap(path));
+        this(path, UnaryOperator.identity());
+    }
+
+    /**
+     * Creates a new {@code Binding} instance using the specified file system root, passing each secret key and value
+     * through {@code canonicalizer} so that identical strings can be shared between {@code Binding}s.
+     *
+     * @param path          the path to the {@code Binding}.
+     * @param canonicalizer the function returning the canonical instance of a string.
+     */
+    Binding(Path path, UnaryOperator<String> canonicalizer) {
+        this(path.getFileName().toString(), path, createSecretMap(path), canonicalizer);
     }
 
     /**
@@ -71,18 +83,22 @@ public final class Binding {
      * @param secret the secret of the {@code Binding}.
      */
     public Binding(String name, Path path, Map<String, String> secret) {
+        this(name, path, secret, UnaryOperator.identity());
+    }
+
+    private Binding(String name, Path path, Map<String, String> secret, UnaryOperator<String> canonicalizer) {
         this.name = name;
         this.path = path;
-        this.secret = new HashMap<>();
 
         String type = null;
         String provider = null;
+        SortedMap<String, String> s = new TreeMap<>();
         for (Map.Entry<String, String> entry : secret.entrySet()) {
             switch (entry.getKey()) {
                 case TYPE, KIND -> // TODO: Remove as CNB_BINDINGS ages out
                         type = entry.getValue();
                 case PROVIDER -> provider = entry.getValue();
-                default -> this.secret.put(entry.getKey(), entry.getValue());
+                default -> s.put(entry.getKey(), entry.getValue());
             }
         }
 
@@ -90,8 +106,18 @@ public final class Binding {
             throw new IllegalArgumentException(String.format("%s has no type and is not a valid binding", path));
         }
 
-        this.type = type;
-        this.provider = provider;
+        String[] keys = new String[s.size()];
+        String[] values = new String[s.size()];
+        int i = 0;
+        for (Map.Entry<String, String> entry : s.entrySet()) {
+            keys[i] = canonicalizer.apply(entry.getKey());
+            values[i] = canonicalizer.apply(entry.getValue());
+            i++;
+        }
+
+        this.secret = new SecretMap(keys, values);
+        this.type = canonicalizer.apply(type);
+        this.provider = provider == null ? null : canonicalizer.apply(provider);
     }
 
     private static Map<String, String> createSecretMap(Path path) {
@@ -151,10 +177,10 @@ public final class Binding {
 
     /**
      * Returns the secret of the binding.
-     * @return a Map of the secret of the binding
+     * @return an unmodifiable Map of the secret of the binding
      */
     public Map<String, String> getSecret() {
-        return Collections.unmodifiableMap(secret);
+        return secret;
     }
 
     /**
@@ -214,7 +240,7 @@ public final class Binding {
                 "name='" + name + '\'' +
                 ", path=" + path +
                 ", provider='" + provider + '\'' +
-                ", secret=" + new TreeSet<>(secret.keySet()) +
+                ", secret=" + secret.keySet() +
                 ", type='" + type + '\'' +
                 '}';
     }
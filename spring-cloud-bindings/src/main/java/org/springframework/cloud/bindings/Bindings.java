@@ -23,8 +23,10 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -82,9 +84,13 @@ public final class Bindings {
             throw new IllegalArgumentException(String.format("%s is not a directory", p));
         }
 
+        // Hosts, certificates and key names tend to repeat across bindings, so share a single instance of each
+        Map<String, String> strings = new HashMap<>();
+        UnaryOperator<String> canonicalizer = s -> strings.computeIfAbsent(s, UnaryOperator.identity());
+
         try (Stream<Path> paths = Files.list(p)) {
             this.bindings = paths
-                    .map(Binding::new)
+                    .map(b -> new Binding(b, canonicalizer))
                     .collect(Collectors.toList());
         } catch (IOException e) {
             throw new IllegalStateException(String.format("unable to list children of '%s'", path), e);
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.bindings;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An index of the {@link Binding}s in a {@link Bindings} by their type.  Types are matched case-insensitively, as
+ * they are by {@link Bindings#filterBindings(String)}.
+ */
+public final class BindingsTypeIndex {
+
+    private final Map<String, List<Binding>> index;
+
+    /**
+     * Creates a new {@code BindingsTypeIndex} instance for the specified {@code Bindings}.
+     *
+     * @param bindings the {@code Bindings} to index.
+     */
+    public BindingsTypeIndex(Bindings bindings) {
+        Map<String, List<Binding>> index = new LinkedHashMap<>();
+        bindings.getBindings().forEach(binding ->
+                index.computeIfAbsent(normalize(binding.getType()), t -> new ArrayList<>()).add(binding));
+        index.replaceAll((type, b) -> Collections.unmodifiableList(b));
+        this.index = Collections.unmodifiableMap(index);
+    }
+
+    /**
+     * Returns zero or more {@link Binding}s with a given type.
+     *
+     * @param type the type of the {@code Binding}s to find.
+     * @return the collection of {@code Binding}s with a given type.
+     */
+    public List<Binding> get(String type) {
+        return index.getOrDefault(normalize(type), Collections.emptyList());
+    }
+
+    /**
+     * Returns the types of all the indexed {@link Binding}s, in lower case.
+     *
+     * @return the types of all the indexed {@link Binding}s.
+     */
+    public Set<String> getTypes() {
+        return index.keySet();
+    }
+
+    private static String normalize(String type) {
+        return type.toLowerCase(Locale.ROOT);
+    }
+
+}
@@ -0,0 +1,305 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bindings.boot;
+
+import org.springframework.core.env.Environment;
+import org.springframework.lang.Nullable;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Derives the size of connection pools from the CPU and memory limits of the container, for database bindings that
+ * do not size their pools.  A pool gets {@value CONNECTIONS_PER_CPU_PROPERTY} connections for each CPU plus
+ * {@value ADDITIONAL_CONNECTIONS_PROPERTY}, but no more than the memory limit allows at
+ * {@value MEMORY_PER_CONNECTION_PROPERTY} each, and never fewer than one.  Limits are read from the cgroup of this
+ * process, as listed in {@code /proc/self/cgroup}, and its ancestors in cgroup v2, then cgroup v1, and the CPUs fall
+ * back to those available to the JVM.
+ */
+final class AdaptivePoolSizing {
+
+    static final String ENABLE_PROPERTY = "org.springframework.cloud.bindings.boot.pools.adaptive.enable";
+
+    static final String CONNECTIONS_PER_CPU_PROPERTY = "org.springframework.cloud.bindings.boot.pools.adaptive.connections-per-cpu";
+
+    static final String ADDITIONAL_CONNECTIONS_PROPERTY = "org.springframework.cloud.bindings.boot.pools.adaptive.additional-connections";
+
+    static final String MEMORY_PER_CONNECTION_PROPERTY = "org.springframework.cloud.bindings.boot.pools.adaptive.memory-per-connection";
+
+    private static final Path CGROUP = Paths.get("/sys/fs/cgroup");
+
+    private static final Path PROC_SELF_CGROUP = Paths.get("/proc/self/cgroup");
+
+    // The controllers of a cgroup v2 hierarchy are not listed
+    private static final String UNIFIED = "";
+
+    private static final String[] CPU_MOUNTS = {"cpu", "cpu,cpuacct", "cpuacct,cpu"};
+
+    private static final double DEFAULT_CONNECTIONS_PER_CPU = 2;
+
+    private static final int DEFAULT_ADDITIONAL_CONNECTIONS = 1;
+
+    private static final DataSize DEFAULT_MEMORY_PER_CONNECTION = DataSize.ofMegabytes(16);
+
+    // cgroup v1 reports no limit as the largest page-aligned long
+    private static final long UNLIMITED_MEMORY = Long.MAX_VALUE / 2;
+
+    private final double cpus;
+
+    @Nullable
+    private final Long memory;
+
+    private final double connectionsPerCpu;
+
+    private final int additionalConnections;
+
+    private final DataSize memoryPerConnection;
+
+    AdaptivePoolSizing(double cpus, @Nullable Long memory, double connectionsPerCpu, int additionalConnections,
+                       DataSize memoryPerConnection) {
+        this.cpus = cpus;
+        this.memory = memory;
+        this.connectionsPerCpu = connectionsPerCpu;
+        this.additionalConnections = additionalConnections;
+        this.memoryPerConnection = memoryPerConnection;
+    }
+
+    /**
+     * Returns the {@code AdaptivePoolSizing} configured by an {@link Environment} for the limits of this container.
+     *
+     * @param environment the {@code Environment} to read the configuration from.
+     * @return the configured {@code AdaptivePoolSizing}, or {@code null} if adaptive sizing is not enabled.
+     * @throws IllegalArgumentException if the configuration is invalid.
+     */
+    @Nullable
+    static AdaptivePoolSizing get(Environment environment) {
+        return get(environment, CGROUP, PROC_SELF_CGROUP, Runtime.getRuntime().availableProcessors());
+    }
+
+    @Nullable
+    static AdaptivePoolSizing get(Environment environment, Path cgroup, Path membership, int availableProcessors) {
+        if (!environment.getProperty(ENABLE_PROPERTY, Boolean.class, false)) {
+            return null;
+        }
+
+        double connectionsPerCpu = environment.getProperty(CONNECTIONS_PER_CPU_PROPERTY, Double.class, DEFAULT_CONNECTIONS_PER_CPU);
+        if (!(connectionsPerCpu > 0)) {
+            throw new IllegalArgumentException(String.format("%s must be positive", CONNECTIONS_PER_CPU_PROPERTY));
+        }
+        int additionalConnections = environment.getProperty(ADDITIONAL_CONNECTIONS_PROPERTY, Integer.class, DEFAULT_ADDITIONAL_CONNECTIONS);
+        if (additionalConnections < 0) {
+            throw new IllegalArgumentException(String.format("%s must not be negative", ADDITIONAL_CONNECTIONS_PROPERTY));
+        }
+        String value = environment.getProperty(MEMORY_PER_CONNECTION_PROPERTY);
+        DataSize memoryPerConnection = value != null ? DataSize.parse(value.trim()) : DEFAULT_MEMORY_PER_CONNECTION;
+        if (memoryPerConnection.toBytes() <= 0) {
+            throw new IllegalArgumentException(String.format("%s must be positive", MEMORY_PER_CONNECTION_PROPERTY));
+        }
+
+        Map<String, String> paths = readMembership(membership);
+        Double cpuLimit = readCpuLimit(cgroup, paths);
+        double cpus = cpuLimit != null ? Math.min(cpuLimit, availableProcessors) : availableProcessors;
+        return new AdaptivePoolSizing(cpus, readMemoryLimit(cgroup, paths), connectionsPerCpu, additionalConnections,
+                memoryPerConnection);
+    }
+
+    /**
+     * Returns the size of a pool for the limits of this container.
+     *
+     * @return the number of connections, at least {@code 1}.
+     */
+    int getPoolSize() {
+        long size = (long) Math.ceil(cpus * connectionsPerCpu) + additionalConnections;
+        if (memory != null) {
+            size = Math.min(size, memory / memoryPerConnection.toBytes());
+        }
+        return (int) Math.max(1, Math.min(size, Integer.MAX_VALUE));
+    }
+
+    double getCpus() {
+        return cpus;
+    }
+
+    @Nullable
+    Long getMemory() {
+        return memory;
+    }
+
+    /**
+     * Returns the path of the cgroup of this process for each controller, from {@code /proc/self/cgroup}.  The path
+     * in the cgroup v2 hierarchy, which lists no controllers, is returned for an empty controller.
+     */
+    static Map<String, String> readMembership(Path membership) {
+        Map<String, String> paths = new HashMap<>();
+        String content = read(membership);
+        if (content != null) {
+            content.lines().forEach(line -> {
+                String[] parts = line.split(":", 3);
+                if (parts.length == 3) {
+                    for (String controller : parts[1].split(",")) {
+                        paths.putIfAbsent(controller, parts[2]);
+                    }
+                }
+            });
+        }
+        return paths;
+    }
+
+    /**
+     * Returns the CPU quota of the cgroup of this process, from {@code cpu.max} in cgroup v2 or
+     * {@code cpu.cfs_quota_us} and {@code cpu.cfs_period_us} in cgroup v1.  The smallest quota of the cgroup and its
+     * ancestors applies.
+     */
+    @Nullable
+    static Double readCpuLimit(Path cgroup, Map<String, String> paths) {
+        boolean unified = false;
+        Double limit = null;
+        for (Path directory : getHierarchy(cgroup, paths.get(UNIFIED))) {
+            String max = read(directory.resolve("cpu.max"));
+            if (max != null) {
+                unified = true;
+                String[] parts = max.split("\\s+");
+                limit = min(limit, parts.length == 2 ? quota(parts[0], parts[1]) : null);
+            }
+        }
+        if (unified) {
+            return limit;
+        }
+
+        for (String controllers : CPU_MOUNTS) {
+            Path mount = cgroup.resolve(controllers);
+            if (Files.isDirectory(mount)) {
+                for (Path directory : getHierarchy(mount, paths.get("cpu"))) {
+                    String quota = read(directory.resolve("cpu.cfs_quota_us"));
+                    String period = read(directory.resolve("cpu.cfs_period_us"));
+                    if (quota != null && period != null) {
+                        limit = min(limit, quota(quota, period));
+                    }
+                }
+                return limit;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the memory limit of the cgroup of this process, from {@code memory.max} in cgroup v2 or
+     * {@code memory.limit_in_bytes} in cgroup v1.  The smallest limit of the cgroup and its ancestors applies.
+     */
+    @Nullable
+    static Long readMemoryLimit(Path cgroup, Map<String, String> paths) {
+        boolean unified = false;
+        Long limit = null;
+        for (Path directory : getHierarchy(cgroup, paths.get(UNIFIED))) {
+            String max = read(directory.resolve("memory.max"));
+            if (max != null) {
+                unified = true;
+                limit = min(limit, bytes(max));
+            }
+        }
+        if (unified) {
+            return limit;
+        }
+
+        Path mount = cgroup.resolve("memory");
+        for (Path directory : getHierarchy(mount, paths.get("memory"))) {
+            String max = read(directory.resolve("memory.limit_in_bytes"));
+            if (max != null) {
+                limit = min(limit, bytes(max));
+            }
+        }
+        return limit;
+    }
+
+    /**
+     * Returns the directory of a cgroup and those of its ancestors, up to the {@code mount} of its hierarchy.  A
+     * cgroup that is not visible under {@code mount}, as when the process has no cgroup namespace of its own, falls
+     * back to {@code mount}.
+     */
+    private static List<Path> getHierarchy(Path mount, @Nullable String path) {
+        Path directory = path == null ? mount : mount.resolve(path.replaceFirst("^/+", "")).normalize();
+        if (!directory.startsWith(mount) || !Files.isDirectory(directory)) {
+            directory = mount;
+        }
+
+        List<Path> directories = new ArrayList<>();
+        for (; !directory.equals(mount); directory = directory.getParent()) {
+            directories.add(directory);
+        }
+        directories.add(mount);
+        return directories;
+    }
+
+    @Nullable
+    private static <T extends Comparable<T>> T min(@Nullable T a, @Nullable T b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null || a.compareTo(b) <= 0 ? a : b;
+    }
+
+    @Nullable
+    private static Long bytes(String max) {
+        if ("max".equals(max)) {
+            return null;
+        }
+
+        try {
+            long bytes = Long.parseLong(max);
+            return bytes > 0 && bytes < UNLIMITED_MEMORY ? bytes : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    @Nullable
+    private static Double quota(String quota, String period) {
+        if ("max".equals(quota)) {
+            return null;
+        }
+
+        try {
+            long q = Long.parseLong(quota);
+            long p = Long.parseLong(period);
+            return q > 0 && p > 0 ? (double) q / p : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    @Nullable
+    private static String read(Path file) {
+        if (!Files.isReadable(file)) {
+            return null;
+        }
+
+        try {
+            return Files.readString(file, StandardCharsets.UTF_8).trim();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+}
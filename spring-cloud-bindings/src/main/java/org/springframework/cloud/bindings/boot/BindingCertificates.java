@@ -0,0 +1,302 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.cloud.bindings.boot;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.cloud.bindings.Binding;
+import org.springframework.cloud.bindings.Bindings;
+import org.springframework.cloud.bindings.boot.pem.PemSslStoreHelper;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.env.Environment;
+
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * An index of the X.509 certificates in {@link Bindings}, ordered by the time that they expire, so that rotation can
+ * be planned without parsing the bound PEM content again.  A {@link CertificateExpiringEvent} is published for each
+ * certificate that expires within one of the lead times in {@value LEAD_TIMES_PROPERTY} once the application is
+ * ready, and again each time {@link #publishExpiringEvents(ApplicationEventPublisher)} is called and a shorter lead
+ * time has been reached.
+ */
+public final class BindingCertificates implements ApplicationListener<ApplicationReadyEvent> {
+
+    /**
+     * The property that enables indexing certificates by expiry, which is disabled by default: {@value}.
+     */
+    public static final String ENABLE_PROPERTY = "org.springframework.cloud.bindings.boot.certificates.enable";
+
+    /**
+     * The property that configures the lead times before expiry at which events are published: {@value}.
+     */
+    public static final String LEAD_TIMES_PROPERTY = "org.springframework.cloud.bindings.boot.certificates.lead-times";
+
+    static final List<Duration> DEFAULT_LEAD_TIMES = List.of(Duration.ofDays(30), Duration.ofDays(7), Duration.ofDays(1));
+
+    private static final String CERTIFICATE_HEADER = "-----BEGIN CERTIFICATE-----";
+
+    private final List<Certificate> certificates;
+
+    private final List<Duration> leadTimes;
+
+    private final Set<Published> published = new HashSet<>();
+
+    /**
+     * Creates a new {@code BindingCertificates} instance.
+     *
+     * @param bindings  the {@code Bindings} to index the certificates of.
+     * @param leadTimes the lead times before expiry at which events are published.
+     */
+    BindingCertificates(Bindings bindings, List<Duration> leadTimes) {
+        List<Certificate> certificates = new ArrayList<>();
+        bindings.getBindings().forEach(binding -> binding.getSecret().forEach((key, value) -> {
+            if (value.contains(CERTIFICATE_HEADER)) {
+                certificates.addAll(read(binding, key, value));
+            }
+        }));
+        certificates.sort(Comparator.comparing(Certificate::getNotAfter));
+
+        this.certificates = Collections.unmodifiableList(certificates);
+        this.leadTimes = leadTimes.stream().sorted().collect(Collectors.toUnmodifiableList());
+    }
+
+    /**
+     * Returns the lead times configured by an {@link Environment}.
+     *
+     * @param environment the {@code Environment} to read the lead times from.
+     * @return the lead times before expiry at which events are published.
+     */
+    static List<Duration> getLeadTimes(Environment environment) {
+        String value = environment.getProperty(LEAD_TIMES_PROPERTY);
+        if (value == null) {
+            return DEFAULT_LEAD_TIMES;
+        }
+
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .map(DurationStyle::detectAndParse)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns all the certificates in the {@link Bindings}, ordered by the time they expire.
+     *
+     * @return the certificates in the {@code Bindings}.
+     */
+    public List<Certificate> getCertificates() {
+        return certificates;
+    }
+
+    /**
+     * Returns the certificates that expire before a given time, ordered by the time they expire.
+     *
+     * @param time the time to compare expiry to.
+     * @return the certificates that expire before {@code time}.
+     */
+    public List<Certificate> getExpiringBefore(Instant time) {
+        return certificates.stream()
+                .filter(certificate -> certificate.getNotAfter().isBefore(time))
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    /**
+     * Returns the certificates that expire within a given duration from now, ordered by the time they expire.
+     *
+     * @param duration the duration from now.
+     * @return the certificates that expire within {@code duration}.
+     */
+    public List<Certificate> getExpiringWithin(Duration duration) {
+        return getExpiringBefore(Instant.now().plus(duration));
+    }
+
+    /**
+     * Publishes a {@link CertificateExpiringEvent} for each certificate that has reached a lead time before its expiry
+     * since it was last published.  This may be called periodically to be notified as certificates approach expiry.
+     *
+     * @param publisher the publisher to publish the events with.
+     */
+    public void publishExpiringEvents(ApplicationEventPublisher publisher) {
+        publishExpiringEvents(publisher, Instant.now());
+    }
+
+    void publishExpiringEvents(ApplicationEventPublisher publisher, Instant now) {
+        List<CertificateExpiringEvent> events = new ArrayList<>();
+
+        synchronized (published) {
+            for (Certificate certificate : certificates) {
+                leadTimes.stream()
+                        .filter(leadTime -> !certificate.getNotAfter().minus(leadTime).isAfter(now))
+                        .findFirst()
+                        .filter(leadTime -> published.add(new Published(certificate, leadTime)))
+                        .ifPresent(leadTime -> events.add(new CertificateExpiringEvent(this, certificate, leadTime)));
+            }
+        }
+
+        events.forEach(publisher::publishEvent);
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        publishExpiringEvents(event.getApplicationContext());
+    }
+
+    private static List<Certificate> read(Binding binding, String key, String content) {
+        X509Certificate[] certificates;
+        try {
+            certificates = PemSslStoreHelper.readCertificates(content);
+        } catch (IllegalStateException e) {
+            // Invalid content is reported by the processors that use it
+            return Collections.emptyList();
+        }
+
+        if (certificates == null) {
+            return Collections.emptyList();
+        }
+
+        return Arrays.stream(certificates)
+                .map(certificate -> new Certificate(binding.getName(), key,
+                        certificate.getSubjectX500Principal().getName(), certificate.getNotAfter().toInstant()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * A certificate in a {@link Binding}.
+     */
+    public static final class Certificate {
+
+        private final String binding;
+
+        private final String key;
+
+        private final String subject;
+
+        private final Instant notAfter;
+
+        Certificate(String binding, String key, String subject, Instant notAfter) {
+            this.binding = binding;
+            this.key = key;
+            this.subject = subject;
+            this.notAfter = notAfter;
+        }
+
+        /**
+         * Returns the name of the {@link Binding} that contains the certificate.
+         *
+         * @return the name of the {@code Binding}.
+         */
+        public String getBinding() {
+            return binding;
+        }
+
+        /**
+         * Returns the secret key that contains the certificate, for example {@code ca.crt}.
+         *
+         * @return the secret key.
+         */
+        public String getKey() {
+            return key;
+        }
+
+        /**
+         * Returns the subject distinguished name of the certificate.
+         *
+         * @return the subject distinguished name.
+         */
+        public String getSubject() {
+            return subject;
+        }
+
+        /**
+         * Returns the time after which the certificate is no longer valid.
+         *
+         * @return the time after which the certificate is no longer valid.
+         */
+        public Instant getNotAfter() {
+            return notAfter;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Certificate that = (Certificate) o;
+            return binding.equals(that.binding) && key.equals(that.key) && subject.equals(that.subject)
+                    && notAfter.equals(that.notAfter);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(binding, key, subject, notAfter);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Certificate{binding='%s', key='%s', subject='%s', notAfter=%s}",
+                    binding, key, subject, notAfter);
+        }
+
+    }
+
+    private static final class Published {
+
+        private final Certificate certificate;
+
+        private final Duration leadTime;
+
+        private Published(Certificate certificate, Duration leadTime) {
+            this.certificate = certificate;
+            this.leadTime = leadTime;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Published that = (Published) o;
+            return certificate.equals(that.certificate) && leadTime.equals(that.leadTime);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(certificate, leadTime);
+        }
+
+    }
+
+}
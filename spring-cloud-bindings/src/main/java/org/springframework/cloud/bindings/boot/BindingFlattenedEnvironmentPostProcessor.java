@@ -16,32 +16,43 @@
 
 package org.springframework.cloud.bindings.boot;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.context.config.ConfigDataEnvironmentPostProcessor;
 import org.springframework.boot.context.event.ApplicationPreparedEvent;
 import org.springframework.boot.env.EnvironmentPostProcessor;
 import org.springframework.boot.logging.DeferredLog;
+import org.springframework.cloud.bindings.Binding;
 import org.springframework.cloud.bindings.Bindings;
 import org.springframework.context.ApplicationListener;
 import org.springframework.core.Ordered;
 import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.lang.Nullable;
 
 import static org.springframework.cloud.bindings.boot.PropertySourceContributor.contributePropertySource;
 
 /**
  * An implementation of {@link EnvironmentPostProcessor} that generates properties from {@link Bindings} with a
  * flattened format: {@code k8s.bindings.{name}.*}.
+ * <p>
+ * The properties are resolved lazily against the {@code Bindings} rather than copied.  The bindings that are exposed
+ * can be restricted by setting {@code org.springframework.cloud.bindings.boot.flattened.types} and/or
+ * {@code org.springframework.cloud.bindings.boot.flattened.names} to comma-delimited lists of binding types and
+ * names.
  */
 public final class BindingFlattenedEnvironmentPostProcessor implements ApplicationListener<ApplicationPreparedEvent>,
         EnvironmentPostProcessor, Ordered {
 
     public static final String BINDING_FLATTENED_PROPERTY_SOURCE_NAME = "kubernetesServiceBindingFlattened";
 
+    static final String TYPES_PROPERTY = "org.springframework.cloud.bindings.boot.flattened.types";
+
+    static final String NAMES_PROPERTY = "org.springframework.cloud.bindings.boot.flattened.names";
+
     private final DeferredLog log = new DeferredLog();
 
+    @Nullable
     private final Bindings bindings;
 
     /**
@@ -49,7 +60,7 @@ public final class BindingFlattenedEnvironmentPostProcessor implements Applicati
      * in the environment.
      */
     public BindingFlattenedEnvironmentPostProcessor() {
-        this(new Bindings());
+        this.bindings = null;
     }
 
     BindingFlattenedEnvironmentPostProcessor(Bindings bindings) {
@@ -69,20 +80,33 @@ public final class BindingFlattenedEnvironmentPostProcessor implements Applicati
 
     @Override
     public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
-        Map<String, Object> properties = new HashMap<>();
-        bindings.getBindings().forEach(binding -> {
-            binding.getSecret().forEach((key, value) -> {
-                properties.put(String.format("k8s.bindings.%s.%s", binding.getName(), key), value);
-            });
-        });
-
-        if (properties.isEmpty()) {
+        Bindings bindings = this.bindings != null ? this.bindings : BindingsSnapshotRegistrar.getSnapshot(application);
+        BindingFlattenedPropertySource propertySource = new BindingFlattenedPropertySource(
+                BINDING_FLATTENED_PROPERTY_SOURCE_NAME, filterBindings(environment, bindings));
+
+        if (propertySource.isEmpty()) {
             log.debug("No properties set from Kubernetes Service Bindings. Skipping PropertySource creation.");
             return;
         }
 
         log.info("Creating flattened PropertySource from Kubernetes Service Bindings");
-        contributePropertySource(BINDING_FLATTENED_PROPERTY_SOURCE_NAME, properties, environment);
+        contributePropertySource(propertySource, environment);
+    }
+
+    private static Bindings filterBindings(ConfigurableEnvironment environment, Bindings bindings) {
+        String[] types = environment.getProperty(TYPES_PROPERTY, String[].class);
+        String[] names = environment.getProperty(NAMES_PROPERTY, String[].class);
+        if (types == null && names == null) {
+            return bindings;
+        }
+
+        return new Bindings(bindings.getBindings().stream()
+                .filter(binding -> matches(types, binding.getType()) || matches(names, binding.getName()))
+                .toArray(Binding[]::new));
+    }
+
+    private static boolean matches(@Nullable String[] candidates, String value) {
+        return candidates != null && Arrays.stream(candidates).anyMatch(c -> c.trim().equalsIgnoreCase(value));
     }
 
 }
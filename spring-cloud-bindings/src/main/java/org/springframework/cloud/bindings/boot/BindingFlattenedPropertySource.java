@@ -0,0 +1,101 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bindings.boot;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.cloud.bindings.Binding;
+import org.springframework.cloud.bindings.Bindings;
+import org.springframework.core.env.EnumerablePropertySource;
+import org.springframework.lang.Nullable;
+
+/**
+ * An {@link EnumerablePropertySource} that exposes the secrets of {@link Bindings} as {@code k8s.bindings.{name}.*}
+ * without copying them.  Lookups are resolved directly against the {@code Bindings} and property names are only
+ * built when the source is enumerated.
+ */
+final class BindingFlattenedPropertySource extends EnumerablePropertySource<Bindings> {
+
+    static final String PREFIX = "k8s.bindings.";
+
+    private final Map<String, Binding> index = new HashMap<>();
+
+    @Nullable
+    private volatile String[] propertyNames;
+
+    BindingFlattenedPropertySource(String name, Bindings bindings) {
+        super(name, bindings);
+
+        // Later bindings win, as they would when the properties were copied into a single map
+        bindings.getBindings().forEach(binding -> index.put(binding.getName(), binding));
+    }
+
+    @Override
+    @Nullable
+    public Object getProperty(String name) {
+        if (!name.startsWith(PREFIX)) {
+            return null;
+        }
+
+        // Both binding names and secret keys may contain dots, so try each possible split
+        int start = PREFIX.length();
+        for (int i = name.indexOf('.', start); i != -1; i = name.indexOf('.', i + 1)) {
+            Binding binding = index.get(name.substring(start, i));
+            if (binding == null) {
+                continue;
+            }
+
+            String value = binding.getSecret().get(name.substring(i + 1));
+            if (value != null) {
+                return value;
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public boolean containsProperty(String name) {
+        return getProperty(name) != null;
+    }
+
+    @Override
+    public String[] getPropertyNames() {
+        String[] names = propertyNames;
+        if (names == null) {
+            List<String> n = new ArrayList<>();
+            index.values().forEach(binding -> binding.getSecret().keySet()
+                    .forEach(key -> n.add(PREFIX + binding.getName() + "." + key)));
+            names = n.toArray(new String[0]);
+            propertyNames = names;
+        }
+        return names.clone();
+    }
+
+    /**
+     * Returns whether this source exposes any properties.
+     *
+     * @return {@code true} if no {@link Binding} has any secret entries, {@code false} otherwise.
+     */
+    boolean isEmpty() {
+        return index.values().stream().allMatch(binding -> binding.getSecret().isEmpty());
+    }
+
+}
@@ -0,0 +1,279 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.cloud.bindings.boot;
+
+import com.nimbusds.jose.jwk.JWKSet;
+import org.springframework.boot.json.JsonParserFactory;
+import org.springframework.cloud.bindings.Binding;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPublicKeySpec;
+import java.security.spec.RSAPublicKeySpec;
+import java.text.ParseException;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A JSON Web Key Set read from the {@value KEY} entry of a {@link Binding}, so that a resource server can verify
+ * tokens without fetching the key set over the network.  The entry is read again when its file changes, for example
+ * when the binding's secret is rotated, and is otherwise served from memory.
+ * <p>
+ * With Spring Security, a {@code JwtDecoder} can use the parsed key set as its {@code JWKSource}:
+ * <pre>
+ * NimbusJwtDecoder.withJwkSource(new ImmutableJWKSet&lt;&gt;(jwkSet.getJwkSet())).build();
+ * </pre>
+ * or, to follow rotations of the binding's secret:
+ * <pre>
+ * NimbusJwtDecoder.withJwkSource((selector, context) -&gt; selector.select(jwkSet.getJwkSet())).build();
+ * </pre>
+ */
+public final class BindingJwkSet {
+
+    /**
+     * The {@link Binding} secret entry that contains the JSON Web Key Set: {@value}.
+     */
+    public static final String KEY = "jwks.json";
+
+    private static final Map<String, String> CURVES = Map.of(
+            "P-256", "secp256r1",
+            "P-384", "secp384r1",
+            "P-521", "secp521r1"
+    );
+
+    private static final Set<String> RSA_ALGORITHMS = Set.of("RS256", "RS384", "RS512", "PS256", "PS384", "PS512");
+
+    private static final Map<String, String> EC_ALGORITHMS = Map.of(
+            "P-256", "ES256",
+            "P-384", "ES384",
+            "P-521", "ES512"
+    );
+
+    private final Path file;
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * Creates a new {@code BindingJwkSet} instance.
+     *
+     * @param file the file the key set is read from when it changes.
+     * @param json the current contents of {@code file}.
+     */
+    BindingJwkSet(Path file, String json) {
+        this.file = file;
+        this.snapshot = new Snapshot(lastModified(file), json);
+    }
+
+    /**
+     * Returns the JSON Web Key Set, reading it again if its file has changed since it was last read.
+     *
+     * @return the JSON Web Key Set.
+     */
+    public String getJson() {
+        return getSnapshot().json;
+    }
+
+    /**
+     * Returns the RSA and EC signature verification keys in the JSON Web Key Set, by key ID.  Keys without a key ID
+     * are identified by their index in the set.  Keys whose {@code use} is not {@code sig}, or whose {@code alg} does
+     * not match their type and curve, are left out.  The set is parsed when this is first called after it is read.
+     *
+     * @return the public keys in the JSON Web Key Set.
+     */
+    public Map<String, PublicKey> getPublicKeys() {
+        return getSnapshot().getPublicKeys();
+    }
+
+    /**
+     * Returns the JSON Web Key Set parsed by Nimbus JOSE + JWT, which must be on the classpath.  The set is parsed when
+     * this is first called after it is read.
+     *
+     * @return the parsed JSON Web Key Set.
+     * @throws IllegalArgumentException if the JSON Web Key Set cannot be parsed.
+     */
+    public JWKSet getJwkSet() {
+        return getSnapshot().getJwkSet();
+    }
+
+    private Snapshot getSnapshot() {
+        Snapshot s = snapshot;
+        FileTime lastModified = lastModified(file);
+        if (lastModified == null || lastModified.equals(s.lastModified)) {
+            return s;
+        }
+
+        synchronized (this) {
+            s = snapshot;
+            if (!lastModified.equals(s.lastModified)) {
+                try {
+                    s = new Snapshot(lastModified, Files.readString(file));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(String.format("Unable to read %s", file), e);
+                }
+                snapshot = s;
+            }
+            return s;
+        }
+    }
+
+    @Nullable
+    private static FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static final class Snapshot {
+
+        @Nullable
+        private final FileTime lastModified;
+
+        private final String json;
+
+        @Nullable
+        private volatile Map<String, PublicKey> publicKeys;
+
+        @Nullable
+        private volatile JWKSet jwkSet;
+
+        private Snapshot(@Nullable FileTime lastModified, String json) {
+            this.lastModified = lastModified;
+            this.json = json;
+        }
+
+        private Map<String, PublicKey> getPublicKeys() {
+            Map<String, PublicKey> p = publicKeys;
+            if (p == null) {
+                p = Collections.unmodifiableMap(parse(json));
+                publicKeys = p;
+            }
+            return p;
+        }
+
+        private JWKSet getJwkSet() {
+            JWKSet j = jwkSet;
+            if (j == null) {
+                try {
+                    j = JWKSet.parse(json);
+                } catch (ParseException e) {
+                    throw new IllegalArgumentException("Unable to parse JSON Web Key Set", e);
+                }
+                jwkSet = j;
+            }
+            return j;
+        }
+
+        private static Map<String, PublicKey> parse(String json) {
+            Object keys = JsonParserFactory.getJsonParser().parseMap(json).get("keys");
+            if (!(keys instanceof List<?> list)) {
+                throw new IllegalArgumentException("JSON Web Key Set does not contain 'keys'");
+            }
+
+            Map<String, PublicKey> publicKeys = new LinkedHashMap<>();
+            for (int i = 0; i < list.size(); i++) {
+                if (!(list.get(i) instanceof Map<?, ?> jwk) || !"sig".equals(get(jwk, "use", "sig"))) {
+                    continue;
+                }
+
+                if (!isAlgorithmOf(jwk)) {
+                    continue;
+                }
+
+                PublicKey publicKey = toPublicKey(jwk);
+                if (publicKey != null) {
+                    publicKeys.put(get(jwk, "kid", String.valueOf(i)), publicKey);
+                }
+            }
+            return publicKeys;
+        }
+
+        /**
+         * Returns whether the {@code alg} of a key, if it has one, is a signature algorithm for its type and curve.
+         */
+        private static boolean isAlgorithmOf(Map<?, ?> jwk) {
+            Object alg = jwk.get("alg");
+            if (alg == null) {
+                return true;
+            }
+
+            String algorithm = alg.toString();
+            switch (get(jwk, "kty", "")) {
+                case "RSA":
+                    return RSA_ALGORITHMS.contains(algorithm);
+                case "EC":
+                    return algorithm.equals(EC_ALGORITHMS.get(get(jwk, "crv", "")));
+                default:
+                    return false;
+            }
+        }
+
+        @Nullable
+        private static PublicKey toPublicKey(Map<?, ?> jwk) {
+            try {
+                switch (get(jwk, "kty", "")) {
+                    case "RSA":
+                        return KeyFactory.getInstance("RSA").generatePublic(
+                                new RSAPublicKeySpec(decode(jwk, "n"), decode(jwk, "e")));
+                    case "EC":
+                        String curve = CURVES.get(get(jwk, "crv", ""));
+                        if (curve == null) {
+                            return null;
+                        }
+                        AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+                        parameters.init(new ECGenParameterSpec(curve));
+                        return KeyFactory.getInstance("EC").generatePublic(new ECPublicKeySpec(
+                                new ECPoint(decode(jwk, "x"), decode(jwk, "y")),
+                                parameters.getParameterSpec(ECParameterSpec.class)));
+                    default:
+                        return null;
+                }
+            } catch (GeneralSecurityException e) {
+                throw new IllegalArgumentException(String.format("Invalid JSON Web Key '%s'", get(jwk, "kid", "")), e);
+            }
+        }
+
+        private static String get(Map<?, ?> jwk, String name, String defaultValue) {
+            Object value = jwk.get(name);
+            return value != null ? value.toString() : defaultValue;
+        }
+
+        private static BigInteger decode(Map<?, ?> jwk, String name) {
+            return new BigInteger(1, Base64.getUrlDecoder().decode(get(jwk, name, "")));
+        }
+
+    }
+
+}
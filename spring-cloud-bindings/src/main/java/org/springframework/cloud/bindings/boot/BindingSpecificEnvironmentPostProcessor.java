@@ -32,6 +32,7 @@ import org.springframework.core.Ordered;
 import org.springframework.core.env.ConfigurableEnvironment;
 import org.springframework.core.env.PropertySource;
 import org.springframework.core.io.support.SpringFactoriesLoader;
+import org.springframework.lang.Nullable;
 
 
 import static org.springframework.cloud.bindings.boot.Guards.isGlobalEnabled;
@@ -41,7 +42,8 @@ import static org.springframework.cloud.bindings.boot.PropertySourceContributor.
  * An implementation of {@link EnvironmentPostProcessor} that delegates properties generation from {@link Bindings}.
  * This implementation generates a single instance of {@code Bindings} and then calls all implementations of
  * {@link BindingsPropertiesProcessor} registered with {@link SpringFactoriesLoader} allowing them to generate any
- * properties from the contents of the {@code Bindings}.
+ * properties from the contents of the {@code Bindings}.  The same {@code Bindings} are later registered as a bean by
+ * {@link BindingsSnapshotRegistrar}.
  * <p>
  * Must be enabled by setting the {@code org.springframework.cloud.bindings.boot.enable} System Property to
  * {@code true}.
@@ -58,6 +60,7 @@ public final class BindingSpecificEnvironmentPostProcessor implements Applicatio
 
     final List<BindingsPropertiesProcessor> processors;
 
+    @Nullable
     private final Bindings bindings;
 
     /**
@@ -65,7 +68,7 @@ public final class BindingSpecificEnvironmentPostProcessor implements Applicatio
      * the environment and the {@link BindingsPropertiesProcessor}s registered with {@link SpringFactoriesLoader}.
      */
     public BindingSpecificEnvironmentPostProcessor() {
-        this.bindings = new Bindings();
+        this.bindings = null;
         this.processors = SpringFactoriesLoader.
                 loadFactories(BindingsPropertiesProcessor.class, getClass().getClassLoader());
     }
@@ -92,13 +95,21 @@ public final class BindingSpecificEnvironmentPostProcessor implements Applicatio
             return;
         }
 
+        Bindings bindings = this.bindings != null ? this.bindings : BindingsSnapshotRegistrar.getSnapshot(application);
         if (bindings.getBindings().isEmpty()) {
             LOG.debug("No Kubernetes Service Bindings found. Skipping Environment post-processing.");
             return;
         }
 
         Map<String, Object> properties = new HashMap<>();
-        processors.forEach(processor -> processor.process(environment, bindings, properties));
+        try {
+            processors.forEach(processor -> processor.process(environment, bindings, properties));
+
+            // Key and trust stores may be written in the background while the processors run
+            KeyStoreFiles.awaitPending(environment);
+        } finally {
+            KeyStoreFiles.clearPending(environment);
+        }
         if (properties.isEmpty()) {
             LOG.debug("No properties set from Kubernetes Service Bindings. Skipping PropertySource creation.");
             return;
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bindings.boot;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationPreparedEvent;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.boot.logging.DeferredLog;
+import org.springframework.cloud.bindings.Bindings;
+import org.springframework.cloud.bindings.BindingsTypeIndex;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import static org.springframework.cloud.bindings.boot.Guards.isGlobalEnabled;
+
+/**
+ * Holds the {@link Bindings} read for a {@link SpringApplication} so that every {@link EnvironmentPostProcessor}
+ * in this package works from the same snapshot, and registers that snapshot and a {@link BindingsTypeIndex} of it as
+ * singleton beans once the {@code ApplicationContext} has been prepared.
+ */
+public final class BindingsSnapshotRegistrar implements ApplicationListener<ApplicationPreparedEvent> {
+
+    /**
+     * The name of the {@link Bindings} bean: {@value}.
+     */
+    public static final String BINDINGS_BEAN_NAME = "kubernetesServiceBindings";
+
+    /**
+     * The name of the {@link BindingsTypeIndex} bean: {@value}.
+     */
+    public static final String BINDINGS_TYPE_INDEX_BEAN_NAME = "kubernetesServiceBindingsTypeIndex";
+
+    /**
+     * The name of the {@link BindingCertificates} bean: {@value}.
+     */
+    public static final String BINDING_CERTIFICATES_BEAN_NAME = "kubernetesServiceBindingCertificates";
+
+    private static final DeferredLog LOG = new DeferredLog();
+
+    private static final Map<SpringApplication, Bindings> SNAPSHOTS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * Returns the {@link Bindings} snapshot for a {@link SpringApplication}, reading it from the environment the
+     * first time it is requested.
+     *
+     * @param application the {@code SpringApplication} being started.
+     * @return the {@code Bindings} snapshot for {@code application}.
+     */
+    static Bindings getSnapshot(SpringApplication application) {
+        return SNAPSHOTS.computeIfAbsent(application, a -> new Bindings());
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationPreparedEvent event) {
+        Bindings bindings = SNAPSHOTS.remove(event.getSpringApplication());
+        if (bindings != null) {
+            register(event.getApplicationContext().getBeanFactory(), bindings);
+            registerCertificates(event.getApplicationContext(), bindings);
+        }
+
+        LOG.replayTo(getClass());
+    }
+
+    private void register(ConfigurableListableBeanFactory beanFactory, Bindings bindings) {
+        if (beanFactory.containsBean(BINDINGS_BEAN_NAME) || beanFactory.containsBean(BINDINGS_TYPE_INDEX_BEAN_NAME)) {
+            LOG.debug("Kubernetes Service Bindings beans already defined. Skipping registration.");
+            return;
+        }
+
+        LOG.debug("Registering Kubernetes Service Bindings beans");
+        beanFactory.registerSingleton(BINDINGS_BEAN_NAME, bindings);
+        beanFactory.registerSingleton(BINDINGS_TYPE_INDEX_BEAN_NAME, new BindingsTypeIndex(bindings));
+    }
+
+    private void registerCertificates(ConfigurableApplicationContext context, Bindings bindings) {
+        ConfigurableListableBeanFactory beanFactory = context.getBeanFactory();
+        if (!isGlobalEnabled(context.getEnvironment())
+                || !context.getEnvironment().getProperty(BindingCertificates.ENABLE_PROPERTY, Boolean.class, false)
+                || beanFactory.containsBean(BINDING_CERTIFICATES_BEAN_NAME)) {
+            return;
+        }
+
+        List<Duration> leadTimes = BindingCertificates.getLeadTimes(context.getEnvironment());
+        BindingCertificates certificates = new BindingCertificates(bindings, leadTimes);
+        leadTimes.stream().max(Duration::compareTo).ifPresent(leadTime ->
+                certificates.getExpiringWithin(leadTime).forEach(certificate -> LOG.warn(String.format(
+                        "Certificate '%s' in '%s' of binding '%s' expires at %s", certificate.getSubject(),
+                        certificate.getKey(), certificate.getBinding(), certificate.getNotAfter()))));
+
+        beanFactory.registerSingleton(BINDING_CERTIFICATES_BEAN_NAME, certificates);
+    }
+
+}
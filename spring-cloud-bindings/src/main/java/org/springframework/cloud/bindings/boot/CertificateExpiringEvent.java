@@ -0,0 +1,60 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.cloud.bindings.boot;
+
+import org.springframework.context.ApplicationEvent;
+
+import java.time.Duration;
+
+/**
+ * An {@link ApplicationEvent} published when a certificate in a binding reaches one of the configured lead times
+ * before its expiry.
+ */
+public final class CertificateExpiringEvent extends ApplicationEvent {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient BindingCertificates.Certificate certificate;
+
+    private final Duration leadTime;
+
+    CertificateExpiringEvent(BindingCertificates source, BindingCertificates.Certificate certificate, Duration leadTime) {
+        super(source);
+        this.certificate = certificate;
+        this.leadTime = leadTime;
+    }
+
+    /**
+     * Returns the certificate that is expiring.
+     *
+     * @return the certificate that is expiring.
+     */
+    public BindingCertificates.Certificate getCertificate() {
+        return certificate;
+    }
+
+    /**
+     * Returns the shortest configured lead time that the certificate's expiry is within.
+     *
+     * @return the lead time that has been reached.
+     */
+    public Duration getLeadTime() {
+        return leadTime;
+    }
+
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bindings.boot;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.util.ClassUtils;
+
+/**
+ * A shared, memoized record of which optional classes are on the classpath.  Presence is checked without initializing
+ * the class, and each class is only looked up once.
+ * <p>
+ * The well-known classes below are probed during static initialization, so that when this class is initialized at
+ * native image build time (see {@code META-INF/native-image}) their presence is recorded in the image heap.
+ */
+final class ClassPathCapabilities {
+
+    static final String MARIADB_JDBC_DRIVER = "org.mariadb.jdbc.Driver";
+
+    static final String MARIADB_R2DBC_CONNECTION = "org.mariadb.r2dbc.MariadbConnection";
+
+    static final String MYSQL_JDBC_DRIVER = "com.mysql.cj.jdbc.Driver";
+
+    static final String ORACLE_UCP_POOL_DATA_SOURCE = "oracle.ucp.jdbc.PoolDataSourceImpl";
+
+    private static final Map<String, Boolean> PRESENCE = new ConcurrentHashMap<>();
+
+    static {
+        isPresent(MARIADB_JDBC_DRIVER);
+        isPresent(MARIADB_R2DBC_CONNECTION);
+        isPresent(MYSQL_JDBC_DRIVER);
+        isPresent(ORACLE_UCP_POOL_DATA_SOURCE);
+    }
+
+    private ClassPathCapabilities() {
+    }
+
+    static boolean isPresent(String className) {
+        return PRESENCE.computeIfAbsent(className,
+                c -> ClassUtils.isPresent(c, ClassPathCapabilities.class.getClassLoader()));
+    }
+
+}
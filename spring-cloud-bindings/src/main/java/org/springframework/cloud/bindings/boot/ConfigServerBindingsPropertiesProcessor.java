@@ -22,10 +22,10 @@ import org.springframework.cloud.bindings.boot.pem.PemSslStoreHelper;
 import org.springframework.core.env.Environment;
 import org.springframework.util.StringUtils;
 
-import java.nio.file.Path;
 import java.util.Map;
 
 
+import static org.springframework.cloud.bindings.boot.Guards.isSslBundleEnabled;
 import static org.springframework.cloud.bindings.boot.Guards.isTypeEnabled;
 
 /**
@@ -37,12 +37,19 @@ final class ConfigServerBindingsPropertiesProcessor implements BindingsPropertie
      **/
     public static final String TYPE = "config";
 
+    /**
+     * The name of the SSL bundle contributed when {@code org.springframework.cloud.bindings.boot.config.ssl-bundle} is
+     * {@code true}: {@value}.
+     */
+    public static final String SSL_BUNDLE = "config";
+
     @Override
     public void process(Environment environment, Bindings bindings, Map<String, Object> properties) {
         if (!isTypeEnabled(environment, TYPE)) {
             return;
         }
 
+        KeyStoreFiles keyStoreFiles = KeyStoreFiles.get(environment);
         bindings.filterBindings(TYPE).forEach(binding -> {
             Map<String, String> secret = binding.getSecret();
             MapMapper map = new MapMapper(secret, properties);
@@ -58,15 +65,27 @@ final class ConfigServerBindingsPropertiesProcessor implements BindingsPropertie
                 throw new IllegalArgumentException("binding secret error: tls.key and tls.crt must both be set if either is set");
             }
 
-            if (clientKey != null && !clientKey.isEmpty()) {
-                String generatedPassword = PemSslStoreHelper.generatePassword();
+            // The Config Server client does not read SSL bundles, so in bundle-only mode it is left to the application
+            if (clientKey != null && !clientKey.isEmpty() && isSslBundleEnabled(environment, TYPE)) {
+                PemSslStoreHelper.validateKeyStoreContent(clientCert, clientKey);
+                properties.put(String.format("spring.ssl.bundle.pem.%s.keystore.certificate", SSL_BUNDLE), clientCert);
+                properties.put(String.format("spring.ssl.bundle.pem.%s.keystore.private-key", SSL_BUNDLE), clientKey);
+                properties.put(String.format("spring.ssl.bundle.pem.%s.key.alias", SSL_BUNDLE), "config");
+
+                String caCert = secret.get("ca.crt");
+                if (caCert != null && !caCert.isEmpty()) {
+                    PemSslStoreHelper.validateKeyStoreContent(caCert, null);
+                    properties.put(String.format("spring.ssl.bundle.pem.%s.truststore.certificate", SSL_BUNDLE), caCert);
+                }
+            } else if (clientKey != null && !clientKey.isEmpty()) {
+                String generatedPassword = keyStoreFiles.generatePassword(clientCert, clientKey, secret.get("ca.crt"));
 
                 // Create a keystore
-                Path keyFilePath = PemSslStoreHelper.createKeyStoreFile("config-keystore", generatedPassword, clientCert, clientKey, "config");
+                String keyStoreLocation = keyStoreFiles.createKeyStoreLocation("config-keystore", generatedPassword, clientCert, clientKey, "config");
 
                 properties.put("spring.cloud.config.tls.enabled", true);
                 properties.put("spring.cloud.config.tls.key-alias", "config");
-                properties.put("spring.cloud.config.tls.key-store", "file:" + keyFilePath);
+                properties.put("spring.cloud.config.tls.key-store", keyStoreLocation);
                 properties.put("spring.cloud.config.tls.key-store-type", PemSslStoreHelper.PKCS12_STORY_TYPE);
                 properties.put("spring.cloud.config.tls.key-store-password", generatedPassword);
                 properties.put("spring.cloud.config.tls.key-password", "");
@@ -74,8 +93,8 @@ final class ConfigServerBindingsPropertiesProcessor implements BindingsPropertie
                 String caCert = secret.get("ca.crt");
                 if (caCert != null && !caCert.isEmpty()) {
                     // Create a truststore from the CA cert
-                    Path trustFilePath = PemSslStoreHelper.createKeyStoreFile("config-truststore", generatedPassword, caCert, null, "ca");
-                    properties.put("spring.cloud.config.tls.trust-store", "file:" + trustFilePath);
+                    String trustStoreLocation = keyStoreFiles.createKeyStoreLocation("config-truststore", generatedPassword, caCert, null, "ca");
+                    properties.put("spring.cloud.config.tls.trust-store", trustStoreLocation);
                     properties.put("spring.cloud.config.tls.trust-store-type", PemSslStoreHelper.PKCS12_STORY_TYPE);
                     properties.put("spring.cloud.config.tls.trust-store-password", generatedPassword);
                 }
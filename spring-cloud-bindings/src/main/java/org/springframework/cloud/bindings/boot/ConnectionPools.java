@@ -0,0 +1,390 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.cloud.bindings.boot;
+
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.cloud.bindings.Binding;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.TreeSet;
+
+/**
+ * Maps the standard {@code pool.*} and {@code r2dbc-pool.*} keys of database {@link Binding}s to connection pool
+ * properties, so that pools can be sized for each database instance through its binding.  Values are validated
+ * against the limits of the pool, and an {@link IllegalArgumentException} naming the binding and key is thrown for
+ * values the pool would reject or silently replace.  Pools that a binding does not size are sized by
+ * {@link AdaptivePoolSizing} when it is enabled.  The JDBC and R2DBC pools of a binding together open no more than
+ * its {@value MAX_CONNECTIONS}: sizes set by the binding must fit within it, and pools the binding does not size
+ * share what is left, with the JDBC pool taking the larger half.
+ */
+final class ConnectionPools {
+
+    static final String MAX_CONNECTIONS = "pool.max-connections";
+
+    static final String MAXIMUM_POOL_SIZE = "pool.maximum-pool-size";
+
+    static final String MINIMUM_IDLE = "pool.minimum-idle";
+
+    static final String CONNECTION_TIMEOUT = "pool.connection-timeout";
+
+    static final String IDLE_TIMEOUT = "pool.idle-timeout";
+
+    static final String MAX_LIFETIME = "pool.max-lifetime";
+
+    static final String KEEPALIVE_TIME = "pool.keepalive-time";
+
+    static final String VALIDATION_TIMEOUT = "pool.validation-timeout";
+
+    static final String R2DBC_INITIAL_SIZE = "r2dbc-pool.initial-size";
+
+    static final String R2DBC_MAX_SIZE = "r2dbc-pool.max-size";
+
+    static final String R2DBC_MAX_IDLE_TIME = "r2dbc-pool.max-idle-time";
+
+    static final String R2DBC_MAX_ACQUIRE_TIME = "r2dbc-pool.max-acquire-time";
+
+    static final String R2DBC_MAX_VALIDATION_TIME = "r2dbc-pool.max-validation-time";
+
+    static final String R2DBC_VALIDATION_QUERY = "r2dbc-pool.validation-query";
+
+    static final String R2DBC_VALIDATION_DEPTH = "r2dbc-pool.validation-depth";
+
+    private static final String HIKARI_PREFIX = "spring.datasource.hikari.";
+
+    private static final String R2DBC_POOL_PREFIX = "spring.r2dbc.pool.";
+
+    // The default size of both Hikari and R2DBC pools
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    private static final Set<String> VALIDATION_DEPTHS = Set.of("LOCAL", "REMOTE");
+
+    private static final Duration MINIMUM_TIMEOUT = Duration.ofMillis(250);
+
+    private static final Duration MINIMUM_IDLE_TIMEOUT = Duration.ofSeconds(10);
+
+    private static final Duration MINIMUM_LIFETIME = Duration.ofSeconds(30);
+
+    private ConnectionPools() {
+    }
+
+    /**
+     * Maps the {@code pool.*} keys of a JDBC {@link Binding} to {@code spring.datasource.hikari.*}.  Durations may be
+     * given in any format supported by {@link DurationStyle}, with milliseconds assumed when there is no unit.
+     *
+     * @param binding    the {@code Binding} to read the keys from.
+     * @param properties the properties to write the Hikari properties to.
+     * @throws IllegalArgumentException if a value is invalid.
+     */
+    static void mapHikari(Binding binding, Map<String, Object> properties) {
+        mapHikari(binding, properties, null);
+    }
+
+    /**
+     * Maps the {@code pool.*} keys of a JDBC {@link Binding} to {@code spring.datasource.hikari.*}, sizing the pool
+     * with {@code sizing} if the binding does not.
+     *
+     * @param binding    the {@code Binding} to read the keys from.
+     * @param properties the properties to write the Hikari properties to.
+     * @param sizing     the {@code AdaptivePoolSizing} to size the pool with, or {@code null} if it is not enabled.
+     * @throws IllegalArgumentException if a value is invalid.
+     */
+    static void mapHikari(Binding binding, Map<String, Object> properties, @Nullable AdaptivePoolSizing sizing) {
+        Integer minimumIdle = getInteger(binding, MINIMUM_IDLE, 0);
+        Integer maximumPoolSize = getPoolSize(binding, MAXIMUM_POOL_SIZE, MINIMUM_IDLE, minimumIdle, DEFAULT_POOL_SIZE, sizing,
+                R2DBC_MAX_SIZE);
+        Duration connectionTimeout = getDuration(binding, CONNECTION_TIMEOUT, MINIMUM_TIMEOUT);
+        Duration idleTimeout = getDuration(binding, IDLE_TIMEOUT, MINIMUM_IDLE_TIMEOUT);
+        Duration maxLifetime = getDuration(binding, MAX_LIFETIME, MINIMUM_LIFETIME);
+        Duration keepaliveTime = getDuration(binding, KEEPALIVE_TIME, MINIMUM_LIFETIME);
+        Duration validationTimeout = getDuration(binding, VALIDATION_TIMEOUT, MINIMUM_TIMEOUT);
+
+        if (validationTimeout != null && validationTimeout.isZero()) {
+            throw invalid(binding, VALIDATION_TIMEOUT, String.format("must be at least %s", MINIMUM_TIMEOUT));
+        }
+        if (maximumPoolSize != null && minimumIdle != null && minimumIdle > maximumPoolSize) {
+            throw invalid(binding, MINIMUM_IDLE, String.format("must not be greater than %s (%d)", MAXIMUM_POOL_SIZE, maximumPoolSize));
+        }
+        if (keepaliveTime != null && !keepaliveTime.isZero() && maxLifetime != null && !maxLifetime.isZero()
+                && keepaliveTime.compareTo(maxLifetime) >= 0) {
+            throw invalid(binding, KEEPALIVE_TIME, String.format("must be less than %s (%s)", MAX_LIFETIME, maxLifetime));
+        }
+        if (validationTimeout != null && connectionTimeout != null && !connectionTimeout.isZero()
+                && validationTimeout.compareTo(connectionTimeout) >= 0) {
+            throw invalid(binding, VALIDATION_TIMEOUT, String.format("must be less than %s (%s)", CONNECTION_TIMEOUT, connectionTimeout));
+        }
+
+        putIfNotNull(properties, HIKARI_PREFIX + "maximum-pool-size", maximumPoolSize);
+        putIfNotNull(properties, HIKARI_PREFIX + "minimum-idle", minimumIdle);
+        putMillis(properties, HIKARI_PREFIX + "connection-timeout", connectionTimeout);
+        putMillis(properties, HIKARI_PREFIX + "idle-timeout", idleTimeout);
+        putMillis(properties, HIKARI_PREFIX + "max-lifetime", maxLifetime);
+        putMillis(properties, HIKARI_PREFIX + "keepalive-time", keepaliveTime);
+        putMillis(properties, HIKARI_PREFIX + "validation-timeout", validationTimeout);
+    }
+
+    /**
+     * Maps the {@code r2dbc-pool.*} keys of an R2DBC {@link Binding} to {@code spring.r2dbc.pool.*}.  Durations may be
+     * given in any format supported by {@link DurationStyle}, with milliseconds assumed when there is no unit.
+     *
+     * @param binding    the {@code Binding} to read the keys from.
+     * @param properties the properties to write the R2DBC pool properties to.
+     * @throws IllegalArgumentException if a value is invalid.
+     */
+    static void mapR2dbcPool(Binding binding, Map<String, Object> properties) {
+        mapR2dbcPool(binding, properties, null);
+    }
+
+    /**
+     * Maps the {@code r2dbc-pool.*} keys of an R2DBC {@link Binding} to {@code spring.r2dbc.pool.*}, sizing the pool
+     * with {@code sizing} if the binding does not.
+     *
+     * @param binding    the {@code Binding} to read the keys from.
+     * @param properties the properties to write the R2DBC pool properties to.
+     * @param sizing     the {@code AdaptivePoolSizing} to size the pool with, or {@code null} if it is not enabled.
+     * @throws IllegalArgumentException if a value is invalid.
+     */
+    static void mapR2dbcPool(Binding binding, Map<String, Object> properties, @Nullable AdaptivePoolSizing sizing) {
+        mapR2dbcPool(binding, properties, sizing, MAXIMUM_POOL_SIZE);
+    }
+
+    /**
+     * Maps the {@code r2dbc-pool.*} keys of an R2DBC {@link Binding} to {@code spring.r2dbc.pool.*}, sizing the pool
+     * with {@code sizing} if the binding does not.
+     *
+     * @param binding     the {@code Binding} to read the keys from.
+     * @param properties  the properties to write the R2DBC pool properties to.
+     * @param sizing      the {@code AdaptivePoolSizing} to size the pool with, or {@code null} if it is not enabled.
+     * @param jdbcSizeKey the key of the size of the binding's JDBC pool, which shares its {@value MAX_CONNECTIONS}.
+     * @throws IllegalArgumentException if a value is invalid.
+     */
+    static void mapR2dbcPool(Binding binding, Map<String, Object> properties, @Nullable AdaptivePoolSizing sizing,
+                             String jdbcSizeKey) {
+        Integer initialSize = getInteger(binding, R2DBC_INITIAL_SIZE, 0);
+        Integer maxSize = getPoolSize(binding, R2DBC_MAX_SIZE, R2DBC_INITIAL_SIZE, initialSize, DEFAULT_POOL_SIZE, sizing,
+                jdbcSizeKey);
+        if (initialSize == null && maxSize != null && maxSize < DEFAULT_POOL_SIZE) {
+            // Spring Boot's default initial size would exceed the maximum
+            initialSize = maxSize;
+        }
+        Duration maxIdleTime = getTimeout(binding, R2DBC_MAX_IDLE_TIME);
+        Duration maxAcquireTime = getTimeout(binding, R2DBC_MAX_ACQUIRE_TIME);
+        Duration maxValidationTime = getTimeout(binding, R2DBC_MAX_VALIDATION_TIME);
+        String validationQuery = binding.getSecret().get(R2DBC_VALIDATION_QUERY);
+        String validationDepth = binding.getSecret().get(R2DBC_VALIDATION_DEPTH);
+
+        if (initialSize != null && maxSize != null && initialSize > maxSize) {
+            throw invalid(binding, R2DBC_INITIAL_SIZE, String.format("must not be greater than %s (%d)", R2DBC_MAX_SIZE, maxSize));
+        }
+        if (validationQuery != null && validationQuery.isBlank()) {
+            throw invalid(binding, R2DBC_VALIDATION_QUERY, "must not be blank");
+        }
+        if (validationDepth != null) {
+            validationDepth = validationDepth.trim().toUpperCase(Locale.ROOT);
+            if (!VALIDATION_DEPTHS.contains(validationDepth)) {
+                throw invalid(binding, R2DBC_VALIDATION_DEPTH, String.format("must be one of %s", new TreeSet<>(VALIDATION_DEPTHS)));
+            }
+        }
+
+        putIfNotNull(properties, R2DBC_POOL_PREFIX + "initial-size", initialSize);
+        putIfNotNull(properties, R2DBC_POOL_PREFIX + "max-size", maxSize);
+        putMillis(properties, R2DBC_POOL_PREFIX + "max-idle-time", maxIdleTime, "ms");
+        putMillis(properties, R2DBC_POOL_PREFIX + "max-acquire-time", maxAcquireTime, "ms");
+        putMillis(properties, R2DBC_POOL_PREFIX + "max-validation-time", maxValidationTime, "ms");
+        if (validationQuery != null) {
+            properties.put(R2DBC_POOL_PREFIX + "validation-query", validationQuery.trim());
+        }
+        if (validationDepth != null) {
+            properties.put(R2DBC_POOL_PREFIX + "validation-depth", validationDepth);
+        }
+    }
+
+    /**
+     * Returns the size of a pool from a {@link Binding}.  The JDBC and R2DBC pools of a binding together must not be
+     * larger than its {@value MAX_CONNECTIONS}, so a size set by the binding must leave at least one connection for the
+     * other pool, or the size that the binding sets for it.  If the binding does not size the pool, it is sized by
+     * {@code sizing}, or keeps {@code defaultSize}, but is no smaller than {@code minimum} and no larger than its share
+     * of {@value MAX_CONNECTIONS}: what the other pool's size leaves, or half of it if the other pool is not sized
+     * either, rounded up for the JDBC pool and down for the R2DBC pool.
+     *
+     * @param binding     the {@code Binding} to read the size from.
+     * @param key         the key of the size of the pool.
+     * @param minimumKey  the key of the minimum size of the pool.
+     * @param minimum     the minimum size of the pool, or {@code null} if it is not set.
+     * @param defaultSize the size of the pool if it is not set, or {@code null} if the pool is unbounded.
+     * @param sizing      the {@code AdaptivePoolSizing} to size the pool with, or {@code null} if it is not enabled.
+     * @param otherKey    the key of the size of the binding's other pool, {@value R2DBC_MAX_SIZE} for a JDBC pool.
+     * @return the size of the pool, or {@code null} if the pool keeps its default size.
+     * @throws IllegalArgumentException if a size is invalid.
+     */
+    @Nullable
+    static Integer getPoolSize(Binding binding, String key, String minimumKey, @Nullable Integer minimum,
+                               @Nullable Integer defaultSize, @Nullable AdaptivePoolSizing sizing, String otherKey) {
+        Integer size = getInteger(binding, key, 1);
+        // every binding maps a JDBC and an R2DBC pool, and each needs at least one connection
+        Integer maxConnections = getInteger(binding, MAX_CONNECTIONS, 2);
+        Integer otherSize = getInteger(binding, otherKey, 1);
+        if (maxConnections != null && size != null) {
+            if (otherSize != null && size + otherSize > maxConnections) {
+                throw invalid(binding, key, String.format("plus %s (%d) must not be greater than %s (%d)",
+                        otherKey, otherSize, MAX_CONNECTIONS, maxConnections));
+            }
+            if (otherSize == null && size >= maxConnections) {
+                throw invalid(binding, key, String.format("must be less than %s (%d), which also limits the pool sized by %s",
+                        MAX_CONNECTIONS, maxConnections, otherKey));
+            }
+        }
+        if (size != null || sizing == null && maxConnections == null) {
+            return size;
+        }
+
+        int s = sizing != null ? sizing.getPoolSize() : defaultSize != null ? defaultSize : Integer.MAX_VALUE;
+        if (minimum != null) {
+            s = Math.max(s, minimum);
+        }
+        if (maxConnections == null) {
+            return s;
+        }
+
+        boolean jdbc = R2DBC_MAX_SIZE.equals(otherKey);
+        int share = otherSize != null ? maxConnections - otherSize
+                : jdbc ? maxConnections - maxConnections / 2 : maxConnections / 2;
+        if (minimum != null && minimum > share) {
+            throw invalid(binding, minimumKey, String.format("must not be greater than %d, the share of %s (%d) left for this pool",
+                    share, MAX_CONNECTIONS, maxConnections));
+        }
+        return Math.min(s, share);
+    }
+
+    @Nullable
+    static Integer getInteger(Binding binding, String key, int minimum) {
+        String value = binding.getSecret().get(key);
+        if (value == null) {
+            return null;
+        }
+
+        int i;
+        try {
+            i = Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw invalid(binding, key, String.format("'%s' is not an integer", value));
+        }
+        if (i < minimum) {
+            throw invalid(binding, key, String.format("%d is less than %d", i, minimum));
+        }
+        return i;
+    }
+
+    @Nullable
+    static Boolean getBoolean(Binding binding, String key) {
+        String value = binding.getSecret().get(key);
+        if (value == null) {
+            return null;
+        }
+
+        String b = value.trim().toLowerCase(Locale.ROOT);
+        if (!"true".equals(b) && !"false".equals(b)) {
+            throw invalid(binding, key, String.format("'%s' is not true or false", value));
+        }
+        return Boolean.valueOf(b);
+    }
+
+    /**
+     * Returns a duration from a {@link Binding}, which must be zero, meaning disabled, or at least a minimum.
+     */
+    @Nullable
+    static Duration getDuration(Binding binding, String key, Duration minimum) {
+        Duration duration = parseDuration(binding, key);
+        if (duration == null) {
+            return null;
+        }
+
+        if (duration.isNegative()) {
+            throw invalid(binding, key, String.format("%s must not be negative", duration));
+        }
+        if (!duration.isZero() && duration.compareTo(minimum) < 0) {
+            throw invalid(binding, key, String.format("%s must be 0 or at least %s", duration, minimum));
+        }
+        return duration;
+    }
+
+    /**
+     * Returns a timeout from a {@link Binding}, which must not be zero.  Negative timeouts mean no timeout.
+     */
+    @Nullable
+    static Duration getTimeout(Binding binding, String key) {
+        Duration duration = parseDuration(binding, key);
+        if (duration != null && duration.isZero()) {
+            throw invalid(binding, key, "must not be 0, use a negative value for no timeout");
+        }
+        return duration;
+    }
+
+    @Nullable
+    private static Duration parseDuration(Binding binding, String key) {
+        String value = binding.getSecret().get(key);
+        if (value == null) {
+            return null;
+        }
+
+        try {
+            return DurationStyle.detectAndParse(value.trim());
+        } catch (IllegalArgumentException e) {
+            throw invalid(binding, key, String.format("'%s' is not a duration", value));
+        }
+    }
+
+    static IllegalArgumentException invalid(Binding binding, String key, String reason) {
+        return new IllegalArgumentException(String.format("Binding '%s' has an invalid '%s': %s", binding.getName(), key, reason));
+    }
+
+    /**
+     * Returns the parameters that are not {@code null} as a URL query, such as {@code ?a=1&b=2}, or an empty string if
+     * there are none.
+     */
+    static String toQuery(Map<String, ?> params) {
+        StringJoiner query = new StringJoiner("&", "?", "").setEmptyValue("");
+        params.forEach((key, value) -> {
+            if (value != null) {
+                query.add(key + "=" + value);
+            }
+        });
+        return query.toString();
+    }
+
+    static void putIfNotNull(Map<String, Object> properties, String key, @Nullable Object value) {
+        if (value != null) {
+            properties.put(key, value.toString());
+        }
+    }
+
+    private static void putMillis(Map<String, Object> properties, String key, @Nullable Duration value) {
+        putMillis(properties, key, value, "");
+    }
+
+    private static void putMillis(Map<String, Object> properties, String key, @Nullable Duration value, String unit) {
+        if (value != null) {
+            properties.put(key, value.toMillis() + unit);
+        }
+    }
+
+}
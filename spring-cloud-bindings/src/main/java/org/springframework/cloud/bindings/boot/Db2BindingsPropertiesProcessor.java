@@ -19,7 +19,9 @@ package org.springframework.cloud.bindings.boot;
 import org.springframework.cloud.bindings.Binding;
 import org.springframework.cloud.bindings.Bindings;
 import org.springframework.core.env.Environment;
+import org.springframework.lang.Nullable;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import static org.springframework.cloud.bindings.boot.Guards.isTypeEnabled;
@@ -36,23 +38,58 @@ public final class Db2BindingsPropertiesProcessor implements BindingsPropertiesP
      **/
     public static final String TYPE = "db2";
 
+    /**
+     * blockingReadConnectionTimeout determines how many seconds a read from the socket waits, {@code 0} for no
+     * timeout.
+     */
+    public static final String BLOCKING_READ_CONNECTION_TIMEOUT = "blockingReadConnectionTimeout";
+
+    /**
+     * fetchSize determines the default number of rows fetched in each round trip, {@code 0} for the driver's default.
+     */
+    public static final String FETCH_SIZE = "fetchSize";
+
+    /**
+     * progressiveStreaming determines whether LOBs are streamed progressively, rather than materialized.
+     */
+    public static final String PROGRESSIVE_STREAMING = "progressiveStreaming";
+
+    /**
+     * enableSeamlessFailover determines whether a failed-over connection is re-established without an exception,
+     * when the failure occurs at a transaction boundary.
+     */
+    public static final String ENABLE_SEAMLESS_FAILOVER = "enableSeamlessFailover";
+
+    // DB2BaseDataSource.YES and DB2BaseDataSource.NO
+    private static final int YES = 1;
+
+    private static final int NO = 2;
+
     @Override
     public void process(Environment environment, Bindings bindings, Map<String, Object> properties) {
         if (!isTypeEnabled(environment, TYPE)) {
             return;
         }
 
+        AdaptivePoolSizing sizing = AdaptivePoolSizing.get(environment);
         bindings.filterBindings(TYPE).forEach(binding -> {
+            if (TenantDataSourceRegistrar.collect(environment, binding, this)
+                    || ReplicaDataSourceRegistrar.collect(environment, binding, this)) {
+                return;
+            }
+
             MapMapper map = new MapMapper(binding.getSecret(), properties);
 
             //jdbc properties
+            String jdbcParams = buildJdbcParams(binding);
             map.from("username").to("spring.datasource.username");
             map.from("password").to("spring.datasource.password");
             map.from("host", "port", "database").to("spring.datasource.url",
-                    (host, port, database) -> String.format("jdbc:db2://%s:%s/%s", host, port, database));
+                    (host, port, database) -> String.format("jdbc:db2://%s:%s/%s%s", host, port, database, jdbcParams));
 
             // jdbcURL takes precedence
             map.from("jdbc-url").to("spring.datasource.url");
+            ConnectionPools.mapHikari(binding, properties, sizing);
 
             properties.put("spring.datasource.driver-class-name", "com.ibm.db2.jcc.DB2Driver");
 
@@ -64,7 +101,36 @@ public final class Db2BindingsPropertiesProcessor implements BindingsPropertiesP
 
             // r2dbcURL takes precedence
             map.from("r2dbc-url").to("spring.r2dbc.url");
+            ConnectionPools.mapR2dbcPool(binding, properties, sizing);
         });
     }
 
+    /**
+     * Returns the performance properties of a binding for the JDBC URL, where they follow the database as
+     * {@code :key=value;...;}.  The driver takes {@code YES} ({@code 1}) and {@code NO} ({@code 2}) for the boolean
+     * properties.
+     *
+     * @see <a href="https://www.ibm.com/docs/en/db2/11.5?topic=pdsdjs-common-data-server-driver-jdbc-sqlj-properties-all-database-products">Driver Properties</a>
+     */
+    private String buildJdbcParams(Binding binding) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put(BLOCKING_READ_CONNECTION_TIMEOUT, ConnectionPools.getInteger(binding, BLOCKING_READ_CONNECTION_TIMEOUT, 0));
+        params.put(FETCH_SIZE, ConnectionPools.getInteger(binding, FETCH_SIZE, 0));
+        params.put(PROGRESSIVE_STREAMING, toYesNo(ConnectionPools.getBoolean(binding, PROGRESSIVE_STREAMING)));
+        params.put(ENABLE_SEAMLESS_FAILOVER, toYesNo(ConnectionPools.getBoolean(binding, ENABLE_SEAMLESS_FAILOVER)));
+
+        StringBuilder properties = new StringBuilder();
+        params.forEach((key, value) -> {
+            if (value != null) {
+                properties.append(key).append('=').append(value).append(';');
+            }
+        });
+        return properties.length() == 0 ? "" : ":" + properties;
+    }
+
+    @Nullable
+    private static Integer toYesNo(@Nullable Boolean value) {
+        return value == null ? null : value ? YES : NO;
+    }
+
 }
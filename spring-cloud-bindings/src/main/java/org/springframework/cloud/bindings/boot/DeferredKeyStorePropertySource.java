@@ -0,0 +1,85 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.cloud.bindings.boot;
+
+import org.springframework.cloud.bindings.boot.pem.PemSslStoreHelper;
+import org.springframework.core.env.PropertySource;
+import org.springframework.lang.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * A {@link PropertySource} whose properties are the locations of key and trust stores that are only created when the
+ * property is first read.  Processors reference these properties with {@code ${...}} placeholders, so that a store is
+ * never created if nothing resolves the property that refers to it.
+ */
+final class DeferredKeyStorePropertySource extends PropertySource<Map<String, Supplier<String>>> {
+
+    static final String NAME = "kubernetesServiceBindingDeferredKeyStores";
+
+    static final String PREFIX = "org.springframework.cloud.bindings.boot.keystore.location.";
+
+    private final Map<String, String> locations = new ConcurrentHashMap<>();
+
+    DeferredKeyStorePropertySource() {
+        super(NAME, new ConcurrentHashMap<>());
+    }
+
+    /**
+     * Registers a store to be created when its location is first read.
+     *
+     * @param name    the store name.
+     * @param factory creates the store and returns its location.
+     * @return a placeholder that resolves to the location of the store.
+     */
+    String register(String name, Supplier<String> factory) {
+        String property = PREFIX + name + "-" + source.size();
+        source.put(property, factory);
+        return "${" + property + "}";
+    }
+
+    @Override
+    @Nullable
+    public Object getProperty(String name) {
+        Supplier<String> factory = source.get(name);
+        if (factory == null) {
+            return null;
+        }
+        return locations.computeIfAbsent(name, n -> {
+            try {
+                return factory.get();
+            } finally {
+                // stores created after the refresh would otherwise leave their private keys cached
+                PemSslStoreHelper.clearPrivateKeyCache();
+            }
+        });
+    }
+
+    /**
+     * Returns whether the store for a property has been created.
+     *
+     * @param name the property name.
+     * @return {@code true} if the property has been read, {@code false} otherwise.
+     */
+    boolean isResolved(String name) {
+        return locations.containsKey(name);
+    }
+
+}
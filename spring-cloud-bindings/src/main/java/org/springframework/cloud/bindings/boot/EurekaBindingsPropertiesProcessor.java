@@ -24,9 +24,9 @@ import org.springframework.cloud.bindings.boot.pem.PemSslStoreHelper;
 import org.springframework.util.StringUtils;
 
 import java.net.URI;
-import java.nio.file.Path;
 import java.util.Map;
 
+import static org.springframework.cloud.bindings.boot.Guards.isSslBundleEnabled;
 import static org.springframework.cloud.bindings.boot.Guards.isTypeEnabled;
 
 /**
@@ -38,12 +38,19 @@ final class EurekaBindingsPropertiesProcessor implements BindingsPropertiesProce
      **/
     public static final String TYPE = "eureka";
 
+    /**
+     * The name of the SSL bundle contributed when {@code org.springframework.cloud.bindings.boot.eureka.ssl-bundle} is
+     * {@code true}: {@value}.
+     */
+    public static final String SSL_BUNDLE = "eureka";
+
     @Override
     public void process(Environment environment, Bindings bindings, Map<String, Object> properties) {
         if (!isTypeEnabled(environment, TYPE)) {
             return;
         }
 
+        KeyStoreFiles keyStoreFiles = KeyStoreFiles.get(environment);
         bindings.filterBindings(TYPE).forEach(binding -> {
             Map<String, String> secret = binding.getSecret();
             MapMapper map = new MapMapper(secret, properties);
@@ -71,28 +78,43 @@ final class EurekaBindingsPropertiesProcessor implements BindingsPropertiesProce
 
             String caCert = secret.get("ca.crt");
             if (caCert != null && !caCert.isEmpty()) {
-                String generatedPassword = PemSslStoreHelper.generatePassword();
+                // When tls.crt and tls.key are set, enable mTLS for Eureka
+                String clientKey = secret.get("tls.key");
+                String clientCert = secret.get("tls.crt");
+                if (StringUtils.hasText(clientCert) != StringUtils.hasText(clientKey)) {
+                    throw new IllegalArgumentException("binding secret error: tls.key and tls.crt must both be set if either is set");
+                }
+
+                // The Eureka client does not read SSL bundles, so in bundle-only mode it is left to the application
+                if (isSslBundleEnabled(environment, TYPE)) {
+                    PemSslStoreHelper.validateKeyStoreContent(caCert, null);
+                    properties.put(String.format("spring.ssl.bundle.pem.%s.truststore.certificate", SSL_BUNDLE), caCert);
+
+                    if (clientKey != null && !clientKey.isEmpty()) {
+                        PemSslStoreHelper.validateKeyStoreContent(clientCert, clientKey);
+                        properties.put(String.format("spring.ssl.bundle.pem.%s.keystore.certificate", SSL_BUNDLE), clientCert);
+                        properties.put(String.format("spring.ssl.bundle.pem.%s.keystore.private-key", SSL_BUNDLE), clientKey);
+                        properties.put(String.format("spring.ssl.bundle.pem.%s.key.alias", SSL_BUNDLE), "eureka");
+                    }
+                    return;
+                }
+
+                String generatedPassword = keyStoreFiles.generatePassword(caCert, clientCert, clientKey);
 
                 // Create a trust store from the CA cert
-                Path trustFilePath = PemSslStoreHelper.createKeyStoreFile("eureka-truststore", generatedPassword, caCert, null, "rootca");
+                String trustStoreLocation = keyStoreFiles.createKeyStoreLocation("eureka-truststore", generatedPassword, caCert, null, "rootca");
 
                 properties.put("eureka.client.tls.enabled", true);
-                properties.put("eureka.client.tls.trust-store", "file:" + trustFilePath);
+                properties.put("eureka.client.tls.trust-store", trustStoreLocation);
                 properties.put("eureka.client.tls.trust-store-type", PemSslStoreHelper.PKCS12_STORY_TYPE);
                 properties.put("eureka.client.tls.trust-store-password", generatedPassword);
 
-                // When tls.crt and tls.key are set, enable mTLS for Eureka
-                String clientKey = secret.get("tls.key");
-                String clientCert = secret.get("tls.crt");
-                if (StringUtils.hasText(clientCert) != StringUtils.hasText(clientKey)) {
-                    throw new IllegalArgumentException("binding secret error: tls.key and tls.crt must both be set if either is set");
-                }
                 if (clientKey != null && !clientKey.isEmpty()) {
 
                     // Create a keystore
-                    Path keyFilePath = PemSslStoreHelper.createKeyStoreFile("eureka-keystore", generatedPassword, clientCert, clientKey, "eureka");
+                    String keyStoreLocation = keyStoreFiles.createKeyStoreLocation("eureka-keystore", generatedPassword, clientCert, clientKey, "eureka");
                     properties.put("eureka.client.tls.key-alias", "eureka");
-                    properties.put("eureka.client.tls.key-store", "file:" + keyFilePath);
+                    properties.put("eureka.client.tls.key-store", keyStoreLocation);
                     properties.put("eureka.client.tls.key-store-type", PemSslStoreHelper.PKCS12_STORY_TYPE);
                     properties.put("eureka.client.tls.key-store-password", generatedPassword);
                     properties.put("eureka.client.tls.key-password", "");
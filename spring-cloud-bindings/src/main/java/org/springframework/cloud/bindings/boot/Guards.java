@@ -30,4 +30,10 @@ final class Guards {
                 Boolean.class, true);
     }
 
+    static boolean isSslBundleEnabled(Environment environment, String type) {
+        return environment.getProperty(
+                String.format("org.springframework.cloud.bindings.boot.%s.ssl-bundle", type),
+                Boolean.class, false);
+    }
+
 }
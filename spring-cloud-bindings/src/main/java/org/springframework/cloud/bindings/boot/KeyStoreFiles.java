@@ -0,0 +1,290 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.cloud.bindings.boot;
+
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.cloud.bindings.boot.pem.KeyStoreFileCache;
+import org.springframework.cloud.bindings.boot.pem.PemSslStoreHelper;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.MutablePropertySources;
+import org.springframework.lang.Nullable;
+
+import javax.crypto.spec.PBEParameterSpec;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.KeyStore;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Creates the PKCS12 key and trust store files that processors reference from their properties.  By default each
+ * store is written to a new temporary file with a random password.  When
+ * {@code org.springframework.cloud.bindings.boot.keystore-cache.directory} is set, stores are instead kept in that
+ * directory, named by a digest of their content, and reused across starts of the application.  When
+ * {@code org.springframework.cloud.bindings.boot.keystore.deferred} is {@code true}, stores are only created when the
+ * property that refers to them is first read.  Otherwise, when
+ * {@code org.springframework.cloud.bindings.boot.keystore.async} is {@code true}, stores are written in the background
+ * while the remaining processors run, and {@link #awaitPending(Environment)} waits for the stores of an
+ * {@link Environment} to be written.
+ */
+final class KeyStoreFiles {
+
+    static final String DIRECTORY_PROPERTY = "org.springframework.cloud.bindings.boot.keystore-cache.directory";
+
+    static final String MAX_AGE_PROPERTY = "org.springframework.cloud.bindings.boot.keystore-cache.max-age";
+
+    static final String CLEANUP_INTERVAL_PROPERTY = "org.springframework.cloud.bindings.boot.keystore-cache.cleanup-interval";
+
+    static final String DEFERRED_PROPERTY = "org.springframework.cloud.bindings.boot.keystore.deferred";
+
+    static final String ASYNC_PROPERTY = "org.springframework.cloud.bindings.boot.keystore.async";
+
+    static final String PROTECTION_ALGORITHM_PROPERTY = "org.springframework.cloud.bindings.boot.keystore.protection-algorithm";
+
+    static final String ITERATION_COUNT_PROPERTY = "org.springframework.cloud.bindings.boot.keystore.iteration-count";
+
+    private static final String DEFAULT_PROTECTION_ALGORITHM = "PBEWithHmacSHA256AndAES_256";
+
+    private static final int DEFAULT_ITERATION_COUNT = 10000;
+
+    private static final Map<Environment, List<CompletableFuture<Void>>> PENDING =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    private static final Duration DEFAULT_MAX_AGE = Duration.ofDays(7);
+
+    private static final Duration DEFAULT_CLEANUP_INTERVAL = Duration.ofHours(1);
+
+    @Nullable
+    private final KeyStoreFileCache cache;
+
+    @Nullable
+    private final DeferredKeyStorePropertySource deferred;
+
+    // The stores of this environment that are being written in the background, or null if they are written in line
+    @Nullable
+    private final List<CompletableFuture<Void>> pending;
+
+    @Nullable
+    private final String protectionAlgorithm;
+
+    @Nullable
+    private final Integer iterationCount;
+
+    private KeyStoreFiles(@Nullable KeyStoreFileCache cache, @Nullable DeferredKeyStorePropertySource deferred,
+                          @Nullable List<CompletableFuture<Void>> pending, @Nullable String protectionAlgorithm,
+                          @Nullable Integer iterationCount) {
+        this.cache = cache;
+        this.deferred = deferred;
+        this.pending = pending;
+        this.protectionAlgorithm = protectionAlgorithm;
+        this.iterationCount = iterationCount;
+    }
+
+    /**
+     * Returns the {@code KeyStoreFiles} configured by an {@link Environment}.
+     *
+     * @param environment the {@code Environment} to read the configuration from.
+     * @return the configured {@code KeyStoreFiles}.
+     */
+    static KeyStoreFiles get(Environment environment) {
+        return new KeyStoreFiles(getCache(environment), getDeferred(environment),
+                environment.getProperty(ASYNC_PROPERTY, Boolean.class, false)
+                        ? PENDING.computeIfAbsent(environment, e -> new ArrayList<>())
+                        : null,
+                environment.getProperty(PROTECTION_ALGORITHM_PROPERTY),
+                environment.getProperty(ITERATION_COUNT_PROPERTY, Integer.class));
+    }
+
+    /**
+     * Waits for the stores of an {@link Environment} that are being written in the background to be written.
+     *
+     * @param environment the {@code Environment} whose stores to wait for.
+     * @throws IllegalStateException if a store could not be written.
+     */
+    static void awaitPending(Environment environment) {
+        List<CompletableFuture<Void>> pending = PENDING.remove(environment);
+        if (pending == null) {
+            return;
+        }
+
+        CompletableFuture<?>[] futures;
+        synchronized (pending) {
+            futures = pending.toArray(new CompletableFuture<?>[0]);
+        }
+        try {
+            CompletableFuture.allOf(futures).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Unable to write key/trust store", e.getCause());
+        }
+    }
+
+    /**
+     * Forgets the stores of an {@link Environment} that are being written in the background, without waiting for them,
+     * once the processors that created them have failed.
+     *
+     * @param environment the {@code Environment} whose stores to forget.
+     */
+    static void clearPending(Environment environment) {
+        PENDING.remove(environment);
+    }
+
+    static int getPendingCount(Environment environment) {
+        List<CompletableFuture<Void>> pending = PENDING.get(environment);
+        if (pending == null) {
+            return 0;
+        }
+
+        synchronized (pending) {
+            return pending.size();
+        }
+    }
+
+    /**
+     * Generates a password for stores created from the specified PEM content.  The password is random unless stores
+     * are cached, in which case it is derived from the content so that cached stores can be opened again.
+     *
+     * @param contents the PEM content the stores are created from.
+     * @return the password.
+     */
+    String generatePassword(String... contents) {
+        return cache != null ? cache.generatePassword(contents) : PemSslStoreHelper.generatePassword();
+    }
+
+    /**
+     * Returns the location of a store file for the specified certificate and private key.  The location is a
+     * placeholder if store creation is deferred.
+     *
+     * @param name        the store file name prefix.
+     * @param password    the store password.
+     * @param certificate the certificate to add to the store.
+     * @param privateKey  the private key to add to the store, or {@code null} for a trust store.
+     * @param keyAlias    the alias.
+     * @return the location of the store file.
+     */
+    String createKeyStoreLocation(String name, String password, String certificate, @Nullable String privateKey,
+                                  String keyAlias) {
+        if (deferred != null) {
+            // The location is only read when the store is needed, so it must be written before it is returned
+            return deferred.register(name,
+                    () -> "file:" + createKeyStoreFile(name, password, certificate, privateKey, keyAlias, false));
+        }
+        return "file:" + createKeyStoreFile(name, password, certificate, privateKey, keyAlias, pending != null);
+    }
+
+    private Path createKeyStoreFile(String name, String password, String certificate, @Nullable String privateKey,
+                                    String keyAlias, boolean async) {
+        Path path;
+        if (cache != null) {
+            path = cache.getKeyStoreFile(name, password, certificate, privateKey, keyAlias, describeKeyProtection());
+            if (cache.reuse(path)) {
+                return path;
+            }
+        } else {
+            path = PemSslStoreHelper.createTempKeyStoreFile(name);
+        }
+
+        // Parse the PEM content eagerly so that invalid content is reported by the processor that contributed it
+        KeyStore store = PemSslStoreHelper.createKeyStore(certificate, privateKey, keyAlias, getKeyProtection());
+        Runnable write = cache != null
+                ? () -> cache.writeKeyStore(store, path, password, name)
+                : () -> PemSslStoreHelper.writeKeyStore(store, path, password, name);
+
+        if (async && pending != null) {
+            synchronized (pending) {
+                pending.add(CompletableFuture.runAsync(write));
+            }
+        } else {
+            write.run();
+        }
+        return path;
+    }
+
+    /**
+     * Describes the configured key protection, so that a cached store is not reused once it changes.
+     */
+    @Nullable
+    private String describeKeyProtection() {
+        if (protectionAlgorithm == null && iterationCount == null) {
+            return null;
+        }
+
+        return String.format("%s:%d", protectionAlgorithm != null ? protectionAlgorithm : DEFAULT_PROTECTION_ALGORITHM,
+                iterationCount != null ? iterationCount : DEFAULT_ITERATION_COUNT);
+    }
+
+    @Nullable
+    private KeyStore.ProtectionParameter getKeyProtection() {
+        if (protectionAlgorithm == null && iterationCount == null) {
+            return null;
+        }
+
+        byte[] salt = new byte[20];
+        new SecureRandom().nextBytes(salt);
+
+        // Key passwords are empty, as they are for stores with the default protection
+        return new KeyStore.PasswordProtection(new char[0],
+                protectionAlgorithm != null ? protectionAlgorithm : DEFAULT_PROTECTION_ALGORITHM,
+                new PBEParameterSpec(salt, iterationCount != null ? iterationCount : DEFAULT_ITERATION_COUNT));
+    }
+
+    @Nullable
+    private static KeyStoreFileCache getCache(Environment environment) {
+        String directory = environment.getProperty(DIRECTORY_PROPERTY);
+        if (directory == null || directory.isBlank()) {
+            return null;
+        }
+
+        return new KeyStoreFileCache(Paths.get(directory),
+                getDuration(environment, MAX_AGE_PROPERTY, DEFAULT_MAX_AGE),
+                getDuration(environment, CLEANUP_INTERVAL_PROPERTY, DEFAULT_CLEANUP_INTERVAL));
+    }
+
+    @Nullable
+    private static DeferredKeyStorePropertySource getDeferred(Environment environment) {
+        if (!environment.getProperty(DEFERRED_PROPERTY, Boolean.class, false)
+                || !(environment instanceof ConfigurableEnvironment configurable)) {
+            return null;
+        }
+
+        MutablePropertySources propertySources = configurable.getPropertySources();
+        if (propertySources.get(DeferredKeyStorePropertySource.NAME) instanceof DeferredKeyStorePropertySource source) {
+            return source;
+        }
+
+        DeferredKeyStorePropertySource source = new DeferredKeyStorePropertySource();
+        propertySources.addLast(source);
+        return source;
+    }
+
+    private static Duration getDuration(Environment environment, String property, Duration defaultValue) {
+        String value = environment.getProperty(property);
+        return value != null ? DurationStyle.detectAndParse(value) : defaultValue;
+    }
+
+}
@@ -20,8 +20,13 @@ import org.springframework.cloud.bindings.Binding;
 import org.springframework.cloud.bindings.Bindings;
 import org.springframework.core.env.Environment;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 
+import static org.springframework.cloud.bindings.boot.ClassPathCapabilities.MARIADB_JDBC_DRIVER;
+import static org.springframework.cloud.bindings.boot.ClassPathCapabilities.MARIADB_R2DBC_CONNECTION;
+import static org.springframework.cloud.bindings.boot.ClassPathCapabilities.MYSQL_JDBC_DRIVER;
+import static org.springframework.cloud.bindings.boot.ClassPathCapabilities.isPresent;
 import static org.springframework.cloud.bindings.boot.Guards.isTypeEnabled;
 
 /**
@@ -45,6 +50,27 @@ public final class MySqlBindingsPropertiesProcessor implements BindingsPropertie
      *  MariaDB connection protocol constant. 
      */
     private static final String MARIADB_PROTOCOL = "mariadb";
+
+    /**
+     * rewriteBatchedStatements enables rewriting of batched statements into multi-value statements, or the bulk
+     * protocol with the MariaDB driver.
+     */
+    public static final String REWRITE_BATCHED_STATEMENTS = "rewriteBatchedStatements";
+
+    /**
+     * cachePrepStmts enables caching of prepared statements by the driver.
+     */
+    public static final String CACHE_PREP_STMTS = "cachePrepStmts";
+
+    /**
+     * prepStmtCacheSize determines the number of prepared statements cached for each connection.
+     */
+    public static final String PREP_STMT_CACHE_SIZE = "prepStmtCacheSize";
+
+    /**
+     * useServerPrepStmts enables server-side prepared statements.
+     */
+    public static final String USE_SERVER_PREP_STMTS = "useServerPrepStmts";
     
     @Override
     public void process(Environment environment, Bindings bindings, Map<String, Object> properties) {
@@ -52,40 +78,81 @@ public final class MySqlBindingsPropertiesProcessor implements BindingsPropertie
             return;
         }
 
+        String protocol = evalProtocol();
+        boolean mariaDbJdbc = isPresent(MARIADB_JDBC_DRIVER);
+        AdaptivePoolSizing sizing = AdaptivePoolSizing.get(environment);
         bindings.filterBindings(TYPE).forEach(binding -> {
+            if (TenantDataSourceRegistrar.collect(environment, binding, this)
+                    || ReplicaDataSourceRegistrar.collect(environment, binding, this)) {
+                return;
+            }
+
             MapMapper map = new MapMapper(binding.getSecret(), properties);
 
             //jdbc properties
+            String jdbcParams = buildJdbcParams(binding, mariaDbJdbc);
             map.from("username").to("spring.datasource.username");
             map.from("password").to("spring.datasource.password");
             map.from("host", "port", "database").to("spring.datasource.url",
-                    (host, port, database) -> String.format("jdbc:%s://%s:%s/%s", evalProtocol(), host, port, database));
+                    (host, port, database) -> String.format("jdbc:%s://%s:%s/%s%s", protocol, host, port, database, jdbcParams));
 
             // jdbcURL takes precedence
             map.from("jdbc-url").to("spring.datasource.url");
+            ConnectionPools.mapHikari(binding, properties, sizing);
 
-            try {
-                Class.forName("org.mariadb.jdbc.Driver", false, getClass().getClassLoader());
-                properties.put("spring.datasource.driver-class-name", "org.mariadb.jdbc.Driver");
-            } catch (ClassNotFoundException e) {
-                try {
-                    Class.forName("com.mysql.cj.jdbc.Driver", false, getClass().getClassLoader());
-                    properties.put("spring.datasource.driver-class-name", "com.mysql.cj.jdbc.Driver");
-                } catch (ClassNotFoundException ignored) {
-                }
+            if (mariaDbJdbc) {
+                properties.put("spring.datasource.driver-class-name", MARIADB_JDBC_DRIVER);
+            } else if (isPresent(MYSQL_JDBC_DRIVER)) {
+                properties.put("spring.datasource.driver-class-name", MYSQL_JDBC_DRIVER);
             }
 
             //r2dbc properties
             map.from("password").to("spring.r2dbc.password");
+            String r2dbcParams = buildR2dbcParams(binding, protocol);
             map.from("host", "port", "database").to("spring.r2dbc.url",
-                    (host, port, database) -> String.format("r2dbc:%s://%s:%s/%s", evalProtocol(), host, port, database));
+                    (host, port, database) -> String.format("r2dbc:%s://%s:%s/%s%s", protocol, host, port, database, r2dbcParams));
             map.from("username").to("spring.r2dbc.username");
 
             // r2dbcURL takes precedence
             map.from("r2dbc-url").to("spring.r2dbc.url");
+            ConnectionPools.mapR2dbcPool(binding, properties, sizing);
         });
     }
     
+    /**
+     * Returns the throughput parameters of a binding for the JDBC URL, using the names of the detected driver.  The
+     * MariaDB driver has no {@code rewriteBatchedStatements} and sends batches with its bulk protocol instead.
+     */
+    private String buildJdbcParams(Binding binding, boolean mariaDb) {
+        Boolean rewriteBatchedStatements = ConnectionPools.getBoolean(binding, REWRITE_BATCHED_STATEMENTS);
+        Boolean cachePrepStmts = ConnectionPools.getBoolean(binding, CACHE_PREP_STMTS);
+        Integer prepStmtCacheSize = ConnectionPools.getInteger(binding, PREP_STMT_CACHE_SIZE, 0);
+        Boolean useServerPrepStmts = ConnectionPools.getBoolean(binding, USE_SERVER_PREP_STMTS);
+
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put(mariaDb ? "useBulkStmts" : REWRITE_BATCHED_STATEMENTS, rewriteBatchedStatements);
+        params.put(CACHE_PREP_STMTS, cachePrepStmts);
+        params.put(PREP_STMT_CACHE_SIZE, prepStmtCacheSize);
+        params.put(USE_SERVER_PREP_STMTS, useServerPrepStmts);
+        return ConnectionPools.toQuery(params);
+    }
+
+    /**
+     * Returns the equivalents of the throughput parameters of a binding for the R2DBC URL, using the names of the
+     * driver for the protocol.  Neither R2DBC driver rewrites batches, and disabling the prepared statement cache
+     * sets its size to zero.
+     */
+    private String buildR2dbcParams(Binding binding, String protocol) {
+        Boolean cachePrepStmts = ConnectionPools.getBoolean(binding, CACHE_PREP_STMTS);
+        Integer prepStmtCacheSize = ConnectionPools.getInteger(binding, PREP_STMT_CACHE_SIZE, 0);
+        Boolean useServerPrepStmts = ConnectionPools.getBoolean(binding, USE_SERVER_PREP_STMTS);
+
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("prepareCacheSize", Boolean.FALSE.equals(cachePrepStmts) ? Integer.valueOf(0) : prepStmtCacheSize);
+        params.put(MARIADB_PROTOCOL.equals(protocol) ? USE_SERVER_PREP_STMTS : "useServerPrepareStatement", useServerPrepStmts);
+        return ConnectionPools.toQuery(params);
+    }
+
     private String evalProtocol()
     {
     	// Default to "mysql"
@@ -98,12 +165,9 @@ public final class MySqlBindingsPropertiesProcessor implements BindingsPropertie
     	 * the classpath.
     	 */
     	
-    	try {
-    		Class.forName("org.mariadb.r2dbc.MariadbConnection");
+    	if (isPresent(MARIADB_R2DBC_CONNECTION)) {
     		connectionProtocol = MARIADB_PROTOCOL;
     	}
-    	catch (ClassNotFoundException ignored) {
-        }
     	
     	return connectionProtocol; 
     }
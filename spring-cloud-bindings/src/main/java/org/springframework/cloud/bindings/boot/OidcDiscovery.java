@@ -0,0 +1,298 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.cloud.bindings.boot;
+
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.json.JsonParseException;
+import org.springframework.boot.json.JsonParserFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
+
+/**
+ * Fetches the OpenID Provider Configuration of OAuth2 issuers in parallel, so that their endpoints can be configured
+ * directly instead of being discovered one issuer at a time when the application starts.  Configurations are cached
+ * in memory and, when {@value CACHE_DIRECTORY_PROPERTY} is set, in that directory so that later starts do not fetch
+ * them again until they are older than {@value CACHE_TTL_PROPERTY}.  Spring Security only skips its own discovery
+ * when {@code issuer-uri} is not set, which also turns off its validation of the issuer of ID tokens, so
+ * {@code issuer-uri} is only replaced when {@value REPLACE_ISSUER_URI_PROPERTY} is {@code true}.
+ */
+final class OidcDiscovery {
+
+    static final String ENABLE_PROPERTY = "org.springframework.cloud.bindings.boot.oauth2.discovery.enable";
+
+    static final String CACHE_DIRECTORY_PROPERTY = "org.springframework.cloud.bindings.boot.oauth2.discovery.cache-directory";
+
+    static final String CACHE_TTL_PROPERTY = "org.springframework.cloud.bindings.boot.oauth2.discovery.cache-ttl";
+
+    static final String TIMEOUT_PROPERTY = "org.springframework.cloud.bindings.boot.oauth2.discovery.timeout";
+
+    static final String REPLACE_ISSUER_URI_PROPERTY = "org.springframework.cloud.bindings.boot.oauth2.discovery.replace-issuer-uri";
+
+    private static final Duration DEFAULT_CACHE_TTL = Duration.ofDays(1);
+
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(10);
+
+    private static final Map<String, Configuration> CACHE = new ConcurrentHashMap<>();
+
+    @Nullable
+    private final Path directory;
+
+    private final Duration ttl;
+
+    private final Duration timeout;
+
+    private final boolean replaceIssuerUri;
+
+    private final HttpClient client;
+
+    OidcDiscovery(@Nullable Path directory, Duration ttl, Duration timeout) {
+        this(directory, ttl, timeout, false);
+    }
+
+    OidcDiscovery(@Nullable Path directory, Duration ttl, Duration timeout, boolean replaceIssuerUri) {
+        this.directory = directory;
+        this.ttl = ttl;
+        this.timeout = timeout;
+        this.replaceIssuerUri = replaceIssuerUri;
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(timeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    /**
+     * Returns the {@code OidcDiscovery} configured by an {@link Environment}.
+     *
+     * @param environment the {@code Environment} to read the configuration from.
+     * @return the configured {@code OidcDiscovery}, or {@code null} if discovery is not enabled.
+     */
+    @Nullable
+    static OidcDiscovery get(Environment environment) {
+        if (!environment.getProperty(ENABLE_PROPERTY, Boolean.class, false)) {
+            return null;
+        }
+
+        String directory = environment.getProperty(CACHE_DIRECTORY_PROPERTY);
+        return new OidcDiscovery(directory != null && !directory.isBlank() ? Paths.get(directory) : null,
+                getDuration(environment, CACHE_TTL_PROPERTY, DEFAULT_CACHE_TTL),
+                getDuration(environment, TIMEOUT_PROPERTY, DEFAULT_TIMEOUT),
+                environment.getProperty(REPLACE_ISSUER_URI_PROPERTY, Boolean.class, false));
+    }
+
+    /**
+     * Returns whether {@code issuer-uri} is replaced by the discovered endpoints, so that Spring Security does not
+     * discover them again, at the cost of not validating the issuer of ID tokens.
+     *
+     * @return {@code true} if {@code issuer-uri} is replaced, {@code false} otherwise.
+     */
+    boolean isReplaceIssuerUri() {
+        return replaceIssuerUri;
+    }
+
+    /**
+     * Returns the OpenID Provider Configuration of each issuer, fetching those that are not cached in parallel.
+     *
+     * @param issuers   the issuer URIs.
+     * @param onFailure called with the issuer and cause for each configuration that could not be fetched.
+     * @return the configuration of each issuer that could be fetched, by issuer URI.
+     */
+    Map<String, Map<String, Object>> discover(Collection<String> issuers, BiConsumer<String, Throwable> onFailure) {
+        Instant now = Instant.now();
+        Map<String, Map<String, Object>> discovered = new LinkedHashMap<>();
+        Map<String, CompletableFuture<String>> fetches = new LinkedHashMap<>();
+
+        for (String issuer : issuers) {
+            Configuration cached = getCached(issuer);
+            if (cached != null && cached.fetched.plus(ttl).isAfter(now)) {
+                discovered.put(issuer, cached.metadata);
+            } else if (!fetches.containsKey(issuer)) {
+                fetches.put(issuer, fetch(issuer));
+            }
+        }
+
+        CompletableFuture<?> all = CompletableFuture.allOf(fetches.values().toArray(new CompletableFuture<?>[0]));
+        try {
+            all.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            // Failures are reported for each issuer below
+        }
+
+        fetches.forEach((issuer, fetch) -> {
+            try {
+                String json = fetch.getNow(null);
+                if (json == null) {
+                    fetch.cancel(true);
+                    throw new TimeoutException(String.format("Timed out after %s", timeout));
+                }
+                discovered.put(issuer, store(issuer, json, now).metadata);
+            } catch (Exception e) {
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                Configuration stale = getCached(issuer);
+                if (stale != null) {
+                    discovered.put(issuer, stale.metadata);
+                }
+                onFailure.accept(issuer, cause);
+            }
+        });
+
+        return discovered;
+    }
+
+    private CompletableFuture<String> fetch(String issuer) {
+        List<URI> uris = getConfigurationUris(issuer);
+        CompletableFuture<String> fetch = fetch(uris.get(0));
+        for (URI uri : uris.subList(1, uris.size())) {
+            fetch = fetch.exceptionallyCompose(e -> fetch(uri));
+        }
+        return fetch.thenApply(json -> {
+            Object metadataIssuer = parse(json).get("issuer");
+            if (!issuer.equals(metadataIssuer)) {
+                throw new IllegalStateException(String.format(
+                        "The issuer '%s' in the provider configuration does not match '%s'", metadataIssuer, issuer));
+            }
+            return json;
+        });
+    }
+
+    private CompletableFuture<String> fetch(URI uri) {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(timeout)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString()).thenApply(response -> {
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException(String.format("%s returned HTTP %d", uri, response.statusCode()));
+            }
+            return response.body();
+        });
+    }
+
+    @Nullable
+    private Configuration getCached(String issuer) {
+        Configuration cached = CACHE.get(issuer);
+        if (cached != null || directory == null) {
+            return cached;
+        }
+
+        Path file = directory.resolve(fileName(issuer));
+        try {
+            cached = new Configuration(Files.getLastModifiedTime(file).toInstant(), parse(Files.readString(file)));
+            CACHE.putIfAbsent(issuer, cached);
+            return cached;
+        } catch (IOException | JsonParseException e) {
+            return null;
+        }
+    }
+
+    private Configuration store(String issuer, String json, Instant fetched) throws IOException {
+        Configuration configuration = new Configuration(fetched, parse(json));
+        CACHE.put(issuer, configuration);
+
+        if (directory != null) {
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, "oidc", ".tmp");
+            try {
+                Files.writeString(temp, json);
+                Files.move(temp, directory.resolve(fileName(issuer)), StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+
+        return configuration;
+    }
+
+    /**
+     * Returns the locations of the provider configuration for an issuer, in the order that Spring Security tries them.
+     */
+    static List<URI> getConfigurationUris(String issuer) {
+        URI uri = URI.create(issuer);
+        String path = uri.getPath() != null && !"/".equals(uri.getPath()) ? uri.getPath() : "";
+        String base = uri.getScheme() + "://" + uri.getRawAuthority();
+        return List.of(
+                URI.create(issuer.replaceAll("/$", "") + "/.well-known/openid-configuration"),
+                URI.create(base + "/.well-known/openid-configuration" + path),
+                URI.create(base + "/.well-known/oauth-authorization-server" + path)
+        );
+    }
+
+    static void clearCache() {
+        CACHE.clear();
+    }
+
+    private static Map<String, Object> parse(String json) {
+        return JsonParserFactory.getJsonParser().parseMap(json);
+    }
+
+    private static String fileName(String issuer) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(issuer.getBytes(StandardCharsets.UTF_8))) + ".json";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cryptographic algorithm not available", e);
+        }
+    }
+
+    private static Duration getDuration(Environment environment, String property, Duration defaultValue) {
+        String value = environment.getProperty(property);
+        return value != null ? DurationStyle.detectAndParse(value) : defaultValue;
+    }
+
+    private static final class Configuration {
+
+        private final Instant fetched;
+
+        private final Map<String, Object> metadata;
+
+        private Configuration(Instant fetched, Map<String, Object> metadata) {
+            this.fetched = fetched;
+            this.metadata = metadata;
+        }
+
+    }
+
+}
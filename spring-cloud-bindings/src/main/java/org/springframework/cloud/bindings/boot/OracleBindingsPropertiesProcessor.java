@@ -19,15 +19,22 @@ package org.springframework.cloud.bindings.boot;
 import org.springframework.cloud.bindings.Binding;
 import org.springframework.cloud.bindings.Bindings;
 import org.springframework.core.env.Environment;
+import org.springframework.lang.Nullable;
 
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
 import java.util.Map;
 
+import static org.springframework.cloud.bindings.boot.ClassPathCapabilities.ORACLE_UCP_POOL_DATA_SOURCE;
+import static org.springframework.cloud.bindings.boot.ClassPathCapabilities.isPresent;
 import static org.springframework.cloud.bindings.boot.Guards.isTypeEnabled;
 
 /**
  * An implementation of {@link BindingsPropertiesProcessor} that detects {@link Binding}s of type: {@value TYPE}.
  *
  * @see <a href="https://docs.oracle.com/cd/E11882_01/appdev.112/e13995/oracle/jdbc/OracleDriver.html">JDBC URL Format</a>
+ * @see <a href="https://docs.oracle.com/en/database/oracle/oracle-database/21/jjucp/">Universal Connection Pool</a>
  */
 public final class OracleBindingsPropertiesProcessor implements BindingsPropertiesProcessor {
 
@@ -36,13 +43,99 @@ public final class OracleBindingsPropertiesProcessor implements BindingsProperti
      **/
     public static final String TYPE = "oracle";
 
+    /**
+     * pool.type selects the JDBC connection pool, either {@code hikari} or {@code ucp}.  {@code ucp} falls back to
+     * Hikari when the Universal Connection Pool is not on the classpath, so that the binding can be shared.
+     */
+    public static final String POOL_TYPE = "pool.type";
+
+    /**
+     * ucp.initial-pool-size determines the number of connections created when the pool starts.
+     */
+    public static final String UCP_INITIAL_POOL_SIZE = "ucp.initial-pool-size";
+
+    /**
+     * ucp.min-pool-size determines the number of connections the pool keeps open.
+     */
+    public static final String UCP_MIN_POOL_SIZE = "ucp.min-pool-size";
+
+    /**
+     * ucp.max-pool-size determines the maximum number of connections in the pool.
+     */
+    public static final String UCP_MAX_POOL_SIZE = "ucp.max-pool-size";
+
+    /**
+     * ucp.connection-wait-timeout determines how long a borrow waits for a connection, {@code 0} for no wait.
+     */
+    public static final String UCP_CONNECTION_WAIT_TIMEOUT = "ucp.connection-wait-timeout";
+
+    /**
+     * ucp.inactive-connection-timeout determines how long an idle connection stays in the pool, {@code 0} for no
+     * limit.
+     */
+    public static final String UCP_INACTIVE_CONNECTION_TIMEOUT = "ucp.inactive-connection-timeout";
+
+    /**
+     * ucp.max-connection-reuse-time determines how long a connection is reused before it is closed, {@code 0} for no
+     * limit.
+     */
+    public static final String UCP_MAX_CONNECTION_REUSE_TIME = "ucp.max-connection-reuse-time";
+
+    /**
+     * ucp.fast-connection-failover-enabled determines whether the pool reacts to Oracle RAC events by removing
+     * connections to failed instances and rebalancing connections.
+     */
+    public static final String UCP_FAST_CONNECTION_FAILOVER_ENABLED = "ucp.fast-connection-failover-enabled";
+
+    /**
+     * ucp.ons-configuration determines the Oracle Notification Service nodes that Fast Connection Failover receives
+     * events from, such as {@code nodes=racnode1:6200,racnode2:6200}.
+     */
+    public static final String UCP_ONS_CONFIGURATION = "ucp.ons-configuration";
+
+    /**
+     * implicitStatementCacheSize determines the number of statements the driver caches for each connection.
+     */
+    public static final String IMPLICIT_STATEMENT_CACHE_SIZE = "implicitStatementCacheSize";
+
+    /**
+     * defaultRowPrefetch determines the number of rows fetched in each round trip.
+     */
+    public static final String DEFAULT_ROW_PREFETCH = "defaultRowPrefetch";
+
+    private static final String IMPLICIT_STATEMENT_CACHE_SIZE_PROPERTY = "oracle.jdbc.implicitStatementCacheSize";
+
+    private static final String DEFAULT_ROW_PREFETCH_OPTION = "oracle.jdbc.defaultRowPrefetch";
+
+    private static final String HIKARI = "hikari";
+
+    private static final String UCP = "ucp";
+
+    private static final String UCP_PREFIX = "spring.datasource.oracleucp.";
+
+    private final boolean ucpPresent;
+
+    public OracleBindingsPropertiesProcessor() {
+        this(isPresent(ORACLE_UCP_POOL_DATA_SOURCE));
+    }
+
+    OracleBindingsPropertiesProcessor(boolean ucpPresent) {
+        this.ucpPresent = ucpPresent;
+    }
+
     @Override
     public void process(Environment environment, Bindings bindings, Map<String, Object> properties) {
         if (!isTypeEnabled(environment, TYPE)) {
             return;
         }
 
+        AdaptivePoolSizing sizing = AdaptivePoolSizing.get(environment);
         bindings.filterBindings(TYPE).forEach(binding -> {
+            if (TenantDataSourceRegistrar.collect(environment, binding, this)
+                    || ReplicaDataSourceRegistrar.collect(environment, binding, this)) {
+                return;
+            }
+
             MapMapper map = new MapMapper(binding.getSecret(), properties);
 
             //jdbc properties
@@ -54,17 +147,116 @@ public final class OracleBindingsPropertiesProcessor implements BindingsProperti
             // jdbcURL takes precedence
             map.from("jdbc-url").to("spring.datasource.url");
 
+            Map<String, Object> connectionProperties = buildConnectionProperties(binding);
+            boolean ucp = isUcp(binding);
+            if (ucp) {
+                properties.put("spring.datasource.type", ORACLE_UCP_POOL_DATA_SOURCE);
+                mapUcp(binding, properties, sizing);
+                connectionProperties.forEach((key, value) ->
+                        properties.put(String.format("%sconnection-properties[%s]", UCP_PREFIX, key), value.toString()));
+            } else {
+                ConnectionPools.mapHikari(binding, properties, sizing);
+                connectionProperties.forEach((key, value) ->
+                        properties.put(String.format("spring.datasource.hikari.data-source-properties[%s]", key), value.toString()));
+            }
+
             properties.put("spring.datasource.driver-class-name", "oracle.jdbc.OracleDriver");
 
             //r2dbc properties
             map.from("username").to("spring.r2dbc.username");
             map.from("password").to("spring.r2dbc.password");
+            Map<String, Object> r2dbcParams = new LinkedHashMap<>();
+            r2dbcParams.put(IMPLICIT_STATEMENT_CACHE_SIZE_PROPERTY, connectionProperties.get(IMPLICIT_STATEMENT_CACHE_SIZE_PROPERTY));
+            r2dbcParams.put(DEFAULT_ROW_PREFETCH_OPTION, connectionProperties.get(DEFAULT_ROW_PREFETCH));
+            String r2dbcOptions = ConnectionPools.toQuery(r2dbcParams);
             map.from("host", "port", "database").to("spring.r2dbc.url",
-                    (host, port, database) -> String.format("r2dbc:oracle://%s:%s/%s", host, port, database));
+                    (host, port, database) -> String.format("r2dbc:oracle://%s:%s/%s%s", host, port, database, r2dbcOptions));
 
             // r2dbcURL takes precedence
             map.from("r2dbc-url").to("spring.r2dbc.url");
+            ConnectionPools.mapR2dbcPool(binding, properties, sizing, ucp ? UCP_MAX_POOL_SIZE : ConnectionPools.MAXIMUM_POOL_SIZE);
         });
     }
 
+    private boolean isUcp(Binding binding) {
+        String type = binding.getSecret().get(POOL_TYPE);
+        if (type == null) {
+            return false;
+        }
+
+        type = type.trim().toLowerCase(Locale.ROOT);
+        if (!HIKARI.equals(type) && !UCP.equals(type)) {
+            throw ConnectionPools.invalid(binding, POOL_TYPE, String.format("'%s' is not %s or %s", type, HIKARI, UCP));
+        }
+        return UCP.equals(type) && ucpPresent;
+    }
+
+    /**
+     * Maps the {@code ucp.*} keys of a binding to {@code spring.datasource.oracleucp.*}.  UCP timeouts are in whole
+     * seconds, and UCP pools have no maximum size by default.
+     */
+    private void mapUcp(Binding binding, Map<String, Object> properties, @Nullable AdaptivePoolSizing sizing) {
+        Integer initialPoolSize = ConnectionPools.getInteger(binding, UCP_INITIAL_POOL_SIZE, 0);
+        Integer minPoolSize = ConnectionPools.getInteger(binding, UCP_MIN_POOL_SIZE, 0);
+        Integer maxPoolSize = initialPoolSize != null && (minPoolSize == null || initialPoolSize > minPoolSize)
+                ? ConnectionPools.getPoolSize(binding, UCP_MAX_POOL_SIZE, UCP_INITIAL_POOL_SIZE, initialPoolSize, null, sizing,
+                        ConnectionPools.R2DBC_MAX_SIZE)
+                : ConnectionPools.getPoolSize(binding, UCP_MAX_POOL_SIZE, UCP_MIN_POOL_SIZE, minPoolSize, null, sizing,
+                        ConnectionPools.R2DBC_MAX_SIZE);
+        Long connectionWaitTimeout = getSeconds(binding, UCP_CONNECTION_WAIT_TIMEOUT);
+        Long inactiveConnectionTimeout = getSeconds(binding, UCP_INACTIVE_CONNECTION_TIMEOUT);
+        Long maxConnectionReuseTime = getSeconds(binding, UCP_MAX_CONNECTION_REUSE_TIME);
+        Boolean fastConnectionFailoverEnabled = ConnectionPools.getBoolean(binding, UCP_FAST_CONNECTION_FAILOVER_ENABLED);
+        String onsConfiguration = binding.getSecret().get(UCP_ONS_CONFIGURATION);
+
+        if (maxPoolSize != null && minPoolSize != null && minPoolSize > maxPoolSize) {
+            throw ConnectionPools.invalid(binding, UCP_MIN_POOL_SIZE, String.format("must not be greater than %s (%d)", UCP_MAX_POOL_SIZE, maxPoolSize));
+        }
+        if (maxPoolSize != null && initialPoolSize != null && initialPoolSize > maxPoolSize) {
+            throw ConnectionPools.invalid(binding, UCP_INITIAL_POOL_SIZE, String.format("must not be greater than %s (%d)", UCP_MAX_POOL_SIZE, maxPoolSize));
+        }
+        if (onsConfiguration != null && onsConfiguration.isBlank()) {
+            throw ConnectionPools.invalid(binding, UCP_ONS_CONFIGURATION, "must not be blank");
+        }
+
+        ConnectionPools.putIfNotNull(properties, UCP_PREFIX + "initial-pool-size", initialPoolSize);
+        ConnectionPools.putIfNotNull(properties, UCP_PREFIX + "min-pool-size", minPoolSize);
+        ConnectionPools.putIfNotNull(properties, UCP_PREFIX + "max-pool-size", maxPoolSize);
+        ConnectionPools.putIfNotNull(properties, UCP_PREFIX + "connection-wait-timeout", connectionWaitTimeout);
+        ConnectionPools.putIfNotNull(properties, UCP_PREFIX + "inactive-connection-timeout", inactiveConnectionTimeout);
+        ConnectionPools.putIfNotNull(properties, UCP_PREFIX + "max-connection-reuse-time", maxConnectionReuseTime);
+        ConnectionPools.putIfNotNull(properties, UCP_PREFIX + "fast-connection-failover-enabled", fastConnectionFailoverEnabled);
+        // PoolDataSource#setONSConfiguration
+        ConnectionPools.putIfNotNull(properties, UCP_PREFIX + "o-n-s-configuration", onsConfiguration == null ? null : onsConfiguration.trim());
+    }
+
+    /**
+     * Returns the driver connection properties of a binding, which are passed to the driver by the pool.  The R2DBC
+     * driver accepts both as {@code oracle.jdbc.*} options of its URL.
+     *
+     * @see <a href="https://docs.oracle.com/en/database/oracle/oracle-database/21/jajdb/oracle/jdbc/OracleConnection.html">Connection Properties</a>
+     * @see <a href="https://github.com/oracle/oracle-r2dbc#configuration">Oracle R2DBC Configuration</a>
+     */
+    private Map<String, Object> buildConnectionProperties(Binding binding) {
+        Map<String, Object> connectionProperties = new LinkedHashMap<>();
+        ConnectionPools.putIfNotNull(connectionProperties, IMPLICIT_STATEMENT_CACHE_SIZE_PROPERTY,
+                ConnectionPools.getInteger(binding, IMPLICIT_STATEMENT_CACHE_SIZE, 0));
+        ConnectionPools.putIfNotNull(connectionProperties, DEFAULT_ROW_PREFETCH,
+                ConnectionPools.getInteger(binding, DEFAULT_ROW_PREFETCH, 1));
+        return connectionProperties;
+    }
+
+    @Nullable
+    private static Long getSeconds(Binding binding, String key) {
+        Duration duration = ConnectionPools.getDuration(binding, key, Duration.ZERO);
+        if (duration == null) {
+            return null;
+        }
+
+        if (duration.toNanosPart() != 0) {
+            throw ConnectionPools.invalid(binding, key, String.format("%s is not a whole number of seconds", duration));
+        }
+        return duration.getSeconds();
+    }
+
 }
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bindings.boot;
+
+import org.springframework.boot.context.event.ApplicationPreparedEvent;
+import org.springframework.boot.logging.DeferredLog;
+import org.springframework.cloud.bindings.Binding;
+import org.springframework.cloud.bindings.Bindings;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.env.Environment;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.springframework.cloud.bindings.boot.Guards.isTypeEnabled;
+
+/**
+ * An implementation of {@link BindingsPropertiesProcessor} that passes secret entries prefixed with {@value PREFIX}
+ * through as Spring properties, for any {@link Binding} type.  For example, a {@code postgresql} binding entry named
+ * {@code passthrough.spring.datasource.hikari.maximum-pool-size} sets {@code spring.datasource.hikari.maximum-pool-size}.
+ * <p>
+ * Only properties matching the allowed patterns for the binding's type are passed through.  A pattern is either a
+ * property name or a prefix ending in {@code *}.  The defaults for a type can be replaced by setting
+ * {@code org.springframework.cloud.bindings.boot.{type}.passthrough} to a comma-delimited list of patterns.
+ * <p>
+ * Can be disabled by setting the {@code org.springframework.cloud.bindings.boot.passthrough.enable} System Property
+ * to {@code false}.
+ */
+public final class PassThroughBindingsPropertiesProcessor implements BindingsPropertiesProcessor,
+        ApplicationListener<ApplicationPreparedEvent> {
+
+    /**
+     * The secret key prefix that marks an entry to be passed through: {@value}.
+     */
+    public static final String PREFIX = "passthrough.";
+
+    private static final String NAME = "passthrough";
+
+    private static final DeferredLog LOG = new DeferredLog();
+
+    private static final Map<String, List<String>> DEFAULT_PATTERNS = new HashMap<>();
+
+    static {
+        List<String> rdbms = Arrays.asList("spring.datasource.hikari.*", "spring.r2dbc.pool.*");
+        DEFAULT_PATTERNS.put(Db2BindingsPropertiesProcessor.TYPE, rdbms);
+        DEFAULT_PATTERNS.put(MySqlBindingsPropertiesProcessor.TYPE, rdbms);
+        DEFAULT_PATTERNS.put(OracleBindingsPropertiesProcessor.TYPE, rdbms);
+        DEFAULT_PATTERNS.put(PostgreSqlBindingsPropertiesProcessor.TYPE, rdbms);
+        DEFAULT_PATTERNS.put(SapHanaBindingsPropertiesProcessor.TYPE, rdbms);
+        DEFAULT_PATTERNS.put(SqlServerBindingsPropertiesProcessor.TYPE, rdbms);
+
+        DEFAULT_PATTERNS.put(CassandraBindingsPropertiesProcessor.TYPE, Arrays.asList(
+                "spring.cassandra.connection.*", "spring.cassandra.pool.*", "spring.cassandra.request.*"));
+        DEFAULT_PATTERNS.put(CouchbaseBindingsPropertiesProcessor.TYPE, Arrays.asList(
+                "spring.couchbase.env.io.*", "spring.couchbase.env.timeouts.*"));
+        DEFAULT_PATTERNS.put(ElasticsearchBindingsPropertiesProcessor.TYPE, Arrays.asList(
+                "spring.elasticsearch.connection-timeout", "spring.elasticsearch.socket-timeout"));
+        DEFAULT_PATTERNS.put(KafkaBindingsPropertiesProcessor.TYPE, Arrays.asList(
+                "spring.kafka.consumer.*", "spring.kafka.listener.*", "spring.kafka.producer.*"));
+        DEFAULT_PATTERNS.put(RabbitMqBindingsPropertiesProcessor.TYPE, Arrays.asList(
+                "spring.rabbitmq.cache.*", "spring.rabbitmq.connection-timeout", "spring.rabbitmq.listener.*",
+                "spring.rabbitmq.requested-heartbeat", "spring.rabbitmq.template.*"));
+        DEFAULT_PATTERNS.put(RedisBindingsPropertiesProcessor.TYPE, Arrays.asList(
+                "spring.data.redis.connect-timeout", "spring.data.redis.jedis.pool.*",
+                "spring.data.redis.lettuce.pool.*", "spring.data.redis.timeout"));
+    }
+
+    @Override
+    public void process(Environment environment, Bindings bindings, Map<String, Object> properties) {
+        if (!isTypeEnabled(environment, NAME)) {
+            return;
+        }
+
+        bindings.getBindings().forEach(binding -> {
+            String type = binding.getType().toLowerCase(Locale.ROOT);
+            if (!isTypeEnabled(environment, type)) {
+                return;
+            }
+
+            List<String> patterns = getPatterns(environment, type);
+            List<String> applied = new ArrayList<>();
+            binding.getSecret().forEach((key, value) -> {
+                if (!key.startsWith(PREFIX)) {
+                    return;
+                }
+
+                String property = key.substring(PREFIX.length());
+                if (!isAllowed(patterns, property)) {
+                    LOG.warn(String.format("Pass-through property '%s' of binding '%s' is not allowed for type '%s' and will not be applied.",
+                            property, binding.getName(), type));
+                    return;
+                }
+
+                properties.put(property, value);
+                applied.add(property);
+            });
+
+            if (!applied.isEmpty()) {
+                applied.sort(null);
+                LOG.info(String.format("Applied pass-through properties from binding '%s': %s", binding.getName(), applied));
+            }
+        });
+    }
+
+    private static List<String> getPatterns(Environment environment, String type) {
+        String[] patterns = environment.getProperty(
+                String.format("org.springframework.cloud.bindings.boot.%s.passthrough", type), String[].class);
+        if (patterns != null) {
+            return Arrays.asList(patterns);
+        }
+        return DEFAULT_PATTERNS.getOrDefault(type, List.of());
+    }
+
+    private static boolean isAllowed(List<String> patterns, String property) {
+        for (String pattern : patterns) {
+            String p = pattern.trim();
+            if (!p.endsWith("*")) {
+                if (property.equals(p)) {
+                    return true;
+                }
+                continue;
+            }
+
+            String prefix = p.substring(0, p.length() - 1);
+            if (property.length() > prefix.length() && property.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationPreparedEvent event) {
+        LOG.replayTo(getClass());
+    }
+
+}
@@ -51,6 +51,28 @@ public final class PostgreSqlBindingsPropertiesProcessor implements BindingsProp
      * CockroachDB uses this to pass in cluster routing id
      */
     public static final String OPTIONS = "options";
+    /**
+     * reWriteBatchedInserts enables rewriting of batched inserts into multi-value inserts by the JDBC driver.
+     */
+    public static final String REWRITE_BATCHED_INSERTS = "reWriteBatchedInserts";
+    /**
+     * defaultRowFetchSize determines the number of rows fetched in each round trip, rather than all rows at once.
+     */
+    public static final String DEFAULT_ROW_FETCH_SIZE = "defaultRowFetchSize";
+    /**
+     * prepareThreshold determines the number of executions before the JDBC driver uses a server-side prepared statement.
+     */
+    public static final String PREPARE_THRESHOLD = "prepareThreshold";
+    /**
+     * pooler identifies a connection pooler between the application and the server, so that settings the pooler
+     * supports can be used.  The only supported value is {@value PGBOUNCER}.
+     */
+    public static final String POOLER = "pooler";
+    /**
+     * The {@value POOLER} value for PgBouncer in transaction pooling mode, which does not support server-side prepared
+     * statements.
+     */
+    public static final String PGBOUNCER = "pgbouncer";
     public static final String SPRING_DATASOURCE_URL = "spring.datasource.url";
     public static final String SPRING_R2DBC_URL = "spring.r2dbc.url";
 
@@ -60,7 +82,13 @@ public final class PostgreSqlBindingsPropertiesProcessor implements BindingsProp
             return;
         }
 
+        AdaptivePoolSizing sizing = AdaptivePoolSizing.get(environment);
         bindings.filterBindings(TYPE).forEach(binding -> {
+            if (TenantDataSourceRegistrar.collect(environment, binding, this)
+                    || ReplicaDataSourceRegistrar.collect(environment, binding, this)) {
+                return;
+            }
+
             MapMapper map = new MapMapper(binding.getSecret(), properties);
 
             //jdbc properties
@@ -76,13 +104,15 @@ public final class PostgreSqlBindingsPropertiesProcessor implements BindingsProp
                 sslModeOptions = sslParam;
             }
 
-            if (!"".equals(sslModeOptions)) {
-                properties.put(SPRING_DATASOURCE_URL, properties.get(SPRING_DATASOURCE_URL) + "?" + sslModeOptions);
+            String jdbcOptions = join(sslModeOptions, buildJdbcPerformanceParams(binding));
+            if (!"".equals(jdbcOptions)) {
+                properties.put(SPRING_DATASOURCE_URL, properties.get(SPRING_DATASOURCE_URL) + "?" + jdbcOptions);
             }
             map.from("username").to("spring.datasource.username");
 
             // jdbcURL takes precedence
             map.from("jdbc-url").to("spring.datasource.url");
+            ConnectionPools.mapHikari(binding, properties, sizing);
 
             properties.put("spring.datasource.driver-class-name", "org.postgresql.Driver");
 
@@ -90,16 +120,86 @@ public final class PostgreSqlBindingsPropertiesProcessor implements BindingsProp
             map.from("password").to("spring.r2dbc.password");
             map.from("host", "port", "database").to(SPRING_R2DBC_URL,
                     (host, port, database) -> String.format("r2dbc:postgresql://%s:%s/%s", host, port, database));
-            if (!"".equals(sslModeOptions)) {
-                properties.put(SPRING_R2DBC_URL, properties.get(SPRING_R2DBC_URL) + "?" + sslModeOptions);
+            String r2dbcOptions = join(sslModeOptions, buildR2dbcPerformanceParams(binding));
+            if (!"".equals(r2dbcOptions)) {
+                properties.put(SPRING_R2DBC_URL, properties.get(SPRING_R2DBC_URL) + "?" + r2dbcOptions);
             }
             map.from("username").to("spring.r2dbc.username");
 
             // r2dbcURL takes precedence
             map.from("r2dbc-url").to("spring.r2dbc.url");
+            ConnectionPools.mapR2dbcPool(binding, properties, sizing);
         });
     }
 
+    /**
+     * Returns the JDBC driver performance parameters of a binding.  When the binding is connected through PgBouncer,
+     * server-side prepared statements are disabled with {@code prepareThreshold=0}.
+     * Refer to <a href="https://jdbc.postgresql.org/documentation/use/#connection-parameters">Connection Parameters</a>.
+     */
+    private List<String> buildJdbcPerformanceParams(Binding binding) {
+        boolean pgBouncer = isPgBouncer(binding);
+        Boolean reWriteBatchedInserts = ConnectionPools.getBoolean(binding, REWRITE_BATCHED_INSERTS);
+        Integer defaultRowFetchSize = ConnectionPools.getInteger(binding, DEFAULT_ROW_FETCH_SIZE, 0);
+        Integer prepareThreshold = ConnectionPools.getInteger(binding, PREPARE_THRESHOLD, Integer.MIN_VALUE);
+        if (pgBouncer && prepareThreshold != null && prepareThreshold != 0) {
+            throw ConnectionPools.invalid(binding, PREPARE_THRESHOLD,
+                    String.format("must be 0 when %s is %s", POOLER, PGBOUNCER));
+        }
+
+        List<String> params = new ArrayList<>();
+        if (reWriteBatchedInserts != null) {
+            params.add(REWRITE_BATCHED_INSERTS + "=" + reWriteBatchedInserts);
+        }
+        if (defaultRowFetchSize != null) {
+            params.add(DEFAULT_ROW_FETCH_SIZE + "=" + defaultRowFetchSize);
+        }
+        if (pgBouncer) {
+            params.add(PREPARE_THRESHOLD + "=0");
+        } else if (prepareThreshold != null) {
+            params.add(PREPARE_THRESHOLD + "=" + prepareThreshold);
+        }
+        return params;
+    }
+
+    /**
+     * Returns the R2DBC driver equivalents of the performance parameters of a binding.  The R2DBC driver has no
+     * equivalent of {@code reWriteBatchedInserts} or {@code prepareThreshold}, and when the binding is connected
+     * through PgBouncer, its prepared statement cache is disabled so that only unnamed statements are used.
+     * Refer to <a href="https://github.com/pgjdbc/r2dbc-postgresql#connection-configuration">Connection Configuration</a>.
+     */
+    private List<String> buildR2dbcPerformanceParams(Binding binding) {
+        List<String> params = new ArrayList<>();
+        Integer defaultRowFetchSize = ConnectionPools.getInteger(binding, DEFAULT_ROW_FETCH_SIZE, 0);
+        if (defaultRowFetchSize != null) {
+            params.add("fetchSize=" + defaultRowFetchSize);
+        }
+        if (isPgBouncer(binding)) {
+            params.add("preparedStatementCacheQueries=0");
+        }
+        return params;
+    }
+
+    private boolean isPgBouncer(Binding binding) {
+        String pooler = binding.getSecret().get(POOLER);
+        if (pooler == null) {
+            return false;
+        }
+        if (!PGBOUNCER.equalsIgnoreCase(pooler.trim())) {
+            throw ConnectionPools.invalid(binding, POOLER, String.format("'%s' is not supported, must be %s", pooler, PGBOUNCER));
+        }
+        return true;
+    }
+
+    private static String join(String options, List<String> params) {
+        List<String> all = new ArrayList<>();
+        if (!"".equals(options)) {
+            all.add(options);
+        }
+        all.addAll(params);
+        return String.join("&", all);
+    }
+
     /**
      * Returns a concatenated list of options parameters defined in the bound file `options` in the format specified in
      * <a href="https://www.postgresql.org/docs/14/libpq-connect.html">PostgreSQL Doc</a>.
@@ -19,6 +19,7 @@ package org.springframework.cloud.bindings.boot;
 import org.springframework.core.env.ConfigurableEnvironment;
 import org.springframework.core.env.MapPropertySource;
 import org.springframework.core.env.MutablePropertySources;
+import org.springframework.core.env.PropertySource;
 
 import java.util.Map;
 
@@ -27,8 +28,10 @@ import static org.springframework.core.env.CommandLinePropertySource.COMMAND_LIN
 final class PropertySourceContributor {
 
     static void contributePropertySource(String name, Map<String, Object> properties, ConfigurableEnvironment environment) {
-        MapPropertySource propertySource = new MapPropertySource(name, properties);
+        contributePropertySource(new MapPropertySource(name, properties), environment);
+    }
 
+    static void contributePropertySource(PropertySource<?> propertySource, ConfigurableEnvironment environment) {
         MutablePropertySources propertySources = environment.getPropertySources();
         if (propertySources.contains(COMMAND_LINE_PROPERTY_SOURCE_NAME)) {
             propertySources.addAfter(COMMAND_LINE_PROPERTY_SOURCE_NAME, propertySource);
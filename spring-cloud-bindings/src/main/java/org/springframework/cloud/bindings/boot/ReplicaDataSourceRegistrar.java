@@ -0,0 +1,256 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bindings.boot;
+
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationPreparedEvent;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.bind.PropertySourcesPlaceholdersResolver;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.boot.logging.DeferredLog;
+import org.springframework.cloud.bindings.Binding;
+import org.springframework.cloud.bindings.Bindings;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.env.Environment;
+import org.springframework.lang.Nullable;
+
+import javax.sql.DataSource;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import static org.springframework.cloud.bindings.boot.Guards.isTypeEnabled;
+
+/**
+ * Collects the JDBC {@link Binding}s with a {@value ROLE} of {@value REPLICA}, for the {@link ReplicaRoutingDataSource}
+ * that {@link RoutingDataSourceAutoConfiguration} registers to send read-only work to them.  Replicas are matched to
+ * the primary, the binding that provides {@code spring.datasource.*}, by their {@value CLUSTER}.  Each replica is
+ * mapped by the processor for its type like any other binding, but into its own connection pool, rather than into
+ * {@code spring.datasource.*}.
+ */
+public final class ReplicaDataSourceRegistrar implements ApplicationListener<ApplicationPreparedEvent> {
+
+    /**
+     * The key of the role of a database {@link Binding}, either {@value PRIMARY} or {@value REPLICA}: {@value}.
+     */
+    public static final String ROLE = "role";
+
+    /**
+     * The {@value ROLE} of the binding that provides {@code spring.datasource.*}: {@value}.
+     */
+    public static final String PRIMARY = "primary";
+
+    /**
+     * The {@value ROLE} of a binding that serves read-only work: {@value}.
+     */
+    public static final String REPLICA = "replica";
+
+    /**
+     * The key of the name of the cluster that a primary and its replicas share: {@value}.
+     */
+    public static final String CLUSTER = "cluster";
+
+    /**
+     * The name of the {@link ReplicaRoutingDataSource} bean: {@value}.
+     */
+    public static final String DATA_SOURCE_BEAN_NAME = "dataSource";
+
+    private static final String REPLICAS = "replicas";
+
+    private static final Map<String, String> POOL_PREFIXES = Map.of(
+            "com.zaxxer.hikari.HikariDataSource", "spring.datasource.hikari",
+            "oracle.ucp.jdbc.PoolDataSourceImpl", "spring.datasource.oracleucp",
+            "org.apache.commons.dbcp2.BasicDataSource", "spring.datasource.dbcp2",
+            "org.apache.tomcat.jdbc.pool.DataSource", "spring.datasource.tomcat");
+
+    private static final DeferredLog LOG = new DeferredLog();
+
+    private static final Map<Environment, Clusters> CLUSTERS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * Collects a {@link Binding} if it is a replica, so that it is not mapped to {@code spring.datasource.*}.  A
+     * replica is mapped by {@code processor} into its own properties, and a primary records its cluster.
+     *
+     * @param environment the {@code Environment} being processed.
+     * @param binding     the {@code Binding} to collect.
+     * @param processor   the {@code BindingsPropertiesProcessor} for the type of {@code binding}.
+     * @return {@code true} if {@code binding} is a replica, and must not be mapped to {@code spring.datasource.*}.
+     * @throws IllegalArgumentException if a replica has no cluster.
+     */
+    static boolean collect(Environment environment, Binding binding, BindingsPropertiesProcessor processor) {
+        String role = binding.getSecret().get(ROLE);
+        String cluster = binding.getSecret().get(CLUSTER);
+        if (role != null) {
+            role = role.trim().toLowerCase(Locale.ROOT);
+            if (!PRIMARY.equals(role) && !REPLICA.equals(role)) {
+                LOG.warn(String.format("Binding '%s' has a '%s' of '%s', which is not %s or %s, and is treated as a primary",
+                        binding.getName(), ROLE, role, PRIMARY, REPLICA));
+                role = null;
+            }
+        }
+
+        if (!REPLICA.equals(role)) {
+            if (cluster != null) {
+                getClusters(environment).primary = cluster.trim();
+            }
+            return false;
+        }
+
+        if (!isTypeEnabled(environment, REPLICAS)) {
+            LOG.debug(String.format("Replicas are disabled, ignoring binding '%s'", binding.getName()));
+            return true;
+        }
+        if (cluster == null || cluster.isBlank()) {
+            throw ConnectionPools.invalid(binding, CLUSTER, "is required for a replica");
+        }
+
+        Map<String, Object> properties = processAlone(environment, binding, processor);
+        getClusters(environment).replicas.computeIfAbsent(cluster.trim(), c -> new LinkedHashMap<>())
+                .put(binding.getName(), properties);
+        return true;
+    }
+
+    /**
+     * Maps a {@link Binding} with the processor for its type into properties of its own, for a connection pool of its
+     * own.  The keys that route the binding are removed first, so that it is mapped like a primary.
+     */
+    static Map<String, Object> processAlone(Environment environment, Binding binding, BindingsPropertiesProcessor processor) {
+        Map<String, String> secret = new HashMap<>(binding.getSecret());
+        secret.remove(ROLE);
+        secret.remove(CLUSTER);
+        secret.remove(TenantDataSourceRegistrar.TENANT);
+        secret.put(Binding.TYPE, binding.getType());
+        if (binding.getProvider() != null) {
+            secret.put(Binding.PROVIDER, binding.getProvider());
+        }
+
+        Map<String, Object> properties = new HashMap<>();
+        processor.process(environment, new Bindings(new Binding(binding.getName(), binding.getPath(), secret)), properties);
+        properties.putIfAbsent("spring.datasource.hikari.pool-name", binding.getName());
+        return properties;
+    }
+
+    /**
+     * Uses the same kind of pool as {@code spring.datasource.*} for pools whose bindings do not select one.
+     */
+    static void inheritType(Environment environment, Collection<Map<String, Object>> pools) {
+        String type = environment.getProperty("spring.datasource.type");
+        if (type != null) {
+            pools.forEach(properties -> properties.putIfAbsent("spring.datasource.type", type));
+        }
+    }
+
+    private static Clusters getClusters(Environment environment) {
+        return CLUSTERS.computeIfAbsent(environment, e -> new Clusters());
+    }
+
+    /**
+     * Returns the replicas of the primary, if the primary provides {@code spring.datasource.url}.
+     *
+     * @param environment the {@code Environment} that was processed.
+     * @return the properties of each replica of the primary by binding name, or {@code null} if there are none.
+     */
+    @Nullable
+    static Map<String, Map<String, Object>> getReplicas(Environment environment) {
+        Clusters clusters = CLUSTERS.get(environment);
+        if (clusters == null || clusters.primary == null || environment.getProperty("spring.datasource.url") == null) {
+            return null;
+        }
+        return clusters.replicas.get(clusters.primary);
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationPreparedEvent event) {
+        Clusters clusters = CLUSTERS.get(event.getApplicationContext().getEnvironment());
+        if (clusters != null) {
+            clusters.replicas.forEach((cluster, replicas) -> {
+                if (!cluster.equals(clusters.primary)) {
+                    LOG.warn(String.format("Replica bindings %s of cluster '%s' have no primary binding and will not be used",
+                            replicas.keySet(), cluster));
+                }
+            });
+        }
+
+        LOG.replayTo(getClass());
+    }
+
+    /**
+     * Creates a {@link ReplicaRoutingDataSource} for the replicas of the primary.
+     */
+    static ReplicaRoutingDataSource createRoutingDataSource(Environment environment, DataSourceProperties primary,
+                                                            Map<String, Map<String, Object>> replicas) {
+        inheritType(environment, replicas.values());
+        ClassLoader classLoader = primary.getClassLoader();
+        return new ReplicaRoutingDataSource(createDataSource(primary, Binder.get(environment)),
+                replicas.values().stream()
+                        .map(properties -> createDataSource(environment, properties, classLoader))
+                        .toList());
+    }
+
+    /**
+     * Creates a connection pool from the {@code spring.datasource.*} properties of a replica or tenant.  Placeholders
+     * in the properties, such as those of key stores, are resolved against {@code environment}.
+     */
+    static DataSource createDataSource(Environment environment, Map<String, Object> properties,
+                                       @Nullable ClassLoader classLoader) {
+        return createDataSource(new Binder(List.of(new MapConfigurationPropertySource(properties)),
+                new PropertySourcesPlaceholdersResolver(environment)), classLoader);
+    }
+
+    /**
+     * Creates a connection pool from the {@code spring.datasource.*} properties that {@code binder} binds.
+     */
+    static DataSource createDataSource(Binder binder, @Nullable ClassLoader classLoader) {
+        DataSourceProperties dataSourceProperties = binder.bindOrCreate("spring.datasource", DataSourceProperties.class);
+        dataSourceProperties.setBeanClassLoader(classLoader);
+        try {
+            dataSourceProperties.afterPropertiesSet();
+        } catch (Exception e) {
+            throw new IllegalStateException("Unable to initialize DataSourceProperties", e);
+        }
+        return createDataSource(dataSourceProperties, binder);
+    }
+
+    /**
+     * Creates a connection pool from {@code spring.datasource.*} properties in the same way as Spring Boot, binding the
+     * properties specific to the pool with {@code binder}.
+     */
+    static DataSource createDataSource(DataSourceProperties properties, Binder binder) {
+        DataSource dataSource = properties.initializeDataSourceBuilder().build();
+        String prefix = POOL_PREFIXES.get(dataSource.getClass().getName());
+        if (prefix != null) {
+            binder.bind(prefix, Bindable.ofInstance(dataSource));
+        }
+        return dataSource;
+    }
+
+    private static final class Clusters {
+
+        @Nullable
+        private String primary;
+
+        private final Map<String, Map<String, Map<String, Object>>> replicas = new LinkedHashMap<>();
+
+    }
+
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bindings.boot;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link DataSource} that sends read-only work to replicas of a primary database.  Connections are returned by a
+ * {@link LazyConnectionDataSourceProxy}, so the physical connection is only obtained when it is first used, by which
+ * time Spring's transaction managers have marked {@code @Transactional(readOnly = true)} transactions as read-only.
+ * Connections for read-only transactions are then obtained from the next replica in turn, and all others from the
+ * primary.
+ * <p>
+ * A replica that cannot provide a connection is logged, and is not used again until its back-off has elapsed, so that
+ * a replica that is down does not delay every read-only transaction.  If no replica can provide a connection, the
+ * primary is used.
+ */
+public final class ReplicaRoutingDataSource extends LazyConnectionDataSourceProxy implements AutoCloseable {
+
+    /**
+     * How long a replica that could not provide a connection is not used for by default: 30 seconds.
+     */
+    public static final Duration DEFAULT_BACKOFF = Duration.ofSeconds(30);
+
+    private static final Log LOG = LogFactory.getLog(ReplicaRoutingDataSource.class);
+
+    private final DataSource primary;
+
+    private final List<DataSource> replicas;
+
+    /**
+     * Creates a new {@code ReplicaRoutingDataSource} instance that backs off failed replicas for
+     * {@link #DEFAULT_BACKOFF}.
+     *
+     * @param primary  the {@code DataSource} of the primary, which serves all work that is not read-only.
+     * @param replicas the {@code DataSource}s of the replicas, which serve read-only work in turn.
+     */
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas) {
+        this(primary, replicas, DEFAULT_BACKOFF);
+    }
+
+    /**
+     * Creates a new {@code ReplicaRoutingDataSource} instance.
+     *
+     * @param primary  the {@code DataSource} of the primary, which serves all work that is not read-only.
+     * @param replicas the {@code DataSource}s of the replicas, which serve read-only work in turn.
+     * @param backoff  how long a replica that could not provide a connection is not used for.
+     */
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, Duration backoff) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+
+        ReadOnlyRouter router = new ReadOnlyRouter();
+        router.setTargetDataSources(Map.of(
+                Boolean.FALSE, primary,
+                Boolean.TRUE, this.replicas.isEmpty() ? primary : new Replicas(primary, this.replicas, backoff)));
+        router.afterPropertiesSet();
+        setTargetDataSource(router);
+    }
+
+    /**
+     * Returns the {@link DataSource} of the primary.
+     *
+     * @return the {@code DataSource} of the primary.
+     */
+    public DataSource getPrimary() {
+        return primary;
+    }
+
+    /**
+     * Returns the {@link DataSource}s of the replicas.
+     *
+     * @return the {@code DataSource}s of the replicas.
+     */
+    public List<DataSource> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * Does not obtain a connection to read the default auto-commit and isolation level from, as
+     * {@link LazyConnectionDataSourceProxy} does, so that no database is connected to when the bean is created.  The
+     * defaults are read from the first connection that is used instead.
+     */
+    @Override
+    public void afterPropertiesSet() {
+    }
+
+    /**
+     * Closes the primary and replica {@link DataSource}s that are {@link AutoCloseable}, such as connection pools.
+     *
+     * @throws SQLException if a {@code DataSource} could not be closed.
+     */
+    @Override
+    public void close() throws SQLException {
+        List<DataSource> dataSources = new ArrayList<>(replicas);
+        dataSources.add(primary);
+
+        SQLException failure = null;
+        for (DataSource dataSource : dataSources) {
+            if (dataSource instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    if (failure == null) {
+                        failure = new SQLException("Unable to close DataSource", e);
+                    } else {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Routes to the replicas when the current transaction is read-only, and to the primary otherwise.
+     */
+    private static final class ReadOnlyRouter extends AbstractRoutingDataSource {
+
+        @Override
+        protected Object determineCurrentLookupKey() {
+            return TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        }
+
+    }
+
+    /**
+     * Obtains connections from each replica in turn, skipping replicas that have failed within their back-off, and
+     * from the primary if no replica can provide one.
+     */
+    private static final class Replicas extends AbstractDataSource {
+
+        private final DataSource primary;
+
+        private final List<DataSource> replicas;
+
+        private final long backoff;
+
+        // When each replica can next be tried, in System.nanoTime(), or 0 if it has not failed
+        private final List<AtomicLong> retryAt;
+
+        private final AtomicInteger next = new AtomicInteger();
+
+        private Replicas(DataSource primary, List<DataSource> replicas, Duration backoff) {
+            this.primary = primary;
+            this.replicas = replicas;
+            this.backoff = backoff.toNanos();
+            this.retryAt = replicas.stream().map(r -> new AtomicLong()).toList();
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return getConnection(null, null);
+        }
+
+        @Override
+        public Connection getConnection(@Nullable String username, @Nullable String password) throws SQLException {
+            int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+            for (int i = 0; i < replicas.size(); i++) {
+                int index = (start + i) % replicas.size();
+                if (!claim(retryAt.get(index))) {
+                    continue;
+                }
+
+                DataSource replica = replicas.get(index);
+                try {
+                    Connection connection = obtain(replica, username, password);
+                    retryAt.get(index).set(0);
+                    return connection;
+                } catch (SQLException e) {
+                    retryAt.get(index).set(nonZero(System.nanoTime() + backoff));
+                    LOG.warn(String.format("Unable to obtain a connection from replica %s, which will not be used for %d ms",
+                            replica, Duration.ofNanos(backoff).toMillis()), e);
+                }
+            }
+
+            return obtain(primary, username, password);
+        }
+
+        /**
+         * Returns whether a replica can be tried.  Once its back-off has elapsed, only the caller that moves the back-off
+         * on tries it, so that concurrent callers do not all wait on a replica that may still be down.
+         */
+        private boolean claim(AtomicLong retryAt) {
+            long r = retryAt.get();
+            if (r == 0) {
+                return true;
+            }
+
+            long now = System.nanoTime();
+            return now - r >= 0 && retryAt.compareAndSet(r, nonZero(now + backoff));
+        }
+
+        private static long nonZero(long nanoTime) {
+            return nanoTime == 0 ? 1 : nanoTime;
+        }
+
+        private static Connection obtain(DataSource dataSource, @Nullable String username, @Nullable String password) throws SQLException {
+            return username == null ? dataSource.getConnection() : dataSource.getConnection(username, password);
+        }
+
+    }
+
+}
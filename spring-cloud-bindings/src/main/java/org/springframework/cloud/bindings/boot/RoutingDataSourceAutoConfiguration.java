@@ -0,0 +1,90 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.cloud.bindings.boot;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.core.env.Environment;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+import javax.sql.DataSource;
+import javax.sql.XADataSource;
+import java.util.Map;
+
+import static org.springframework.cloud.bindings.boot.ReplicaDataSourceRegistrar.DATA_SOURCE_BEAN_NAME;
+
+/**
+ * Registers the {@code dataSource} bean that routes to the replica {@link org.springframework.cloud.bindings.Binding}s
+ * collected by {@link ReplicaDataSourceRegistrar}, or to the tenants collected by {@link TenantDataSourceRegistrar}.
+ * It is applied before {@link DataSourceAutoConfiguration}, so that the DataSource of Spring Boot backs off, and only
+ * if the application does not define a {@link DataSource} bean of its own.  Tenants are resolved by the
+ * {@link TenantResolver} bean of the application if there is one, and otherwise by
+ * {@link TenantRoutingDataSource#getCurrentTenant()}.
+ */
+@AutoConfiguration(before = DataSourceAutoConfiguration.class)
+@ConditionalOnClass(name = "org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType")
+@EnableConfigurationProperties(DataSourceProperties.class)
+public final class RoutingDataSourceAutoConfiguration {
+
+    private static final Log LOG = LogFactory.getLog(RoutingDataSourceAutoConfiguration.class);
+
+    @Bean(name = DATA_SOURCE_BEAN_NAME)
+    @ConditionalOnMissingBean({DataSource.class, XADataSource.class})
+    @Conditional(OnRoutedBindingsCondition.class)
+    DataSource routingDataSource(Environment environment, DataSourceProperties properties,
+                                 ObjectProvider<TenantResolver> tenantResolver) {
+        Map<String, Map<String, Object>> replicas = ReplicaDataSourceRegistrar.getReplicas(environment);
+        Map<String, Map<String, Object>> tenants = TenantDataSourceRegistrar.getTenants(environment);
+        if (replicas != null && tenants != null) {
+            throw new IllegalStateException(String.format(
+                    "Replica bindings %s and tenants %s cannot both be routed to by the '%s' bean",
+                    replicas.keySet(), tenants.keySet(), DATA_SOURCE_BEAN_NAME));
+        }
+
+        if (tenants != null) {
+            LOG.info(String.format("Routing to the databases of tenants %s", tenants.keySet()));
+            return TenantDataSourceRegistrar.createRoutingDataSource(environment, properties, tenants,
+                    tenantResolver.getIfAvailable(() -> TenantRoutingDataSource::getCurrentTenant));
+        }
+        LOG.info(String.format("Routing read-only work to replica bindings %s", replicas.keySet()));
+        return ReplicaDataSourceRegistrar.createRoutingDataSource(environment, properties, replicas);
+    }
+
+    static final class OnRoutedBindingsCondition implements Condition {
+
+        @Override
+        public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            Environment environment = context.getEnvironment();
+            return ReplicaDataSourceRegistrar.getReplicas(environment) != null
+                    || TenantDataSourceRegistrar.getTenants(environment) != null;
+        }
+
+    }
+
+}
@@ -20,12 +20,15 @@ import org.springframework.cloud.bindings.Binding;
 import org.springframework.cloud.bindings.Bindings;
 import org.springframework.core.env.Environment;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import static org.springframework.cloud.bindings.boot.Guards.isTypeEnabled;
 
 /**
  * An implementation of {@link BindingsPropertiesProcessor} that detects {@link Binding}s of type: {@value TYPE}.
+ *
+ * @see <a href="https://help.sap.com/docs/SAP_HANA_PLATFORM/0eec0d68141541d1b07893a39944924e/109397c2206a4ab2a5386d494f4cf75e.html">JDBC Connection Properties</a>
  */
 public final class SapHanaBindingsPropertiesProcessor implements BindingsPropertiesProcessor {
 
@@ -34,23 +37,47 @@ public final class SapHanaBindingsPropertiesProcessor implements BindingsPropert
      **/
     public static final String TYPE = "hana";
 
+    /**
+     * packetSize determines the size in bytes of the packets sent to the server.
+     */
+    public static final String PACKET_SIZE = "packetSize";
+
+    /**
+     * prefetch determines whether the next rows of a result set are fetched before they are read.
+     */
+    public static final String PREFETCH = "prefetch";
+
+    /**
+     * statementCacheSize determines the number of prepared statements cached for each connection, {@code 0} to
+     * disable the cache.
+     */
+    public static final String STATEMENT_CACHE_SIZE = "statementCacheSize";
+
     @Override
     public void process(Environment environment, Bindings bindings, Map<String, Object> properties) {
         if (!isTypeEnabled(environment, TYPE)) {
             return;
         }
 
+        AdaptivePoolSizing sizing = AdaptivePoolSizing.get(environment);
         bindings.filterBindings(TYPE).forEach(binding -> {
+            if (TenantDataSourceRegistrar.collect(environment, binding, this)
+                    || ReplicaDataSourceRegistrar.collect(environment, binding, this)) {
+                return;
+            }
+
             MapMapper map = new MapMapper(binding.getSecret(), properties);
 
             //jdbc properties
+            String jdbcParams = buildJdbcParams(binding);
             map.from("password").to("spring.datasource.password");
             map.from("host", "port", "database").to("spring.datasource.url",
-                    (host, port, database) -> String.format("jdbc:sap://%s:%s/%s", host, port, database));
+                    (host, port, database) -> String.format("jdbc:sap://%s:%s/%s%s", host, port, database, jdbcParams));
             map.from("username").to("spring.datasource.username");
 
             // jdbcURL takes precedence
             map.from("jdbc-url").to("spring.datasource.url");
+            ConnectionPools.mapHikari(binding, properties, sizing);
 
             properties.put("spring.datasource.driver-class-name", "com.sap.db.jdbc.Driver");
 
@@ -62,7 +89,19 @@ public final class SapHanaBindingsPropertiesProcessor implements BindingsPropert
 
             // r2dbcURL takes precedence
             map.from("r2dbc-url").to("spring.r2dbc.url");
+            ConnectionPools.mapR2dbcPool(binding, properties, sizing);
         });
     }
 
+    /**
+     * Returns the performance properties of a binding for the JDBC URL.
+     */
+    private String buildJdbcParams(Binding binding) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put(PACKET_SIZE, ConnectionPools.getInteger(binding, PACKET_SIZE, 1));
+        params.put(PREFETCH, ConnectionPools.getBoolean(binding, PREFETCH));
+        params.put(STATEMENT_CACHE_SIZE, ConnectionPools.getInteger(binding, STATEMENT_CACHE_SIZE, 0));
+        return ConnectionPools.toQuery(params);
+    }
+
 }
@@ -16,11 +16,13 @@
 
 package org.springframework.cloud.bindings.boot;
 
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import org.springframework.boot.context.event.ApplicationPreparedEvent;
 import org.springframework.boot.logging.DeferredLog;
 import org.springframework.cloud.bindings.Binding;
 import org.springframework.cloud.bindings.Bindings;
 import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.core.env.Environment;
 
 import java.util.*;
@@ -39,16 +41,35 @@ public final class SpringSecurityOAuth2BindingsPropertiesProcessor implements Bi
      **/
     public static final String TYPE = "oauth2";
 
+    /**
+     * The prefix of the names of the {@link BindingJwkSet} beans, which are followed by the name of the
+     * {@link Binding}: {@value}.
+     */
+    public static final String JWK_SET_BEAN_NAME_PREFIX = "kubernetesServiceBindingJwkSet.";
+
     private static final DeferredLog LOG = new DeferredLog();
 
+    private static final Map<Environment, Map<String, BindingJwkSet>> JWK_SETS =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
     @Override
     public void process(Environment environment, Bindings bindings, Map<String, Object> properties) {
         if (!isTypeEnabled(environment, TYPE)) {
             return;
         }
 
+        Map<String, String> issuers = new LinkedHashMap<>();
         bindings.filterBindings(TYPE).forEach(binding -> {
             MapMapper map = new MapMapper(binding.getSecret(), properties);
+
+            String jwks = binding.getSecret().get(BindingJwkSet.KEY);
+            if (jwks != null) {
+                BindingJwkSet jwkSet = new BindingJwkSet(binding.getSecretFilePath(BindingJwkSet.KEY), jwks);
+                // The key set is parsed when it is used, so that a malformed key set does not prevent startup
+                LOG.info(String.format("Binding '%s' provides a JSON Web Key Set", binding.getName()));
+                JWK_SETS.computeIfAbsent(environment, e -> new LinkedHashMap<>()).put(binding.getName(), jwkSet);
+            }
+
             String provider = binding.getProvider();
             if (provider == null) {
                 LOG.warn(String.format("Binding '%s' is missing required 'provider' and will not be processed.", binding.getName()));
@@ -76,9 +97,53 @@ public final class SpringSecurityOAuth2BindingsPropertiesProcessor implements Bi
             map.from("user-info-authentication-method").to(String.format("spring.security.oauth2.client.provider.%s.user-info-authentication-method", provider));
             map.from("jwk-set-uri").to(String.format("spring.security.oauth2.client.provider.%s.jwk-set-uri", provider));
             map.from("user-name-attribute").to(String.format("spring.security.oauth2.client.provider.%s.user-name-attribute", provider));
+
+            String issuer = binding.getSecret().get("issuer-uri");
+            if (issuer != null) {
+                issuers.put(provider, issuer);
+            }
+        });
+
+        OidcDiscovery discovery = OidcDiscovery.get(environment);
+        if (discovery != null && !issuers.isEmpty()) {
+            discover(discovery, issuers, properties);
+        }
+    }
+
+    private static void discover(OidcDiscovery discovery, Map<String, String> issuers, Map<String, Object> properties) {
+        Map<String, Map<String, Object>> configurations = discovery.discover(new LinkedHashSet<>(issuers.values()),
+                (issuer, cause) -> LOG.warn(String.format("Unable to discover the provider configuration of '%s': %s",
+                        issuer, cause)));
+
+        issuers.forEach((provider, issuer) -> {
+            Map<String, Object> configuration = configurations.get(issuer);
+            if (configuration == null || configuration.get("token_endpoint") == null) {
+                return;
+            }
+
+            // Spring Security discovers the configuration at startup whenever issuer-uri is set, but without it does
+            // not validate the issuer of ID tokens, so it is only removed when the application has opted in
+            if (discovery.isReplaceIssuerUri()) {
+                properties.remove(String.format("spring.security.oauth2.client.provider.%s.issuer-uri", provider));
+                LOG.warn(String.format("Provider '%s' has no issuer-uri, so the issuer of its ID tokens is not validated", provider));
+            }
+            putIfAbsent(configuration, "authorization_endpoint", properties, String.format("spring.security.oauth2.client.provider.%s.authorization-uri", provider));
+            putIfAbsent(configuration, "token_endpoint", properties, String.format("spring.security.oauth2.client.provider.%s.token-uri", provider));
+            putIfAbsent(configuration, "userinfo_endpoint", properties, String.format("spring.security.oauth2.client.provider.%s.user-info-uri", provider));
+            putIfAbsent(configuration, "jwks_uri", properties, String.format("spring.security.oauth2.client.provider.%s.jwk-set-uri", provider));
+            if (configuration.containsKey("userinfo_endpoint")) {
+                properties.putIfAbsent(String.format("spring.security.oauth2.client.provider.%s.user-name-attribute", provider), "sub");
+            }
         });
     }
 
+    private static void putIfAbsent(Map<String, Object> configuration, String source, Map<String, Object> properties, String key) {
+        Object value = configuration.get(source);
+        if (value != null) {
+            properties.putIfAbsent(key, value.toString());
+        }
+    }
+
     private static boolean hasSingleValue(@Nullable Object value) {
         return Optional.ofNullable(value)
                 .filter(String.class::isInstance)
@@ -90,6 +155,18 @@ public final class SpringSecurityOAuth2BindingsPropertiesProcessor implements Bi
 
     @Override
     public void onApplicationEvent(ApplicationPreparedEvent event) {
+        ConfigurableApplicationContext context = event.getApplicationContext();
+        Map<String, BindingJwkSet> jwkSets = JWK_SETS.remove(context.getEnvironment());
+        if (jwkSets != null) {
+            ConfigurableListableBeanFactory beanFactory = context.getBeanFactory();
+            jwkSets.forEach((name, jwkSet) -> {
+                String beanName = JWK_SET_BEAN_NAME_PREFIX + name;
+                if (!beanFactory.containsBean(beanName)) {
+                    beanFactory.registerSingleton(beanName, jwkSet);
+                }
+            });
+        }
+
         LOG.replayTo(getClass());
     }
 }
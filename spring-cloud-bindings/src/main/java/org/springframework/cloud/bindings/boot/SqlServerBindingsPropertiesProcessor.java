@@ -20,6 +20,8 @@ import org.springframework.cloud.bindings.Binding;
 import org.springframework.cloud.bindings.Bindings;
 import org.springframework.core.env.Environment;
 
+import java.util.LinkedHashMap;
+import java.util.Locale;
 import java.util.Map;
 
 import static org.springframework.cloud.bindings.boot.Guards.isTypeEnabled;
@@ -36,35 +38,137 @@ public final class SqlServerBindingsPropertiesProcessor implements BindingsPrope
      **/
     public static final String TYPE = "sqlserver";
 
+    /**
+     * sendStringParametersAsUnicode determines whether string parameters are sent as {@code nvarchar} rather than
+     * {@code varchar}, which prevents index seeks on {@code varchar} columns.
+     */
+    public static final String SEND_STRING_PARAMETERS_AS_UNICODE = "sendStringParametersAsUnicode";
+
+    /**
+     * packetSize determines the network packet size in bytes, {@code -1} for the server's size, or {@code 0} for the
+     * largest size ({@code 32767}).
+     */
+    public static final String PACKET_SIZE = "packetSize";
+
+    /**
+     * statementPoolingCacheSize determines the number of prepared statements cached for each connection.
+     */
+    public static final String STATEMENT_POOLING_CACHE_SIZE = "statementPoolingCacheSize";
+
+    /**
+     * disableStatementPooling determines whether prepared statements are cached, which requires
+     * {@value STATEMENT_POOLING_CACHE_SIZE} to be greater than {@code 0}.
+     */
+    public static final String DISABLE_STATEMENT_POOLING = "disableStatementPooling";
+
+    /**
+     * selectMethod determines whether results are read directly, or through a server cursor.
+     */
+    public static final String SELECT_METHOD = "selectMethod";
+
+    private static final int MINIMUM_PACKET_SIZE = 512;
+
+    private static final int MAXIMUM_PACKET_SIZE = 32767;
+
     @Override
     public void process(Environment environment, Bindings bindings, Map<String, Object> properties) {
         if (!isTypeEnabled(environment, TYPE)) {
             return;
         }
 
+        AdaptivePoolSizing sizing = AdaptivePoolSizing.get(environment);
         bindings.filterBindings(TYPE).forEach(binding -> {
+            if (TenantDataSourceRegistrar.collect(environment, binding, this)
+                    || ReplicaDataSourceRegistrar.collect(environment, binding, this)) {
+                return;
+            }
+
             MapMapper map = new MapMapper(binding.getSecret(), properties);
 
             //jdbc properties
+            Map<String, Object> jdbcParams = buildJdbcParams(binding);
+            StringBuilder jdbcOptions = new StringBuilder();
+            jdbcParams.forEach((key, value) -> jdbcOptions.append(';').append(key).append('=').append(value));
             map.from("password").to("spring.datasource.password");
             map.from("host", "port", "database").to("spring.datasource.url",
-                    (host, port, database) -> String.format("jdbc:sqlserver://%s:%s/%s", host, port, database));
+                    (host, port, database) -> String.format("jdbc:sqlserver://%s:%s/%s%s", host, port, database, jdbcOptions));
             map.from("username").to("spring.datasource.username");
 
             // jdbcURL takes precedence
             map.from("jdbc-url").to("spring.datasource.url");
+            ConnectionPools.mapHikari(binding, properties, sizing);
 
             properties.put("spring.datasource.driver-class-name", "com.microsoft.sqlserver.jdbc.SQLServerDriver");
 
             //r2dbc properties
             map.from("password").to("spring.r2dbc.password");
+            String r2dbcOptions = ConnectionPools.toQuery(buildR2dbcParams(jdbcParams));
             map.from("host", "port", "database").to("spring.r2dbc.url",
-                    (host, port, database) -> String.format("r2dbc:sqlserver://%s:%s/%s", host, port, database));
+                    (host, port, database) -> String.format("r2dbc:sqlserver://%s:%s/%s%s", host, port, database, r2dbcOptions));
             map.from("username").to("spring.r2dbc.username");
 
             // r2dbcURL takes precedence
             map.from("r2dbc-url").to("spring.r2dbc.url");
+            ConnectionPools.mapR2dbcPool(binding, properties, sizing);
         });
     }
 
+    /**
+     * Returns the performance connection properties of a binding for the JDBC URL.
+     *
+     * @see <a href="https://learn.microsoft.com/en-us/sql/connect/jdbc/setting-the-connection-properties">Connection Properties</a>
+     */
+    private Map<String, Object> buildJdbcParams(Binding binding) {
+        Boolean sendStringParametersAsUnicode = ConnectionPools.getBoolean(binding, SEND_STRING_PARAMETERS_AS_UNICODE);
+        Integer packetSize = ConnectionPools.getInteger(binding, PACKET_SIZE, -1);
+        Integer statementPoolingCacheSize = ConnectionPools.getInteger(binding, STATEMENT_POOLING_CACHE_SIZE, 0);
+        Boolean disableStatementPooling = ConnectionPools.getBoolean(binding, DISABLE_STATEMENT_POOLING);
+        String selectMethod = binding.getSecret().get(SELECT_METHOD);
+
+        if (packetSize != null && packetSize > 0 && (packetSize < MINIMUM_PACKET_SIZE || packetSize > MAXIMUM_PACKET_SIZE)) {
+            throw ConnectionPools.invalid(binding, PACKET_SIZE, String.format("%d must be -1, 0, or between %d and %d",
+                    packetSize, MINIMUM_PACKET_SIZE, MAXIMUM_PACKET_SIZE));
+        }
+        if (Boolean.FALSE.equals(disableStatementPooling) && (statementPoolingCacheSize == null || statementPoolingCacheSize == 0)) {
+            throw ConnectionPools.invalid(binding, DISABLE_STATEMENT_POOLING,
+                    String.format("statement pooling requires %s to be greater than 0", STATEMENT_POOLING_CACHE_SIZE));
+        }
+        if (selectMethod != null) {
+            selectMethod = selectMethod.trim().toLowerCase(Locale.ROOT);
+            if (!"direct".equals(selectMethod) && !"cursor".equals(selectMethod)) {
+                throw ConnectionPools.invalid(binding, SELECT_METHOD, String.format("'%s' is not direct or cursor", selectMethod));
+            }
+        }
+
+        // The driver disables statement pooling by default, which would ignore the cache size
+        if (disableStatementPooling == null && statementPoolingCacheSize != null && statementPoolingCacheSize > 0) {
+            disableStatementPooling = false;
+        }
+
+        Map<String, Object> params = new LinkedHashMap<>();
+        ConnectionPools.putIfNotNull(params, SEND_STRING_PARAMETERS_AS_UNICODE, sendStringParametersAsUnicode);
+        ConnectionPools.putIfNotNull(params, PACKET_SIZE, packetSize);
+        ConnectionPools.putIfNotNull(params, STATEMENT_POOLING_CACHE_SIZE, statementPoolingCacheSize);
+        ConnectionPools.putIfNotNull(params, DISABLE_STATEMENT_POOLING, disableStatementPooling);
+        ConnectionPools.putIfNotNull(params, SELECT_METHOD, selectMethod);
+        return params;
+    }
+
+    /**
+     * Returns the R2DBC driver equivalents of the JDBC connection properties.  The R2DBC driver has no equivalent of
+     * {@code packetSize} or statement pooling, and reads results through a cursor when
+     * {@code preferCursoredExecution} is {@code true}.
+     *
+     * @see <a href="https://github.com/r2dbc/r2dbc-mssql#connection-factory-discovery">Connection Factory Discovery</a>
+     */
+    private Map<String, Object> buildR2dbcParams(Map<String, Object> jdbcParams) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        ConnectionPools.putIfNotNull(params, SEND_STRING_PARAMETERS_AS_UNICODE, jdbcParams.get(SEND_STRING_PARAMETERS_AS_UNICODE));
+        Object selectMethod = jdbcParams.get(SELECT_METHOD);
+        if (selectMethod != null) {
+            params.put("preferCursoredExecution", "cursor".equals(selectMethod));
+        }
+        return params;
+    }
+
 }
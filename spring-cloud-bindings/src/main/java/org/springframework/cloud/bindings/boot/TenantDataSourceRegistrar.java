@@ -0,0 +1,165 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bindings.boot;
+
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.cloud.bindings.Binding;
+import org.springframework.core.env.Environment;
+import org.springframework.lang.Nullable;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Collects the JDBC {@link Binding}s with a {@value TENANT} when {@value ENABLE_PROPERTY} is {@code true}, for the
+ * {@link TenantRoutingDataSource} that {@link RoutingDataSourceAutoConfiguration} registers to route to them.  Each
+ * tenant is mapped by the processor for its type like any other binding, but into its own connection pool, rather
+ * than into {@code spring.datasource.*}.
+ */
+public final class TenantDataSourceRegistrar {
+
+    /**
+     * The key of the tenant of a database {@link Binding}: {@value}.
+     */
+    public static final String TENANT = "tenant";
+
+    /**
+     * The property that enables tenant routing: {@value}.
+     */
+    public static final String ENABLE_PROPERTY = "org.springframework.cloud.bindings.boot.tenants.enable";
+
+    /**
+     * The property that configures the maximum number of tenant pools that are open while not in use: {@value}.
+     */
+    public static final String MAX_POOLS_PROPERTY = "org.springframework.cloud.bindings.boot.tenants.max-pools";
+
+    /**
+     * The property that configures how long a tenant pool stays open while not in use: {@value}.
+     */
+    public static final String IDLE_TIMEOUT_PROPERTY = "org.springframework.cloud.bindings.boot.tenants.idle-timeout";
+
+    static final int DEFAULT_MAX_POOLS = 50;
+
+    static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(10);
+
+    private static final Map<Environment, Map<String, Tenant>> TENANTS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * Collects a {@link Binding} if it belongs to a tenant and tenant routing is enabled, so that it is not mapped to
+     * {@code spring.datasource.*}.  A tenant is mapped by {@code processor} into its own properties.
+     *
+     * @param environment the {@code Environment} being processed.
+     * @param binding     the {@code Binding} to collect.
+     * @param processor   the {@code BindingsPropertiesProcessor} for the type of {@code binding}.
+     * @return {@code true} if {@code binding} belongs to a tenant, and must not be mapped to
+     * {@code spring.datasource.*}.
+     * @throws IllegalArgumentException if the tenant is blank, already bound, or the binding is a replica.
+     */
+    static boolean collect(Environment environment, Binding binding, BindingsPropertiesProcessor processor) {
+        String tenant = binding.getSecret().get(TENANT);
+        if (tenant == null || !environment.getProperty(ENABLE_PROPERTY, Boolean.class, false)) {
+            return false;
+        }
+
+        tenant = tenant.trim();
+        if (tenant.isEmpty()) {
+            throw ConnectionPools.invalid(binding, TENANT, "must not be blank");
+        }
+        String role = binding.getSecret().get(ReplicaDataSourceRegistrar.ROLE);
+        if (role != null && ReplicaDataSourceRegistrar.REPLICA.equalsIgnoreCase(role.trim())) {
+            throw ConnectionPools.invalid(binding, ReplicaDataSourceRegistrar.ROLE, "replicas of tenants are not supported");
+        }
+
+        Map<String, Tenant> tenants = TENANTS.computeIfAbsent(environment, e -> new LinkedHashMap<>());
+        Tenant existing = tenants.get(tenant);
+        if (existing != null && !existing.binding.equals(binding.getName())) {
+            throw ConnectionPools.invalid(binding, TENANT, String.format("'%s' is also the tenant of binding '%s'",
+                    tenant, existing.binding));
+        }
+
+        tenants.put(tenant, new Tenant(binding.getName(), ReplicaDataSourceRegistrar.processAlone(environment, binding, processor)));
+        return true;
+    }
+
+    /**
+     * Returns the tenants that were collected.
+     *
+     * @param environment the {@code Environment} that was processed.
+     * @return the properties of each tenant by tenant, or {@code null} if there are none.
+     */
+    @Nullable
+    static Map<String, Map<String, Object>> getTenants(Environment environment) {
+        Map<String, Tenant> tenants = TENANTS.get(environment);
+        if (tenants == null || tenants.isEmpty()) {
+            return null;
+        }
+
+        Map<String, Map<String, Object>> properties = new LinkedHashMap<>();
+        tenants.forEach((tenant, t) -> properties.put(tenant, t.properties));
+        return properties;
+    }
+
+    /**
+     * Creates a {@link TenantRoutingDataSource} for the tenants, which uses the DataSource of
+     * {@code spring.datasource.*} without a tenant if {@code spring.datasource.url} is set, and routes to the tenant
+     * returned by {@code tenantResolver}.
+     */
+    static TenantRoutingDataSource createRoutingDataSource(Environment environment, DataSourceProperties primary,
+                                                           Map<String, Map<String, Object>> tenants,
+                                                           TenantResolver tenantResolver) {
+        int maxPools = environment.getProperty(MAX_POOLS_PROPERTY, Integer.class, DEFAULT_MAX_POOLS);
+        if (maxPools < 1) {
+            throw new IllegalArgumentException(String.format("%s must be at least 1", MAX_POOLS_PROPERTY));
+        }
+        String value = environment.getProperty(IDLE_TIMEOUT_PROPERTY);
+        Duration idleTimeout = value != null ? DurationStyle.detectAndParse(value.trim()) : DEFAULT_IDLE_TIMEOUT;
+        if (idleTimeout.isNegative() || idleTimeout.isZero()) {
+            throw new IllegalArgumentException(String.format("%s must be positive", IDLE_TIMEOUT_PROPERTY));
+        }
+
+        ReplicaDataSourceRegistrar.inheritType(environment, tenants.values());
+        ClassLoader classLoader = primary.getClassLoader();
+        Map<String, Supplier<DataSource>> factories = new LinkedHashMap<>();
+        tenants.forEach((tenant, properties) -> factories.put(tenant,
+                () -> ReplicaDataSourceRegistrar.createDataSource(environment, properties, classLoader)));
+        DataSource defaultDataSource = environment.getProperty("spring.datasource.url") == null ? null
+                : ReplicaDataSourceRegistrar.createDataSource(primary, Binder.get(environment));
+        return new TenantRoutingDataSource(factories, defaultDataSource, tenantResolver::getCurrentTenant, maxPools,
+                idleTimeout);
+    }
+
+    private static final class Tenant {
+
+        private final String binding;
+
+        private final Map<String, Object> properties;
+
+        private Tenant(String binding, Map<String, Object> properties) {
+            this.binding = binding;
+            this.properties = properties;
+        }
+
+    }
+
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bindings.boot;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Resolves the tenant that the {@link TenantRoutingDataSource} registered by
+ * {@link RoutingDataSourceAutoConfiguration} routes each connection to.  An application can define a bean of this
+ * type to resolve tenants from its own context, in place of {@link TenantRoutingDataSource#getCurrentTenant()}.
+ */
+@FunctionalInterface
+public interface TenantResolver {
+
+    /**
+     * Returns the current tenant.
+     *
+     * @return the current tenant, or {@code null} if there is none.
+     */
+    @Nullable
+    String getCurrentTenant();
+
+}
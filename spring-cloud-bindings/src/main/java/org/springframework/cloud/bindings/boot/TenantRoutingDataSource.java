@@ -0,0 +1,426 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bindings.boot;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.lang.Nullable;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * A {@link DataSource} that routes each connection to the database of the current tenant.  The connection pool of a
+ * tenant is only created when the tenant first requests a connection, and is closed again once it has been idle, with
+ * no connections borrowed, for longer than the idle timeout, or when more than the maximum number of pools are open
+ * and it is the least recently used.  Pools with borrowed connections are never closed, so the maximum may be
+ * exceeded while all open pools are in use.  Each pool is created while holding a lock of its own, so creating the
+ * pool of one tenant does not hold up the connections of others.
+ * <p>
+ * The current tenant is resolved for each connection, by default from {@link #setCurrentTenant(String)}.  Without a
+ * tenant, connections come from the default {@code DataSource} if there is one.
+ */
+public final class TenantRoutingDataSource implements DataSource, AutoCloseable {
+
+    private static final Log LOG = LogFactory.getLog(TenantRoutingDataSource.class);
+
+    private static final ThreadLocal<String> CURRENT_TENANT = new ThreadLocal<>();
+
+    private static final Duration MINIMUM_SWEEP_INTERVAL = Duration.ofSeconds(1);
+
+    private final Map<String, Supplier<DataSource>> tenants;
+
+    @Nullable
+    private final DataSource defaultDataSource;
+
+    private final Supplier<String> tenantResolver;
+
+    private final int maxPools;
+
+    private final Duration idleTimeout;
+
+    private final Clock clock;
+
+    // Open pools, least recently used first
+    private final LinkedHashMap<String, Pool> pools = new LinkedHashMap<>(16, 0.75f, true);
+
+    @Nullable
+    private final ScheduledExecutorService sweeper;
+
+    /**
+     * Creates a new {@code TenantRoutingDataSource} instance, which closes idle pools every half of
+     * {@code idleTimeout}.
+     *
+     * @param tenants           the factories of the {@code DataSource} of each tenant, by tenant.
+     * @param defaultDataSource the {@code DataSource} used when there is no current tenant, or {@code null}.
+     * @param tenantResolver    returns the current tenant, or {@code null} if there is none.
+     * @param maxPools          the maximum number of pools that are open while not in use.
+     * @param idleTimeout       how long a pool stays open while not in use.
+     */
+    public TenantRoutingDataSource(Map<String, Supplier<DataSource>> tenants, @Nullable DataSource defaultDataSource,
+                                   Supplier<String> tenantResolver, int maxPools, Duration idleTimeout) {
+        this(tenants, defaultDataSource, tenantResolver, maxPools, idleTimeout, Clock.systemUTC(), true);
+    }
+
+    TenantRoutingDataSource(Map<String, Supplier<DataSource>> tenants, @Nullable DataSource defaultDataSource,
+                            Supplier<String> tenantResolver, int maxPools, Duration idleTimeout, Clock clock,
+                            boolean sweep) {
+        if (maxPools < 1) {
+            throw new IllegalArgumentException(String.format("maxPools %d is less than 1", maxPools));
+        }
+        if (idleTimeout.isNegative() || idleTimeout.isZero()) {
+            throw new IllegalArgumentException(String.format("idleTimeout %s must be positive", idleTimeout));
+        }
+
+        this.tenants = Map.copyOf(tenants);
+        this.defaultDataSource = defaultDataSource;
+        this.tenantResolver = tenantResolver;
+        this.maxPools = maxPools;
+        this.idleTimeout = idleTimeout;
+        this.clock = clock;
+
+        if (sweep) {
+            long interval = Math.max(idleTimeout.dividedBy(2).toMillis(), MINIMUM_SWEEP_INTERVAL.toMillis());
+            sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "tenant-data-source-sweeper");
+                thread.setDaemon(true);
+                return thread;
+            });
+            sweeper.scheduleWithFixedDelay(this::closeIdlePools, interval, interval, TimeUnit.MILLISECONDS);
+        } else {
+            sweeper = null;
+        }
+    }
+
+    /**
+     * Sets the tenant of the current thread, which is resolved by default.
+     *
+     * @param tenant the tenant, or {@code null} to clear it.
+     */
+    public static void setCurrentTenant(@Nullable String tenant) {
+        if (tenant == null) {
+            CURRENT_TENANT.remove();
+        } else {
+            CURRENT_TENANT.set(tenant);
+        }
+    }
+
+    /**
+     * Returns the tenant of the current thread.
+     *
+     * @return the tenant of the current thread, or {@code null} if there is none.
+     */
+    @Nullable
+    public static String getCurrentTenant() {
+        return CURRENT_TENANT.get();
+    }
+
+    /**
+     * Returns the tenants that this {@code DataSource} routes to.
+     *
+     * @return the tenants, in order.
+     */
+    public Set<String> getTenants() {
+        return new TreeSet<>(tenants.keySet());
+    }
+
+    /**
+     * Returns the tenants whose pools are open.
+     *
+     * @return the tenants whose pools are open, least recently used first.
+     */
+    public List<String> getOpenTenants() {
+        synchronized (pools) {
+            return new ArrayList<>(pools.keySet());
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return getConnection(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return getConnection(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    private Connection getConnection(ConnectionFactory factory) throws SQLException {
+        String tenant = tenantResolver.get();
+        if (tenant == null) {
+            if (defaultDataSource == null) {
+                throw new SQLException("No tenant is selected, and there is no default DataSource");
+            }
+            return factory.getConnection(defaultDataSource);
+        }
+
+        Pool pool = borrow(tenant);
+        try {
+            Connection connection = factory.getConnection(pool.getDataSource());
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                    new Lease(pool, connection));
+        } catch (SQLException | RuntimeException e) {
+            release(pool);
+            throw e;
+        }
+    }
+
+    private Pool borrow(String tenant) throws SQLException {
+        Supplier<DataSource> factory = tenants.get(tenant);
+        if (factory == null) {
+            throw new SQLException(String.format("Unknown tenant '%s'", tenant));
+        }
+
+        Pool pool;
+        List<Pool> evicted;
+        synchronized (pools) {
+            // The pool is borrowed before its DataSource is created, so that it is not evicted meanwhile
+            pool = pools.computeIfAbsent(tenant, t -> new Pool(t, factory));
+            pool.leases++;
+            pool.lastUsed = clock.millis();
+            evicted = evict();
+        }
+
+        close(evicted);
+        return pool;
+    }
+
+    private void release(Pool pool) {
+        synchronized (pools) {
+            pool.leases--;
+            pool.lastUsed = clock.millis();
+        }
+    }
+
+    /**
+     * Closes the pools that have been idle for longer than the idle timeout.
+     */
+    void closeIdlePools() {
+        List<Pool> evicted;
+        synchronized (pools) {
+            evicted = evict();
+        }
+        close(evicted);
+    }
+
+    /**
+     * Removes the pools that are not in use and are either idle, or the least recently used beyond the maximum.
+     */
+    private List<Pool> evict() {
+        long now = clock.millis();
+        int excess = pools.size() - maxPools;
+        List<Pool> evicted = new ArrayList<>();
+        for (Iterator<Pool> i = pools.values().iterator(); i.hasNext(); ) {
+            Pool pool = i.next();
+            if (pool.leases == 0 && (excess > 0 || now - pool.lastUsed >= idleTimeout.toMillis())) {
+                i.remove();
+                evicted.add(pool);
+                excess--;
+            }
+        }
+        return evicted;
+    }
+
+    private static void close(List<Pool> pools) {
+        for (Pool pool : pools) {
+            close(pool.dataSource, String.format("the DataSource of tenant '%s'", pool.tenant));
+        }
+    }
+
+    private static void close(@Nullable DataSource dataSource, String description) {
+        if (dataSource instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                LOG.warn(String.format("Unable to close %s", description), e);
+            }
+        }
+    }
+
+    /**
+     * Closes the pools of all tenants and the default {@link DataSource}, if they are {@link AutoCloseable}.
+     */
+    @Override
+    public void close() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+
+        List<Pool> open;
+        synchronized (pools) {
+            open = new ArrayList<>(pools.values());
+            pools.clear();
+        }
+        close(open);
+        close(defaultDataSource, "the default DataSource");
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return defaultDataSource == null ? null : defaultDataSource.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        if (defaultDataSource != null) {
+            defaultDataSource.setLogWriter(out);
+        }
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        if (defaultDataSource != null) {
+            defaultDataSource.setLoginTimeout(seconds);
+        }
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return defaultDataSource == null ? 0 : defaultDataSource.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException(String.format("%s is not a wrapper for %s", getClass().getName(), iface.getName()));
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
+    }
+
+    @FunctionalInterface
+    private interface ConnectionFactory {
+
+        Connection getConnection(DataSource dataSource) throws SQLException;
+
+    }
+
+    private static final class Pool {
+
+        private final String tenant;
+
+        private final Supplier<DataSource> factory;
+
+        @Nullable
+        private volatile DataSource dataSource;
+
+        private int leases;
+
+        private long lastUsed;
+
+        private Pool(String tenant, Supplier<DataSource> factory) {
+            this.tenant = tenant;
+            this.factory = factory;
+        }
+
+        /**
+         * Returns the {@link DataSource} of the tenant, creating it on first use.  If it cannot be created, the next
+         * borrower tries again.
+         */
+        private DataSource getDataSource() {
+            DataSource dataSource = this.dataSource;
+            if (dataSource == null) {
+                synchronized (this) {
+                    dataSource = this.dataSource;
+                    if (dataSource == null) {
+                        dataSource = factory.get();
+                        this.dataSource = dataSource;
+                    }
+                }
+            }
+            return dataSource;
+        }
+
+    }
+
+    /**
+     * Releases the pool of a {@link Connection} when the connection is closed, so that the pool can be evicted.
+     */
+    private final class Lease implements InvocationHandler {
+
+        private final Pool pool;
+
+        private final Connection target;
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Lease(Pool pool, Connection target) {
+            this.pool = pool;
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "close":
+                    try {
+                        target.close();
+                    } finally {
+                        if (released.compareAndSet(false, true)) {
+                            release(pool);
+                        }
+                    }
+                    return null;
+                default:
+                    break;
+            }
+
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+
+    }
+
+}
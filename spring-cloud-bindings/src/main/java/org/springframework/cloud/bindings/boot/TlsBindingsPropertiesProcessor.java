@@ -0,0 +1,182 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.cloud.bindings.boot;
+
+import org.springframework.boot.context.event.ApplicationPreparedEvent;
+import org.springframework.boot.logging.DeferredLog;
+import org.springframework.cloud.bindings.Binding;
+import org.springframework.cloud.bindings.Bindings;
+import org.springframework.cloud.bindings.boot.pem.PemSslStoreHelper;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.env.Environment;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import static org.springframework.cloud.bindings.boot.Guards.isTypeEnabled;
+
+/**
+ * An implementation of {@link BindingsPropertiesProcessor} that contributes the {@code tls.crt}, {@code tls.key} and
+ * {@code ca.crt} entries of {@link Binding}s as a Spring Boot SSL bundle named after the binding, and points the
+ * client for the binding's type at that bundle.  Bundle names are the binding name in lower case, with any character
+ * other than a letter, digit or {@code -} replaced by {@code -}, so that each is a single property name element.  The
+ * bundle's key material is loaded once and shared by every client that uses it.  The Kafka and RabbitMQ clients
+ * cannot use SSL bundles, so they are given the PEM content and key stores of the binding instead.
+ * <p>
+ * Can be disabled by setting the {@code org.springframework.cloud.bindings.boot.tls.enable} System Property to
+ * {@code false}.
+ */
+public final class TlsBindingsPropertiesProcessor implements BindingsPropertiesProcessor, ApplicationListener<ApplicationPreparedEvent> {
+
+    private static final String NAME = "tls";
+
+    private static final List<String> TYPES = Arrays.asList(
+            KafkaBindingsPropertiesProcessor.TYPE,
+            MongoDbBindingsPropertiesProcessor.TYPE,
+            PostgreSqlBindingsPropertiesProcessor.TYPE,
+            RabbitMqBindingsPropertiesProcessor.TYPE,
+            RedisBindingsPropertiesProcessor.TYPE
+    );
+
+    // The PostgreSQL drivers cannot use SSL bundles, so their bundle is only registered for application code
+    private static final Map<String, String> BUNDLE_PROPERTIES = Map.of(
+            MongoDbBindingsPropertiesProcessor.TYPE, "spring.data.mongodb.ssl.bundle",
+            RedisBindingsPropertiesProcessor.TYPE, "spring.data.redis.ssl.bundle"
+    );
+
+    private static final Map<String, String> ENABLED_PROPERTIES = Map.of(
+            MongoDbBindingsPropertiesProcessor.TYPE, "spring.data.mongodb.ssl.enabled",
+            RabbitMqBindingsPropertiesProcessor.TYPE, "spring.rabbitmq.ssl.enabled",
+            RedisBindingsPropertiesProcessor.TYPE, "spring.data.redis.ssl.enabled"
+    );
+
+    private static final Pattern BUNDLE_NAME_INVALID = Pattern.compile("[^a-z0-9-]");
+
+    private static final DeferredLog LOG = new DeferredLog();
+
+    @Override
+    public void process(Environment environment, Bindings bindings, Map<String, Object> properties) {
+        if (!isTypeEnabled(environment, NAME)) {
+            return;
+        }
+
+        KeyStoreFiles keyStoreFiles = KeyStoreFiles.get(environment);
+        Map<String, String> bundles = new HashMap<>();
+        bindings.getBindings().forEach(binding -> {
+            String type = binding.getType().toLowerCase(Locale.ROOT);
+            if (!TYPES.contains(type) || !isTypeEnabled(environment, type)) {
+                return;
+            }
+
+            Map<String, String> secret = binding.getSecret();
+            String clientKey = secret.get("tls.key");
+            String clientCert = secret.get("tls.crt");
+            String caCert = secret.get("ca.crt");
+            if (StringUtils.hasText(clientCert) != StringUtils.hasText(clientKey)) {
+                LOG.warn(String.format("Binding '%s' must set both 'tls.crt' and 'tls.key' or neither, and its TLS material will not be used",
+                        binding.getName()));
+                return;
+            }
+            if (!StringUtils.hasText(clientKey) && !StringUtils.hasText(caCert)) {
+                return;
+            }
+
+            String bundle = getBundleName(binding.getName());
+            String existing = bundles.putIfAbsent(bundle, binding.getName());
+            if (existing != null) {
+                throw new IllegalArgumentException(String.format("Bindings '%s' and '%s' both have the SSL bundle name '%s'",
+                        existing, binding.getName(), bundle));
+            }
+            if (StringUtils.hasText(clientKey)) {
+                PemSslStoreHelper.validateKeyStoreContent(clientCert, clientKey);
+                properties.put(String.format("spring.ssl.bundle.pem.%s.keystore.certificate", bundle), clientCert);
+                properties.put(String.format("spring.ssl.bundle.pem.%s.keystore.private-key", bundle), clientKey);
+            }
+            if (StringUtils.hasText(caCert)) {
+                PemSslStoreHelper.validateKeyStoreContent(caCert, null);
+                properties.put(String.format("spring.ssl.bundle.pem.%s.truststore.certificate", bundle), caCert);
+            }
+
+            if (BUNDLE_PROPERTIES.containsKey(type)) {
+                properties.put(BUNDLE_PROPERTIES.get(type), bundle);
+            }
+            if (ENABLED_PROPERTIES.containsKey(type)) {
+                properties.put(ENABLED_PROPERTIES.get(type), true);
+            }
+            if (KafkaBindingsPropertiesProcessor.TYPE.equals(type)) {
+                mapKafka(clientCert, clientKey, caCert, properties);
+            } else if (RabbitMqBindingsPropertiesProcessor.TYPE.equals(type)) {
+                mapRabbitMq(keyStoreFiles, clientCert, clientKey, caCert, properties);
+            }
+        });
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationPreparedEvent event) {
+        LOG.replayTo(getClass());
+    }
+
+    /**
+     * Maps TLS material to the PEM properties of the Kafka client, which has no SSL bundle in Spring Boot 3.1.
+     */
+    private static void mapKafka(@Nullable String clientCert, @Nullable String clientKey, @Nullable String caCert,
+                                 Map<String, Object> properties) {
+        if (StringUtils.hasText(clientKey)) {
+            properties.put("spring.kafka.ssl.key-store-type", "PEM");
+            properties.put("spring.kafka.ssl.key-store-certificate-chain", clientCert);
+            properties.put("spring.kafka.ssl.key-store-key", clientKey);
+        }
+        if (StringUtils.hasText(caCert)) {
+            properties.put("spring.kafka.ssl.trust-store-type", "PEM");
+            properties.put("spring.kafka.ssl.trust-store-certificates", caCert);
+        }
+    }
+
+    /**
+     * Maps TLS material to key and trust stores for the RabbitMQ client, which has no SSL bundle or PEM properties in
+     * Spring Boot 3.1.
+     */
+    private static void mapRabbitMq(KeyStoreFiles keyStoreFiles, @Nullable String clientCert, @Nullable String clientKey,
+                                    @Nullable String caCert, Map<String, Object> properties) {
+        String password = keyStoreFiles.generatePassword(
+                clientCert != null ? clientCert : "", clientKey != null ? clientKey : "", caCert != null ? caCert : "");
+        if (StringUtils.hasText(clientKey)) {
+            properties.put("spring.rabbitmq.ssl.key-store",
+                    keyStoreFiles.createKeyStoreLocation("rabbitmq-keystore", password, clientCert, clientKey, "rabbitmq"));
+            properties.put("spring.rabbitmq.ssl.key-store-type", PemSslStoreHelper.PKCS12_STORY_TYPE);
+            properties.put("spring.rabbitmq.ssl.key-store-password", password);
+        }
+        if (StringUtils.hasText(caCert)) {
+            properties.put("spring.rabbitmq.ssl.trust-store",
+                    keyStoreFiles.createKeyStoreLocation("rabbitmq-truststore", password, caCert, null, "ca"));
+            properties.put("spring.rabbitmq.ssl.trust-store-type", PemSslStoreHelper.PKCS12_STORY_TYPE);
+            properties.put("spring.rabbitmq.ssl.trust-store-password", password);
+        }
+    }
+
+    static String getBundleName(String name) {
+        return BUNDLE_NAME_INVALID.matcher(name.toLowerCase(Locale.ROOT)).replaceAll("-");
+    }
+
+}
@@ -0,0 +1,265 @@
+/*
+ * Copyright 2012-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bindings.boot.pem;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.KeyStore;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A directory of PKCS12 stores named by a digest of the PEM content, alias and password they were created from, so
+ * that a store is only written once and reused by later starts of the application. Stores are written to a temporary
+ * file and atomically moved into place, and stores that have not been used for longer than a maximum age are deleted
+ * when the cache is first used, at most once per cleanup interval.
+ */
+public final class KeyStoreFileCache {
+
+	private static final String EXTENSION = ".p12";
+
+	private static final String CLEANUP_MARKER = ".last-cleanup";
+
+	private static final Set<Path> CLEANED = ConcurrentHashMap.newKeySet();
+
+	private final Path directory;
+
+	private final Duration maxAge;
+
+	private final Duration cleanupInterval;
+
+	/**
+	 * Create a new {@link KeyStoreFileCache} instance.
+	 * @param directory the directory to store key and trust stores in
+	 * @param maxAge how long a store may go unused before it is deleted
+	 * @param cleanupInterval how often stale stores are looked for
+	 */
+	public KeyStoreFileCache(Path directory, Duration maxAge, Duration cleanupInterval) {
+		this.directory = directory.toAbsolutePath().normalize();
+		this.maxAge = maxAge;
+		this.cleanupInterval = cleanupInterval;
+	}
+
+	/**
+	 * Generates a password for stores created from the specified PEM content. Unlike
+	 * {@link PemSslStoreHelper#generatePassword()} the password is the same every time it is generated from the same
+	 * content, so that stores written by an earlier start can be opened again.
+	 * @param contents the PEM content, or locations of the PEM content, the stores are created from
+	 * @return the password
+	 */
+	public String generatePassword(String... contents) {
+		String[] loaded = new String[contents.length];
+		for (int i = 0; i < contents.length; i++) {
+			loaded[i] = PemContent.load(contents[i]);
+		}
+		byte[] digest = digest("password", loaded);
+		StringBuilder password = new StringBuilder(20);
+		for (int i = 0; i < 20; i++) {
+			password.append((char) ('a' + Byte.toUnsignedInt(digest[i]) % 26));
+		}
+		return password.toString();
+	}
+
+	/**
+	 * Returns a KeyStore file for the specified certificate and private key, creating it if it does not already
+	 * exist in the cache.
+	 * @param name the store file name prefix
+	 * @param password the store password
+	 * @param certificate the certificate to add to the store
+	 * @param privateKey the private key to add to the store
+	 * @param keyAlias the alias
+	 * @return the path of the store file
+	 * @see PemSslStoreHelper#createKeyStoreFile(String, String, String, String, String)
+	 */
+	public Path createKeyStoreFile(String name, String password, String certificate, String privateKey,
+			String keyAlias) {
+		Path path = getKeyStoreFile(name, password, certificate, privateKey, keyAlias);
+		if (!reuse(path)) {
+			writeKeyStore(PemSslStoreHelper.createKeyStore(certificate, privateKey, keyAlias), path, password, name);
+		}
+		return path;
+	}
+
+	/**
+	 * Returns the path in the cache of a KeyStore file for the specified certificate and private key. The file may not
+	 * exist yet.
+	 * @param name the store file name prefix
+	 * @param password the store password
+	 * @param certificate the certificate to add to the store
+	 * @param privateKey the private key to add to the store
+	 * @param keyAlias the alias
+	 * @return the path of the store file
+	 */
+	public Path getKeyStoreFile(String name, String password, String certificate, String privateKey,
+			String keyAlias) {
+		return getKeyStoreFile(name, password, certificate, privateKey, keyAlias, null);
+	}
+
+	/**
+	 * Returns the path in the cache of a KeyStore file for the specified certificate and private key, protected as
+	 * described by {@code keyProtection}. The file may not exist yet.
+	 * @param name the store file name prefix
+	 * @param password the store password
+	 * @param certificate the certificate to add to the store
+	 * @param privateKey the private key to add to the store
+	 * @param keyAlias the alias
+	 * @param keyProtection a description of how the private key is protected, such as its algorithm and iteration
+	 * count, or {@code null} for the default protection
+	 * @return the path of the store file
+	 */
+	public Path getKeyStoreFile(String name, String password, String certificate, String privateKey,
+			String keyAlias, String keyProtection) {
+		cleanUpIfDue();
+		String[] parts = (keyProtection != null)
+				? new String[] { name, keyAlias, password, PemContent.load(certificate), PemContent.load(privateKey),
+						keyProtection }
+				: new String[] { name, keyAlias, password, PemContent.load(certificate), PemContent.load(privateKey) };
+		return this.directory.resolve(name + "-" + HexFormat.of().formatHex(digest("store", parts)) + EXTENSION);
+	}
+
+	/**
+	 * Marks a KeyStore file in the cache as used, if it exists.
+	 * @param path the path of the store file
+	 * @return whether the store file exists and can be reused
+	 */
+	public boolean reuse(Path path) {
+		try {
+			if (!Files.isRegularFile(path)) {
+				return false;
+			}
+			Files.setLastModifiedTime(path, FileTime.from(Instant.now()));
+			return true;
+		}
+		catch (NoSuchFileException ex) {
+			// Removed by a concurrent clean up
+			return false;
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Unable to use " + path, ex);
+		}
+	}
+
+	/**
+	 * Atomically saves a KeyStore to a file in the cache.
+	 * @param store the store to save
+	 * @param path the path of the store file
+	 * @param password the store password
+	 * @param name the store name, for error messages
+	 * @see #getKeyStoreFile(String, String, String, String, String)
+	 */
+	public void writeKeyStore(KeyStore store, Path path, String password, String name) {
+		try {
+			Path temp = Files.createTempFile(this.directory, name, ".tmp");
+			try {
+				PemSslStoreHelper.writeKeyStore(store, temp, password, name);
+				move(temp, path);
+			}
+			finally {
+				Files.deleteIfExists(temp);
+			}
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Unable to create " + name, ex);
+		}
+	}
+
+	/**
+	 * Deletes the stores in the cache that have not been used for longer than the maximum age.
+	 */
+	public void cleanUp() {
+		Instant cutoff = Instant.now().minus(this.maxAge);
+		try (DirectoryStream<Path> stores = Files.newDirectoryStream(this.directory, "*" + EXTENSION)) {
+			for (Path store : stores) {
+				try {
+					if (Files.getLastModifiedTime(store).toInstant().isBefore(cutoff)) {
+						Files.deleteIfExists(store);
+					}
+				}
+				catch (NoSuchFileException ex) {
+					// Removed by another process
+				}
+			}
+			Path marker = this.directory.resolve(CLEANUP_MARKER);
+			if (!Files.exists(marker)) {
+				Files.createFile(marker);
+			}
+			Files.setLastModifiedTime(marker, FileTime.from(Instant.now()));
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException("Unable to clean up " + this.directory, ex);
+		}
+	}
+
+	private void cleanUpIfDue() {
+		try {
+			Files.createDirectories(this.directory);
+			if (!CLEANED.add(this.directory)) {
+				return;
+			}
+			Path marker = this.directory.resolve(CLEANUP_MARKER);
+			if (!Files.exists(marker) || Files.getLastModifiedTime(marker)
+				.toInstant()
+				.isBefore(Instant.now().minus(this.cleanupInterval))) {
+				cleanUp();
+			}
+		}
+		catch (IOException | UncheckedIOException ex) {
+			throw new IllegalStateException("Unable to use key store cache " + this.directory, ex);
+		}
+	}
+
+	private static void move(Path source, Path target) throws IOException {
+		try {
+			Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		}
+		catch (AtomicMoveNotSupportedException ex) {
+			Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	private static byte[] digest(String purpose, String... parts) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			digest.update(purpose.getBytes(StandardCharsets.UTF_8));
+			for (String part : parts) {
+				// Separate the parts so that moving content from one to the next changes the digest
+				digest.update((byte) 0);
+				if (part != null) {
+					digest.update(part.getBytes(StandardCharsets.UTF_8));
+				}
+			}
+			return digest.digest();
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException("Cryptographic algorithm not available", ex);
+		}
+	}
+
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2012-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bindings.boot.pem;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivateKey;
+import java.security.cert.X509Certificate;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache of parsed certificates and private keys, keyed by a SHA-256 digest of their PEM content, so that the same
+ * material bound to several bindings (typically a platform CA in {@code ca.crt}) is only parsed once.  Content is
+ * parsed outside of any lock, by the first thread that asks for it, and other threads asking for the same content
+ * wait for that result.  Both caches keep only the most recently used entries, and private keys are dropped once each
+ * application context has been refreshed, and after each deferred store is created, so that they, and rotated
+ * material, are not held for the life of the JVM.
+ */
+final class PemCache {
+
+	static final int MAX_CERTIFICATES = 256;
+
+	static final int MAX_PRIVATE_KEYS = 64;
+
+	private static final LeastRecentlyUsed<X509Certificate[]> CERTIFICATES = new LeastRecentlyUsed<>(MAX_CERTIFICATES);
+
+	private static final LeastRecentlyUsed<PrivateKey> PRIVATE_KEYS = new LeastRecentlyUsed<>(MAX_PRIVATE_KEYS);
+
+	private PemCache() {
+	}
+
+	/**
+	 * Returns the certificates parsed from the specified PEM content.
+	 * @param content the PEM content
+	 * @return the parsed certificates or {@code null} if the content contains none
+	 * @see PemCertificateParser#parse(String)
+	 */
+	static X509Certificate[] getCertificates(String content) {
+		if (content == null) {
+			return null;
+		}
+		X509Certificate[] certificates = CERTIFICATES.get(digest(content), () -> PemCertificateParser.parse(content));
+		return (certificates != null) ? certificates.clone() : null;
+	}
+
+	/**
+	 * Returns the private key parsed from the specified PEM content.
+	 * @param content the PEM content
+	 * @return the parsed private key
+	 * @see PemPrivateKeyParser#parse(String)
+	 */
+	static PrivateKey getPrivateKey(String content) {
+		if (content == null) {
+			return null;
+		}
+		return PRIVATE_KEYS.get(digest(content), () -> PemPrivateKeyParser.parse(content));
+	}
+
+	static int getCertificateCount() {
+		return CERTIFICATES.size();
+	}
+
+	static int getPrivateKeyCount() {
+		return PRIVATE_KEYS.size();
+	}
+
+	static void clearPrivateKeys() {
+		PRIVATE_KEYS.clear();
+	}
+
+	static void clear() {
+		CERTIFICATES.clear();
+		PRIVATE_KEYS.clear();
+	}
+
+	private static String digest(String content) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			return HexFormat.of().formatHex(digest.digest(content.getBytes(StandardCharsets.UTF_8)));
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException("Cryptographic algorithm not available", ex);
+		}
+	}
+
+	/**
+	 * A cache that keeps its most recently used entries.  The map only holds the pending or completed parse of each
+	 * entry, so that parsing does not block threads that use other entries.
+	 */
+	private static final class LeastRecentlyUsed<V> {
+
+		private final int maxEntries;
+
+		private final Map<String, Entry<V>> entries = new ConcurrentHashMap<>();
+
+		private final AtomicLong clock = new AtomicLong();
+
+		private LeastRecentlyUsed(int maxEntries) {
+			this.maxEntries = maxEntries;
+		}
+
+		V get(String key, Supplier<V> parser) {
+			Entry<V> entry = this.entries.get(key);
+			if (entry == null) {
+				Entry<V> created = new Entry<>(new FutureTask<>(parser::get));
+				entry = this.entries.putIfAbsent(key, created);
+				if (entry == null) {
+					entry = created;
+					created.value.run();
+					trim();
+				}
+			}
+			entry.lastUsed = this.clock.incrementAndGet();
+
+			try {
+				return entry.value.get();
+			}
+			catch (ExecutionException ex) {
+				// failures are not cached, so that the next caller parses the content again
+				this.entries.remove(key, entry);
+				if (ex.getCause() instanceof RuntimeException runtimeException) {
+					throw runtimeException;
+				}
+				if (ex.getCause() instanceof Error error) {
+					throw error;
+				}
+				throw new IllegalStateException(ex.getCause());
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while waiting for PEM content to be parsed", ex);
+			}
+		}
+
+		/**
+		 * Removes the least recently used entries while there are more than the maximum.
+		 */
+		private void trim() {
+			while (this.entries.size() > this.maxEntries) {
+				Map.Entry<String, Entry<V>> eldest = null;
+				for (Map.Entry<String, Entry<V>> e : this.entries.entrySet()) {
+					if (eldest == null || e.getValue().lastUsed < eldest.getValue().lastUsed) {
+						eldest = e;
+					}
+				}
+				if (eldest == null) {
+					return;
+				}
+				this.entries.remove(eldest.getKey(), eldest.getValue());
+			}
+		}
+
+		int size() {
+			return this.entries.size();
+		}
+
+		void clear() {
+			this.entries.clear();
+		}
+
+	}
+
+	private static final class Entry<V> {
+
+		private final FutureTask<V> value;
+
+		private volatile long lastUsed;
+
+		private Entry(FutureTask<V> value) {
+			this.value = value;
+		}
+
+	}
+
+}
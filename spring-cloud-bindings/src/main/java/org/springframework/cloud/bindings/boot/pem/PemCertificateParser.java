@@ -21,11 +21,8 @@ import java.security.cert.CertificateException;
 import java.security.cert.CertificateFactory;
 import java.security.cert.X509Certificate;
 import java.util.ArrayList;
-import java.util.Base64;
 import java.util.List;
-import java.util.function.Consumer;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.stream.IntStream;
 
 /**
  * Parser for X.509 certificates in PEM format.
@@ -35,13 +32,13 @@ import java.util.regex.Pattern;
  */
 final class PemCertificateParser {
 
-	private static final String HEADER = "-+BEGIN\\s+.*CERTIFICATE[^-]*-+(?:\\s|\\r|\\n)+";
-
-	private static final String BASE64_TEXT = "([a-z0-9+/=\\r\\n]+)";
-
-	private static final String FOOTER = "-+END\\s+.*CERTIFICATE[^-]*-+";
+	/**
+	 * The number of certificates above which a bundle is decoded in parallel.
+	 */
+	private static final int PARALLEL_THRESHOLD = 64;
 
-	private static final Pattern PATTERN = Pattern.compile(HEADER + BASE64_TEXT + FOOTER, Pattern.CASE_INSENSITIVE);
+	private static final ThreadLocal<CertificateFactory> CERTIFICATE_FACTORY = ThreadLocal
+		.withInitial(PemCertificateParser::getCertificateFactory);
 
 	private PemCertificateParser() {
 	}
@@ -55,10 +52,12 @@ final class PemCertificateParser {
 		if (certificates == null) {
 			return null;
 		}
-		CertificateFactory factory = getCertificateFactory();
-		List<X509Certificate> certs = new ArrayList<>();
-		readCertificates(certificates, factory, certs::add);
-		return (!certs.isEmpty()) ? certs.stream().toArray(X509Certificate[]::new) : null;
+		List<PemScanner.Block> blocks = PemScanner.scan(certificates).stream()
+				.filter((block) -> block.getLabel().contains("CERTIFICATE"))
+				.toList();
+		List<X509Certificate> certs = (blocks.size() > PARALLEL_THRESHOLD) ? readCertificatesInParallel(blocks)
+				: readCertificates(blocks);
+		return (!certs.isEmpty()) ? certs.toArray(X509Certificate[]::new) : null;
 	}
 
 	private static CertificateFactory getCertificateFactory() {
@@ -70,26 +69,33 @@ final class PemCertificateParser {
 		}
 	}
 
-	private static void readCertificates(String text, CertificateFactory factory, Consumer<X509Certificate> consumer) {
+	private static List<X509Certificate> readCertificatesInParallel(List<PemScanner.Block> blocks) {
+		// CertificateFactory is not thread-safe, so each thread decodes with its own
+		int chunks = Math.min(Runtime.getRuntime().availableProcessors(), blocks.size() / PARALLEL_THRESHOLD * 2);
+		int chunkSize = (blocks.size() + chunks - 1) / chunks;
+		return IntStream.range(0, chunks)
+				.parallel()
+				.mapToObj((chunk) -> readCertificates(blocks.subList(Math.min(blocks.size(), chunk * chunkSize),
+						Math.min(blocks.size(), (chunk + 1) * chunkSize))))
+				.flatMap(List::stream)
+				.toList();
+	}
+
+	private static List<X509Certificate> readCertificates(List<PemScanner.Block> blocks) {
+		CertificateFactory factory = CERTIFICATE_FACTORY.get();
+		List<X509Certificate> certs = new ArrayList<>(blocks.size());
 		try {
-			Matcher matcher = PATTERN.matcher(text);
-			while (matcher.find()) {
-				String encodedText = matcher.group(1);
-				byte[] decodedBytes = decodeBase64(encodedText);
-				ByteArrayInputStream inputStream = new ByteArrayInputStream(decodedBytes);
+			for (PemScanner.Block block : blocks) {
+				ByteArrayInputStream inputStream = new ByteArrayInputStream(block.decode());
 				while (inputStream.available() > 0) {
-					consumer.accept((X509Certificate) factory.generateCertificate(inputStream));
+					certs.add((X509Certificate) factory.generateCertificate(inputStream));
 				}
 			}
 		}
 		catch (CertificateException ex) {
 			throw new IllegalStateException("Error reading certificate: " + ex.getMessage(), ex);
 		}
-	}
-
-	private static byte[] decodeBase64(String content) {
-		byte[] bytes = content.replaceAll("\r", "").replaceAll("\n", "").getBytes();
-		return Base64.getDecoder().decode(bytes);
+		return certs;
 	}
 
 }
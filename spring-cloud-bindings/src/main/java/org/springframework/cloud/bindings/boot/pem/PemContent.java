@@ -21,7 +21,6 @@ import java.io.InputStreamReader;
 import java.io.Reader;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
-import java.util.regex.Pattern;
 
 import org.springframework.util.FileCopyUtils;
 import org.springframework.util.ResourceUtils;
@@ -34,10 +33,6 @@ import org.springframework.util.ResourceUtils;
  */
 final class PemContent {
 
-	private static final Pattern PEM_HEADER = Pattern.compile("-+BEGIN\\s+[^-]*-+", Pattern.CASE_INSENSITIVE);
-
-	private static final Pattern PEM_FOOTER = Pattern.compile("-+END\\s+[^-]*-+", Pattern.CASE_INSENSITIVE);
-
 	private PemContent() {
 	}
 
@@ -58,7 +53,7 @@ final class PemContent {
 	}
 
 	private static boolean isPemContent(String content) {
-		return content != null && PEM_HEADER.matcher(content).find() && PEM_FOOTER.matcher(content).find();
+		return content != null && PemScanner.isPemContent(content);
 	}
 
 }
@@ -20,15 +20,13 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.security.GeneralSecurityException;
 import java.security.KeyFactory;
+import java.security.NoSuchAlgorithmException;
 import java.security.PrivateKey;
 import java.security.spec.PKCS8EncodedKeySpec;
 import java.util.ArrayList;
-import java.util.Base64;
 import java.util.Collections;
 import java.util.List;
 import java.util.function.Function;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Parser for PKCS private key files in PEM format.
@@ -38,26 +36,12 @@ import java.util.regex.Pattern;
  */
 final class PemPrivateKeyParser {
 
-	private static final String PKCS1_HEADER = "-+BEGIN\\s+RSA\\s+PRIVATE\\s+KEY[^-]*-+(?:\\s|\\r|\\n)+";
-
-	private static final String PKCS1_FOOTER = "-+END\\s+RSA\\s+PRIVATE\\s+KEY[^-]*-+";
-
-	private static final String PKCS8_HEADER = "-+BEGIN\\s+PRIVATE\\s+KEY[^-]*-+(?:\\s|\\r|\\n)+";
-
-	private static final String PKCS8_FOOTER = "-+END\\s+PRIVATE\\s+KEY[^-]*-+";
-
-	private static final String EC_HEADER = "-+BEGIN\\s+EC\\s+PRIVATE\\s+KEY[^-]*-+(?:\\s|\\r|\\n)+";
-
-	private static final String EC_FOOTER = "-+END\\s+EC\\s+PRIVATE\\s+KEY[^-]*-+";
-
-	private static final String BASE64_TEXT = "([a-z0-9+/=\\r\\n]+)";
-
 	private static final List<PemParser> PEM_PARSERS;
 	static {
 		List<PemParser> parsers = new ArrayList<>();
-		parsers.add(new PemParser(PKCS1_HEADER, PKCS1_FOOTER, "RSA", PemPrivateKeyParser::createKeySpecForPkcs1));
-		parsers.add(new PemParser(EC_HEADER, EC_FOOTER, "EC", PemPrivateKeyParser::createKeySpecForEc));
-		parsers.add(new PemParser(PKCS8_HEADER, PKCS8_FOOTER, "RSA", PKCS8EncodedKeySpec::new));
+		parsers.add(new PemParser("RSA PRIVATE KEY", "RSA", PemPrivateKeyParser::createKeySpecForPkcs1));
+		parsers.add(new PemParser("EC PRIVATE KEY", "EC", PemPrivateKeyParser::createKeySpecForEc));
+		parsers.add(new PemParser("PRIVATE KEY", "RSA", PKCS8EncodedKeySpec::new));
 		PEM_PARSERS = Collections.unmodifiableList(parsers);
 	}
 
@@ -114,8 +98,9 @@ final class PemPrivateKeyParser {
 			return null;
 		}
 		try {
+			List<PemScanner.Block> blocks = PemScanner.scan(key);
 			for (PemParser pemParser : PEM_PARSERS) {
-				PrivateKey privateKey = pemParser.parse(key);
+				PrivateKey privateKey = pemParser.parse(blocks);
 				if (privateKey != null) {
 					return privateKey;
 				}
@@ -132,40 +117,49 @@ final class PemPrivateKeyParser {
 	 */
 	private static class PemParser {
 
-		private final Pattern pattern;
+		private final String label;
 
 		private final String algorithm;
 
 		private final Function<byte[], PKCS8EncodedKeySpec> keySpecFactory;
 
-		PemParser(String header, String footer, String algorithm,
-				Function<byte[], PKCS8EncodedKeySpec> keySpecFactory) {
-			this.pattern = Pattern.compile(header + BASE64_TEXT + footer, Pattern.CASE_INSENSITIVE);
+		private final ThreadLocal<KeyFactory> keyFactory;
+
+		PemParser(String label, String algorithm, Function<byte[], PKCS8EncodedKeySpec> keySpecFactory) {
+			this.label = label;
 			this.algorithm = algorithm;
 			this.keySpecFactory = keySpecFactory;
+			this.keyFactory = ThreadLocal.withInitial(this::getKeyFactory);
 		}
 
-		PrivateKey parse(String text) {
-			Matcher matcher = this.pattern.matcher(text);
-			return (!matcher.find()) ? null : parse(decodeBase64(matcher.group(1)));
-		}
-
-		private static byte[] decodeBase64(String content) {
-			byte[] contentBytes = content.replaceAll("\r", "").replaceAll("\n", "").getBytes();
-			return Base64.getDecoder().decode(contentBytes);
+		PrivateKey parse(List<PemScanner.Block> blocks) {
+			for (PemScanner.Block block : blocks) {
+				if (this.label.equals(block.getLabel())) {
+					return parse(block.decode());
+				}
+			}
+			return null;
 		}
 
 		private PrivateKey parse(byte[] bytes) {
 			try {
 				PKCS8EncodedKeySpec keySpec = this.keySpecFactory.apply(bytes);
-				KeyFactory keyFactory = KeyFactory.getInstance(this.algorithm);
-				return keyFactory.generatePrivate(keySpec);
+				return this.keyFactory.get().generatePrivate(keySpec);
 			}
 			catch (GeneralSecurityException ex) {
 				throw new IllegalArgumentException("Unexpected key format", ex);
 			}
 		}
 
+		private KeyFactory getKeyFactory() {
+			try {
+				return KeyFactory.getInstance(this.algorithm);
+			}
+			catch (NoSuchAlgorithmException ex) {
+				throw new IllegalStateException("Unable to get " + this.algorithm + " key factory", ex);
+			}
+		}
+
 	}
 
 	/**
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2012-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bindings.boot.pem;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Single-pass tokenizer for PEM encoded text.  Finds each {@code -----BEGIN label-----} ...
+ * {@code -----END label-----} block without regular expressions, and decodes the Base64 body of a block directly
+ * from the source text.
+ */
+final class PemScanner {
+
+	private static final String BEGIN = "BEGIN";
+
+	private static final String END = "END";
+
+	private PemScanner() {
+	}
+
+	/**
+	 * Returns whether the specified text contains a PEM header and footer.
+	 * @param text the text to check
+	 * @return {@code true} if the text looks like PEM content
+	 */
+	static boolean isPemContent(String text) {
+		int begin = indexOfMarker(text, BEGIN, 0);
+		return begin >= 0 && indexOfMarker(text, END, begin) >= 0;
+	}
+
+	/**
+	 * Scans the specified text for PEM blocks.
+	 * @param text the text to scan
+	 * @return the blocks, in the order they appear in the text
+	 */
+	static List<Block> scan(String text) {
+		List<Block> blocks = new ArrayList<>();
+		int position = 0;
+		while (true) {
+			int begin = indexOfMarker(text, BEGIN, position);
+			if (begin < 0) {
+				break;
+			}
+			int labelEnd = text.indexOf('-', begin + BEGIN.length());
+			if (labelEnd < 0) {
+				break;
+			}
+			int bodyStart = skipDashes(text, labelEnd);
+			int end = indexOfMarker(text, END, bodyStart);
+			if (end < 0) {
+				break;
+			}
+			int bodyEnd = end - 1;
+			while (bodyEnd > bodyStart && text.charAt(bodyEnd - 1) == '-') {
+				bodyEnd--;
+			}
+			blocks.add(new Block(normalizeLabel(text, begin + BEGIN.length(), labelEnd), text, bodyStart, bodyEnd));
+
+			// Do not skip the footer's dashes, they may run straight into the next header
+			position = text.indexOf('-', end + END.length());
+			if (position < 0) {
+				break;
+			}
+		}
+		return blocks;
+	}
+
+	/**
+	 * Returns the index of {@code marker} where it is preceded by a dash and followed by whitespace.
+	 */
+	private static int indexOfMarker(String text, String marker, int from) {
+		int i = text.indexOf('-', from);
+		while (i >= 0 && i + 1 + marker.length() < text.length()) {
+			int candidate = i + 1;
+			if (text.regionMatches(true, candidate, marker, 0, marker.length())
+					&& Character.isWhitespace(text.charAt(candidate + marker.length()))) {
+				return candidate;
+			}
+			i = text.indexOf('-', candidate);
+		}
+		return -1;
+	}
+
+	private static int skipDashes(String text, int index) {
+		while (index < text.length() && text.charAt(index) == '-') {
+			index++;
+		}
+		return index;
+	}
+
+	private static String normalizeLabel(String text, int start, int end) {
+		StringBuilder label = new StringBuilder(end - start);
+		boolean whitespace = false;
+		for (int i = start; i < end; i++) {
+			char c = text.charAt(i);
+			if (Character.isWhitespace(c)) {
+				whitespace = label.length() > 0;
+				continue;
+			}
+			if (whitespace) {
+				label.append(' ');
+				whitespace = false;
+			}
+			label.append(Character.toUpperCase(c));
+		}
+		return label.toString();
+	}
+
+	/**
+	 * A PEM block found by {@link PemScanner#scan(String)}.
+	 */
+	static final class Block {
+
+		private final String label;
+
+		private final String text;
+
+		private final int start;
+
+		private final int end;
+
+		private Block(String label, String text, int start, int end) {
+			this.label = label;
+			this.text = text;
+			this.start = start;
+			this.end = end;
+		}
+
+		/**
+		 * Returns the label of the block, upper-cased and with whitespace collapsed, for example {@code PRIVATE KEY}.
+		 * @return the label of the block
+		 */
+		String getLabel() {
+			return this.label;
+		}
+
+		/**
+		 * Decodes the Base64 body of the block.  Line breaks are skipped by the MIME decoder rather than stripped
+		 * from a copy of the text.
+		 * @return the DER bytes of the block
+		 */
+		byte[] decode() {
+			byte[] encoded = new byte[this.end - this.start];
+			for (int i = 0; i < encoded.length; i++) {
+				char c = this.text.charAt(this.start + i);
+				// Anything outside of ASCII is not Base64 and must not alias a Base64 character when truncated
+				encoded[i] = (c < 0x80) ? (byte) c : (byte) ' ';
+			}
+			return Base64.getMimeDecoder().decode(encoded);
+		}
+
+	}
+
+}
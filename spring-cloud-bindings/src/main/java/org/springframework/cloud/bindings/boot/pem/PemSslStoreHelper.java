@@ -49,15 +49,59 @@ public class PemSslStoreHelper {
 	 */
 	public static Path createKeyStoreFile(String name, String password, String certificate, String privateKey, String keyAlias) {
 		KeyStore store = createKeyStore(certificate, privateKey, keyAlias);
+		Path path = createTempKeyStoreFile(name);
+		writeKeyStore(store, path, password, name);
+		return path;
+	}
 
-		Path path;
-        try {
-			path = Files.createTempFile(Paths.get(System.getProperty("java.io.tmpdir")), name, ".p12");
-        } catch (IOException e) {
+	/**
+	 * Utility method to create an empty file for a KeyStore in the tmp directory with given name.
+	 * @param name the store file name
+	 * @return the path of the file
+	 */
+	public static Path createTempKeyStoreFile(String name) {
+		try {
+			return Files.createTempFile(Paths.get(System.getProperty("java.io.tmpdir")), name, ".p12");
+		} catch (IOException e) {
 			throw new IllegalStateException("Unable to create " + name, e);
-        }
+		}
+	}
+
+	/**
+	 * Utility method to create a KeyStore in memory.
+	 * @param certificate the certificate to add to the store
+	 * @param privateKey the private key to add to the store
+	 * @param keyAlias the alias
+	 * @param keyProtection how to protect the private key, or {@code null} for the default protection
+	 * @return the store
+	 */
+	public static KeyStore createKeyStore(String certificate, String privateKey, String keyAlias,
+			KeyStore.ProtectionParameter keyProtection) {
+		try {
+			Assert.notNull(certificate, "CertificateContent must not be null");
+			KeyStore store = KeyStore.getInstance(PKCS12_STORY_TYPE);
+			store.load(null);
+			String certificateContent = PemContent.load(certificate);
+			String privateKeyContent = PemContent.load(privateKey);
+			X509Certificate[] certificates = PemCache.getCertificates(certificateContent);
+			PrivateKey pk = PemCache.getPrivateKey(privateKeyContent);
+			addCertificates(store, certificates, pk, keyAlias, keyProtection);
+			return store;
+		}
+		catch (Exception ex) {
+			throw new IllegalStateException(String.format("Unable to create key/trust store: %s", ex.getMessage()), ex);
+		}
+	}
 
-        try (FileOutputStream fos = new FileOutputStream(path.toString())) {
+	/**
+	 * Utility method to save a KeyStore to a file.
+	 * @param store the store to save
+	 * @param path the file to save the store to
+	 * @param password the store password
+	 * @param name the store name, for error messages
+	 */
+	public static void writeKeyStore(KeyStore store, Path path, String password, String name) {
+		try (FileOutputStream fos = new FileOutputStream(path.toString())) {
 			store.store(fos, password.toCharArray());
 		} catch (KeyStoreException e) {
 			throw new IllegalStateException("Unable to write " + name, e);
@@ -68,7 +112,35 @@ public class PemSslStoreHelper {
 		} catch (IOException e) {
 			throw new IllegalStateException("Unable to create " + name, e);
 		}
-		return path;
+	}
+
+	/**
+	 * Utility method to check that PEM-encoded content can be used to create a KeyStore, without creating one.
+	 * @param certificate the certificate to check
+	 * @param privateKey the private key to check
+	 * @throws IllegalStateException if the content cannot be parsed
+	 */
+	public static void validateKeyStoreContent(String certificate, String privateKey) {
+		createKeyStore(certificate, privateKey, null);
+	}
+
+	/**
+	 * Utility method to read the certificates in PEM-encoded content.  Content that has already been read, by this
+	 * method or when creating a KeyStore, is not parsed again.
+	 * @param certificate the certificate content to read
+	 * @return the certificates, or {@code null} if the content contains none
+	 * @throws IllegalStateException if the content cannot be parsed
+	 */
+	public static X509Certificate[] readCertificates(String certificate) {
+		return PemCache.getCertificates(PemContent.load(certificate));
+	}
+
+	/**
+	 * Utility method to drop the private keys that have been read when creating KeyStores, so that they are not kept
+	 * once the stores that need them have been created.  Certificates stay cached.
+	 */
+	public static void clearPrivateKeyCache() {
+		PemCache.clearPrivateKeys();
 	}
 
 	/**
@@ -82,27 +154,17 @@ public class PemSslStoreHelper {
 				.toString();
 	}
 
-	private static KeyStore createKeyStore(String certificate, String privateKey, String keyAlias) {
-		try {
-			Assert.notNull(certificate, "CertificateContent must not be null");
-			KeyStore store = KeyStore.getInstance(PKCS12_STORY_TYPE);
-			store.load(null);
-			String certificateContent = PemContent.load(certificate);
-			String privateKeyContent = PemContent.load(privateKey);
-			X509Certificate[] certificates = PemCertificateParser.parse(certificateContent);
-			PrivateKey pk = PemPrivateKeyParser.parse(privateKeyContent);
-			addCertificates(store, certificates, pk, keyAlias);
-			return store;
-		}
-		catch (Exception ex) {
-			throw new IllegalStateException(String.format("Unable to create key/trust store: %s", ex.getMessage()), ex);
-		}
+	static KeyStore createKeyStore(String certificate, String privateKey, String keyAlias) {
+		return createKeyStore(certificate, privateKey, keyAlias, null);
 	}
 
-	private static void addCertificates(KeyStore keyStore, X509Certificate[] certificates, PrivateKey privateKey, String keyAlias)
-			throws KeyStoreException {
+	private static void addCertificates(KeyStore keyStore, X509Certificate[] certificates, PrivateKey privateKey, String keyAlias,
+			KeyStore.ProtectionParameter keyProtection) throws KeyStoreException {
 		String alias = (keyAlias != null) ? keyAlias : DEFAULT_KEY_ALIAS;
-		if (privateKey != null) {
+		if (privateKey != null && keyProtection != null) {
+			keyStore.setEntry(alias, new KeyStore.PrivateKeyEntry(privateKey, certificates), keyProtection);
+		}
+		else if (privateKey != null) {
 			keyStore.setKeyEntry(alias, privateKey, null, certificates);
 		}
 		else {
@@ -26,7 +26,9 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.entry;
 
 @DisplayName("Binding")
 final class BindingTest {
@@ -39,6 +41,28 @@ final class BindingTest {
         assertThatIllegalArgumentException().isThrownBy(() -> new Binding(path));
     }
 
+    @Test
+    @DisplayName("exposes an immutable secret")
+    void testSecret() {
+        Binding binding = new Binding("test-name", Paths.get("test-path"),
+                new FluentMap()
+                        .withEntry(Binding.TYPE, "test-type")
+                        .withEntry(Binding.PROVIDER, "test-provider")
+                        .withEntry("test-key-2", "test-value-2")
+                        .withEntry("test-key-1", "test-value-1")
+        );
+
+        assertThat(binding.getSecret())
+                .isSameAs(binding.getSecret())
+                .containsExactly(entry("test-key-1", "test-value-1"), entry("test-key-2", "test-value-2"))
+                .isEqualTo(new FluentMap()
+                        .withEntry("test-key-1", "test-value-1")
+                        .withEntry("test-key-2", "test-value-2"));
+        assertThat(binding.getSecret().get("test-key-3")).isNull();
+        assertThatExceptionOfType(UnsupportedOperationException.class)
+                .isThrownBy(() -> binding.getSecret().put("test-key-3", "test-value-3"));
+    }
+
     @Nested
     @DisplayName("CNB Bindings")
     final class CNBBindings {
@@ -159,6 +159,16 @@ final class BindingsTest {
                 assertThat(b.getBindings()).hasSize(3);
             }
 
+            @Test
+            @DisplayName("shares identical secret values between bindings")
+            void deduplicates() {
+                Bindings b = new Bindings(root.toString());
+
+                String value1 = b.findBinding("test-name-1").getSecret().get("test-secret-key");
+                String value2 = b.findBinding("test-name-2").getSecret().get("test-secret-key");
+                assertThat(value1).isEqualTo("test-secret-value").isSameAs(value2);
+            }
+
         }
 
         @Nested
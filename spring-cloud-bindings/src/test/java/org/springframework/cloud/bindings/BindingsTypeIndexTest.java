@@ -0,0 +1,58 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.bindings;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Paths;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Bindings Type Index")
+final class BindingsTypeIndexTest {
+
+    private final Binding binding1 = new Binding("test-name-1", Paths.get("test-path"),
+            new FluentMap().withEntry(Binding.TYPE, "test-type-1"));
+
+    private final Binding binding2 = new Binding("test-name-2", Paths.get("test-path"),
+            new FluentMap().withEntry(Binding.TYPE, "Test-Type-2"));
+
+    private final Binding binding3 = new Binding("test-name-3", Paths.get("test-path"),
+            new FluentMap().withEntry(Binding.TYPE, "test-type-2"));
+
+    private final BindingsTypeIndex index = new BindingsTypeIndex(new Bindings(binding1, binding2, binding3));
+
+    @Test
+    @DisplayName("returns bindings by type")
+    void get() {
+        assertThat(index.get("test-type-1")).containsExactly(binding1);
+        assertThat(index.get("TEST-TYPE-2")).containsExactly(binding2, binding3);
+    }
+
+    @Test
+    @DisplayName("returns empty list for unknown type")
+    void unknownType() {
+        assertThat(index.get("test-type-3")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("returns types")
+    void getTypes() {
+        assertThat(index.getTypes()).containsExactly("test-type-1", "test-type-2");
+    }
+
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bindings.boot;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+@DisplayName("Adaptive Pool Sizing")
+final class AdaptivePoolSizingTest {
+
+    private final MockEnvironment environment = new MockEnvironment()
+            .withProperty("org.springframework.cloud.bindings.boot.pools.adaptive.enable", "true");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("is not enabled by default")
+    void disabled() {
+        assertThat(AdaptivePoolSizing.get(new MockEnvironment(), cgroup(), membership(), 4)).isNull();
+    }
+
+    @Test
+    @DisplayName("reads cgroup v2 limits")
+    void cgroupV2() throws IOException {
+        write("cpu.max", "150000 100000\n");
+        write("memory.max", "1073741824\n");
+
+        AdaptivePoolSizing sizing = AdaptivePoolSizing.get(environment, cgroup(), membership(), 8);
+
+        assertThat(sizing.getCpus()).isEqualTo(1.5);
+        assertThat(sizing.getMemory()).isEqualTo(1073741824L);
+        assertThat(sizing.getPoolSize()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("reads the smallest limits of the cgroup v2 hierarchy of the process")
+    void nestedCgroupV2() throws IOException {
+        write(membership(), "0::/app/worker\n");
+        write("cpu.max", "max 100000\n");
+        write("app/cpu.max", "100000 100000\n");
+        write("app/worker/cpu.max", "max 100000\n");
+        write("app/memory.max", "1073741824\n");
+        write("app/worker/memory.max", "536870912\n");
+
+        AdaptivePoolSizing sizing = AdaptivePoolSizing.get(environment, cgroup(), membership(), 8);
+
+        assertThat(sizing.getCpus()).isEqualTo(1.0);
+        assertThat(sizing.getMemory()).isEqualTo(536870912L);
+    }
+
+    @Test
+    @DisplayName("reads the limits of the cgroup v1 hierarchies of the process")
+    void nestedCgroupV1() throws IOException {
+        write(membership(), "12:memory:/docker/test-id\n4:cpu,cpuacct:/docker/test-id\n1:name=systemd:/docker/test-id\n");
+        write("cpu,cpuacct/cpu.cfs_quota_us", "-1\n");
+        write("cpu,cpuacct/cpu.cfs_period_us", "100000\n");
+        write("cpu,cpuacct/docker/test-id/cpu.cfs_quota_us", "50000\n");
+        write("cpu,cpuacct/docker/test-id/cpu.cfs_period_us", "100000\n");
+        write("memory/memory.limit_in_bytes", "9223372036854771712\n");
+        write("memory/docker/test-id/memory.limit_in_bytes", "268435456\n");
+
+        AdaptivePoolSizing sizing = AdaptivePoolSizing.get(environment, cgroup(), membership(), 8);
+
+        assertThat(sizing.getCpus()).isEqualTo(0.5);
+        assertThat(sizing.getMemory()).isEqualTo(268435456L);
+    }
+
+    @Test
+    @DisplayName("reads cgroup v1 limits")
+    void cgroupV1() throws IOException {
+        // Without a cgroup namespace, the cgroup of the process is not visible and its hierarchy is mounted instead
+        write(membership(), "4:cpu,cpuacct:/docker/test-id\n");
+        write("cpu/cpu.cfs_quota_us", "200000\n");
+        write("cpu/cpu.cfs_period_us", "100000\n");
+        write("memory/memory.limit_in_bytes", "67108864\n");
+
+        AdaptivePoolSizing sizing = AdaptivePoolSizing.get(environment, cgroup(), membership(), 8);
+
+        assertThat(sizing.getCpus()).isEqualTo(2.0);
+        assertThat(sizing.getMemory()).isEqualTo(67108864L);
+        assertThat(sizing.getPoolSize()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("uses the available processors without limits")
+    void unlimited() throws IOException {
+        write("cpu.max", "max 100000\n");
+        write("memory.max", "max\n");
+
+        AdaptivePoolSizing sizing = AdaptivePoolSizing.get(environment, cgroup(), membership(), 4);
+
+        assertThat(sizing.getCpus()).isEqualTo(4.0);
+        assertThat(sizing.getMemory()).isNull();
+        assertThat(sizing.getPoolSize()).isEqualTo(9);
+    }
+
+    @Test
+    @DisplayName("applies the configured formula")
+    void formula() {
+        environment
+                .withProperty("org.springframework.cloud.bindings.boot.pools.adaptive.connections-per-cpu", "4")
+                .withProperty("org.springframework.cloud.bindings.boot.pools.adaptive.additional-connections", "0")
+                .withProperty("org.springframework.cloud.bindings.boot.pools.adaptive.memory-per-connection", "32MB");
+
+        assertThat(AdaptivePoolSizing.get(environment, cgroup(), membership(), 2).getPoolSize()).isEqualTo(8);
+        assertThat(new AdaptivePoolSizing(2, DataSize.ofMegabytes(64).toBytes(), 4, 0, DataSize.ofMegabytes(32))
+                .getPoolSize()).isEqualTo(2);
+        assertThat(new AdaptivePoolSizing(0.1, DataSize.ofMegabytes(8).toBytes(), 2, 1, DataSize.ofMegabytes(16))
+                .getPoolSize()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("rejects an invalid formula")
+    void invalid() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> AdaptivePoolSizing.get(new MockEnvironment()
+                        .withProperty("org.springframework.cloud.bindings.boot.pools.adaptive.enable", "true")
+                        .withProperty("org.springframework.cloud.bindings.boot.pools.adaptive.connections-per-cpu", "0"), cgroup(), membership(), 2))
+                .withMessage("org.springframework.cloud.bindings.boot.pools.adaptive.connections-per-cpu must be positive");
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> AdaptivePoolSizing.get(new MockEnvironment()
+                        .withProperty("org.springframework.cloud.bindings.boot.pools.adaptive.enable", "true")
+                        .withProperty("org.springframework.cloud.bindings.boot.pools.adaptive.additional-connections", "-1"), cgroup(), membership(), 2))
+                .withMessage("org.springframework.cloud.bindings.boot.pools.adaptive.additional-connections must not be negative");
+    }
+
+    private Path cgroup() {
+        return directory.resolve("sys/fs/cgroup");
+    }
+
+    private Path membership() {
+        return directory.resolve("proc/self/cgroup");
+    }
+
+    private void write(String name, String content) throws IOException {
+        write(cgroup().resolve(name), content);
+    }
+
+    private static void write(Path file, String content) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content);
+    }
+
+}
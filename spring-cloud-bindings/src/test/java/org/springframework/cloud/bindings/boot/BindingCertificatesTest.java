@@ -0,0 +1,120 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.cloud.bindings.boot;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.bindings.Binding;
+import org.springframework.cloud.bindings.Bindings;
+import org.springframework.cloud.bindings.FluentMap;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Binding Certificates")
+final class BindingCertificatesTest {
+
+    private static final Instant CERT_NOT_AFTER = Instant.parse("2014-10-10T21:43:05Z");
+
+    private static final Instant CHAIN_NOT_AFTER = Instant.parse("2021-03-27T21:58:04Z");
+
+    private final List<CertificateExpiringEvent> events = new ArrayList<>();
+
+    @Test
+    @DisplayName("indexes certificates in bindings by expiry")
+    void index() throws IOException {
+        BindingCertificates certificates = new BindingCertificates(bindings(), BindingCertificates.DEFAULT_LEAD_TIMES);
+
+        assertThat(certificates.getCertificates()).hasSize(3);
+        assertThat(certificates.getCertificates().get(0).getBinding()).isEqualTo("test-name");
+        assertThat(certificates.getCertificates().get(0).getKey()).isEqualTo("ca.crt");
+        assertThat(certificates.getCertificates().get(0).getSubject()).isEqualTo("CN=localhost");
+        assertThat(certificates.getCertificates().get(0).getNotAfter()).isEqualTo(CERT_NOT_AFTER);
+        assertThat(certificates.getCertificates().get(1).getKey()).isEqualTo("tls.crt");
+        assertThat(certificates.getCertificates().get(1).getNotAfter()).isEqualTo(CHAIN_NOT_AFTER);
+    }
+
+    @Test
+    @DisplayName("ignores content that cannot be parsed")
+    void invalid() {
+        Bindings bindings = new Bindings(new Binding("test-name", Paths.get("test-path"),
+                new FluentMap()
+                        .withEntry(Binding.TYPE, "test-type")
+                        .withEntry("ca.crt", "-----BEGIN CERTIFICATE-----\ninvalid\n-----END CERTIFICATE-----\n")
+        ));
+
+        assertThat(new BindingCertificates(bindings, BindingCertificates.DEFAULT_LEAD_TIMES).getCertificates()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("returns certificates expiring before a time")
+    void expiringBefore() throws IOException {
+        BindingCertificates certificates = new BindingCertificates(bindings(), BindingCertificates.DEFAULT_LEAD_TIMES);
+
+        assertThat(certificates.getExpiringBefore(CERT_NOT_AFTER.plusSeconds(1)))
+                .extracting(BindingCertificates.Certificate::getKey).containsExactly("ca.crt");
+        assertThat(certificates.getExpiringWithin(Duration.ZERO)).hasSize(3);
+    }
+
+    @Test
+    @DisplayName("publishes an event once for each lead time reached")
+    void events() throws IOException {
+        BindingCertificates certificates = new BindingCertificates(bindings(), BindingCertificates.DEFAULT_LEAD_TIMES);
+
+        certificates.publishExpiringEvents(event -> events.add((CertificateExpiringEvent) event), CERT_NOT_AFTER.minus(Duration.ofDays(40)));
+        assertThat(events).isEmpty();
+
+        certificates.publishExpiringEvents(event -> events.add((CertificateExpiringEvent) event), CERT_NOT_AFTER.minus(Duration.ofDays(20)));
+        certificates.publishExpiringEvents(event -> events.add((CertificateExpiringEvent) event), CERT_NOT_AFTER.minus(Duration.ofDays(20)));
+        certificates.publishExpiringEvents(event -> events.add((CertificateExpiringEvent) event), CERT_NOT_AFTER.minus(Duration.ofDays(3)));
+
+        assertThat(events).extracting(CertificateExpiringEvent::getLeadTime)
+                .containsExactly(Duration.ofDays(30), Duration.ofDays(7));
+        assertThat(events).extracting(event -> event.getCertificate().getKey())
+                .containsOnly("ca.crt");
+    }
+
+    @Test
+    @DisplayName("reads lead times from the environment")
+    void leadTimes() {
+        assertThat(BindingCertificates.getLeadTimes(new MockEnvironment()))
+                .isEqualTo(BindingCertificates.DEFAULT_LEAD_TIMES);
+        assertThat(BindingCertificates.getLeadTimes(new MockEnvironment()
+                .withProperty(BindingCertificates.LEAD_TIMES_PROPERTY, "14d, 12h")))
+                .containsExactly(Duration.ofDays(14), Duration.ofHours(12));
+    }
+
+    private static Bindings bindings() throws IOException {
+        return new Bindings(new Binding("test-name", Paths.get("test-path"),
+                new FluentMap()
+                        .withEntry(Binding.TYPE, "test-type")
+                        .withEntry("ca.crt", TestHelper.resourceAsString(new ClassPathResource("pem/test-cert.pem")))
+                        .withEntry("tls.crt", TestHelper.resourceAsString(new ClassPathResource("pem/test-cert-chain.pem")))
+                        .withEntry("tls.key", TestHelper.resourceAsString(new ClassPathResource("pem/test-key.pem")))
+        ));
+    }
+
+}
@@ -78,6 +78,38 @@ final class BindingFlattenedEnvironmentPostProcessorTest {
         assertThat(environment.getProperty("k8s.bindings.test-name.test-secret-key")).isEqualTo("test-secret-value");
     }
 
+    @Test
+    @DisplayName("only exposes selected binding types and names")
+    void filtered() {
+        environment
+                .withProperty("org.springframework.cloud.bindings.boot.flattened.types", "test-type-1")
+                .withProperty("org.springframework.cloud.bindings.boot.flattened.names", "test-name-2");
+
+        new BindingFlattenedEnvironmentPostProcessor(
+                new Bindings(
+                        new Binding("test-name-1", Paths.get("test-path"),
+                                new FluentMap()
+                                        .withEntry(Binding.TYPE, "test-type-1")
+                                        .withEntry("test-secret-key", "test-secret-value-1")
+                        ),
+                        new Binding("test-name-2", Paths.get("test-path"),
+                                new FluentMap()
+                                        .withEntry(Binding.TYPE, "test-type-2")
+                                        .withEntry("test-secret-key", "test-secret-value-2")
+                        ),
+                        new Binding("test-name-3", Paths.get("test-path"),
+                                new FluentMap()
+                                        .withEntry(Binding.TYPE, "test-type-3")
+                                        .withEntry("test-secret-key", "test-secret-value-3")
+                        )
+                )
+        ).postProcessEnvironment(environment, application);
+
+        assertThat(environment.getProperty("k8s.bindings.test-name-1.test-secret-key")).isEqualTo("test-secret-value-1");
+        assertThat(environment.getProperty("k8s.bindings.test-name-2.test-secret-key")).isEqualTo("test-secret-value-2");
+        assertThat(environment.getProperty("k8s.bindings.test-name-3.test-secret-key")).isNull();
+    }
+
     @Test
     @DisplayName("has order before ConfigFileApplicationListener")
     void order() {
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bindings.boot;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.bindings.Binding;
+import org.springframework.cloud.bindings.Bindings;
+import org.springframework.cloud.bindings.FluentMap;
+
+import java.nio.file.Paths;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Binding-flattened PropertySource")
+final class BindingFlattenedPropertySourceTest {
+
+    private final BindingFlattenedPropertySource propertySource = new BindingFlattenedPropertySource("test-source",
+            new Bindings(
+                    new Binding("test-name-1", Paths.get("test-path"),
+                            new FluentMap()
+                                    .withEntry(Binding.TYPE, "test-type")
+                                    .withEntry("test-secret-key", "test-secret-value-1")
+                    ),
+                    new Binding("test.name.2", Paths.get("test-path"),
+                            new FluentMap()
+                                    .withEntry(Binding.TYPE, "test-type")
+                                    .withEntry("ca.crt", "test-secret-value-2")
+                    )
+            )
+    );
+
+    @Test
+    @DisplayName("resolves properties from the bindings")
+    void getProperty() {
+        assertThat(propertySource.getProperty("k8s.bindings.test-name-1.test-secret-key")).isEqualTo("test-secret-value-1");
+        assertThat(propertySource.getProperty("k8s.bindings.test.name.2.ca.crt")).isEqualTo("test-secret-value-2");
+    }
+
+    @Test
+    @DisplayName("returns null for unknown properties")
+    void unknownProperty() {
+        assertThat(propertySource.getProperty("k8s.bindings.test-name-1.other-key")).isNull();
+        assertThat(propertySource.getProperty("k8s.bindings.other-name.test-secret-key")).isNull();
+        assertThat(propertySource.getProperty("k8s.bindings.test-name-1")).isNull();
+        assertThat(propertySource.getProperty("test-name-1.test-secret-key")).isNull();
+        assertThat(propertySource.containsProperty("k8s.bindings.test-name-1.other-key")).isFalse();
+    }
+
+    @Test
+    @DisplayName("enumerates property names")
+    void getPropertyNames() {
+        assertThat(propertySource.getPropertyNames()).containsExactlyInAnyOrder(
+                "k8s.bindings.test-name-1.test-secret-key",
+                "k8s.bindings.test.name.2.ca.crt"
+        );
+    }
+
+    @Test
+    @DisplayName("is empty if no binding has secret entries")
+    void isEmpty() {
+        assertThat(propertySource.isEmpty()).isFalse();
+        assertThat(new BindingFlattenedPropertySource("test-source",
+                new Bindings(
+                        new Binding("test-name", Paths.get("test-path"),
+                                new FluentMap()
+                                        .withEntry(Binding.TYPE, "test-type")
+                        )
+                )
+        ).isEmpty()).isTrue();
+    }
+
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.cloud.bindings.boot;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Binding JWK Set")
+final class BindingJwkSetTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("parses RSA and EC signature keys")
+    void publicKeys() throws Exception {
+        RSAPublicKey rsa = rsaKey();
+        ECPublicKey ec = ecKey();
+        String json = jwks(rsa("rsa-1", rsa), ec("ec-1", ec),
+                "{\"kty\":\"RSA\",\"kid\":\"enc-1\",\"use\":\"enc\",\"n\":\"AQAB\",\"e\":\"AQAB\"}",
+                "{\"kty\":\"oct\",\"kid\":\"oct-1\",\"k\":\"AQAB\"}");
+
+        BindingJwkSet jwkSet = new BindingJwkSet(directory.resolve("jwks.json"), json);
+
+        assertThat(jwkSet.getJson()).isEqualTo(json);
+        assertThat(jwkSet.getPublicKeys()).containsOnlyKeys("rsa-1", "ec-1");
+        assertThat(jwkSet.getPublicKeys().get("rsa-1")).isEqualTo(rsa);
+        assertThat(jwkSet.getPublicKeys().get("ec-1")).isEqualTo(ec);
+    }
+
+    @Test
+    @DisplayName("parses the key set for Nimbus once each time it is read")
+    void jwkSet() throws Exception {
+        Path file = directory.resolve("jwks.json");
+        String first = jwks(rsa("rsa-1", rsaKey()));
+        Files.writeString(file, first);
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().minusSeconds(60)));
+
+        BindingJwkSet jwkSet = new BindingJwkSet(file, first);
+        assertThat(jwkSet.getJwkSet().getKeyByKeyId("rsa-1")).isNotNull();
+        assertThat(jwkSet.getJwkSet()).isSameAs(jwkSet.getJwkSet());
+
+        Files.writeString(file, jwks(rsa("rsa-2", rsaKey())));
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now()));
+
+        assertThat(jwkSet.getJwkSet().getKeyByKeyId("rsa-1")).isNull();
+        assertThat(jwkSet.getJwkSet().getKeyByKeyId("rsa-2")).isNotNull();
+    }
+
+    @Test
+    @DisplayName("leaves out keys whose algorithm does not match their type")
+    void algorithms() throws Exception {
+        RSAPublicKey rsa = rsaKey();
+        ECPublicKey ec = ecKey();
+        String json = jwks(
+                rsa("rsa-1", rsa).replace("}", ",\"alg\":\"RS256\"}"),
+                rsa("rsa-2", rsa).replace("}", ",\"alg\":\"ES256\"}"),
+                rsa("rsa-3", rsa).replace("}", ",\"alg\":\"RSA-OAEP\"}"),
+                ec("ec-1", ec).replace("}", ",\"alg\":\"ES256\"}"),
+                ec("ec-2", ec).replace("}", ",\"alg\":\"ES384\"}"));
+
+        BindingJwkSet jwkSet = new BindingJwkSet(directory.resolve("jwks.json"), json);
+
+        assertThat(jwkSet.getPublicKeys()).containsOnlyKeys("rsa-1", "ec-1");
+    }
+
+    @Test
+    @DisplayName("reads the key set again when its file changes")
+    void refresh() throws Exception {
+        Path file = directory.resolve("jwks.json");
+        String first = jwks(rsa("rsa-1", rsaKey()));
+        Files.writeString(file, first);
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().minusSeconds(60)));
+
+        BindingJwkSet jwkSet = new BindingJwkSet(file, first);
+        assertThat(jwkSet.getPublicKeys()).containsOnlyKeys("rsa-1");
+
+        String second = jwks(rsa("rsa-2", rsaKey()));
+        Files.writeString(file, second);
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now()));
+
+        assertThat(jwkSet.getJson()).isEqualTo(second);
+        assertThat(jwkSet.getPublicKeys()).containsOnlyKeys("rsa-2");
+    }
+
+    @Test
+    @DisplayName("throws when the key set has no keys")
+    void invalid() {
+        BindingJwkSet jwkSet = new BindingJwkSet(directory.resolve("jwks.json"), "{}");
+
+        assertThrows(IllegalArgumentException.class, jwkSet::getPublicKeys);
+        assertThrows(IllegalArgumentException.class, () -> new BindingJwkSet(directory.resolve("jwks.json"), "{\"keys\":").getJwkSet());
+    }
+
+    static RSAPublicKey rsaKey() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        return (RSAPublicKey) generator.generateKeyPair().getPublic();
+    }
+
+    static ECPublicKey ecKey() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        return (ECPublicKey) generator.generateKeyPair().getPublic();
+    }
+
+    static String rsa(String kid, RSAPublicKey key) {
+        return String.format("{\"kty\":\"RSA\",\"kid\":\"%s\",\"use\":\"sig\",\"n\":\"%s\",\"e\":\"%s\"}",
+                kid, encode(key.getModulus()), encode(key.getPublicExponent()));
+    }
+
+    static String ec(String kid, ECPublicKey key) {
+        return String.format("{\"kty\":\"EC\",\"kid\":\"%s\",\"crv\":\"P-256\",\"x\":\"%s\",\"y\":\"%s\"}",
+                kid, encode(key.getW().getAffineX()), encode(key.getW().getAffineY()));
+    }
+
+    static String jwks(String... keys) {
+        return "{\"keys\":[" + String.join(",", keys) + "]}";
+    }
+
+    private static String encode(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        if (bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+}
@@ -23,11 +23,13 @@ import org.springframework.boot.context.config.ConfigDataEnvironmentPostProcesso
 import org.springframework.cloud.bindings.Binding;
 import org.springframework.cloud.bindings.Bindings;
 import org.springframework.cloud.bindings.FluentMap;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.mock.env.MockEnvironment;
 
 import java.nio.file.Paths;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
 
 @DisplayName("Binding-specific EnvironmentPostProcessor")
 final class BindingSpecificEnvironmentPostProcessorTest {
@@ -101,10 +103,36 @@ final class BindingSpecificEnvironmentPostProcessorTest {
                 .isLessThan(ConfigDataEnvironmentPostProcessor.ORDER);
     }
 
+    @Test
+    @DisplayName("forgets stores written in the background when a processor fails")
+    void clearsPendingOnFailure() throws Exception {
+        environment.setProperty(KeyStoreFiles.ASYNC_PROPERTY, "true");
+        String cert = TestHelper.resourceAsString(new ClassPathResource("pem/test-cert.pem"));
+
+        BindingSpecificEnvironmentPostProcessor processor = new BindingSpecificEnvironmentPostProcessor(
+                new Bindings(
+                        new Binding("test-name", Paths.get("test-path"),
+                                new FluentMap()
+                                        .withEntry(Binding.TYPE, "test-type")
+                        )
+                ),
+                (environment, bindings, properties) -> KeyStoreFiles.get(environment)
+                        .createKeyStoreLocation("test-truststore", "password", cert, null, "ca"),
+                (environment, bindings, properties) -> {
+                    throw new IllegalStateException("test-failure");
+                }
+        );
+
+        assertThatIllegalStateException()
+                .isThrownBy(() -> processor.postProcessEnvironment(environment, application))
+                .withMessage("test-failure");
+        assertThat(KeyStoreFiles.getPendingCount(environment)).isZero();
+    }
+
     @Test
     @DisplayName("included implementations are registered")
     void includedImplementations() {
-        assertThat(new BindingSpecificEnvironmentPostProcessor().processors).hasSize(21);
+        assertThat(new BindingSpecificEnvironmentPostProcessor().processors).hasSize(23);
     }
 
 }
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bindings.boot;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationPreparedEvent;
+import org.springframework.cloud.bindings.Bindings;
+import org.springframework.cloud.bindings.BindingsTypeIndex;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.cloud.bindings.boot.BindingsSnapshotRegistrar.BINDINGS_BEAN_NAME;
+import static org.springframework.cloud.bindings.boot.BindingsSnapshotRegistrar.BINDING_CERTIFICATES_BEAN_NAME;
+import static org.springframework.cloud.bindings.boot.BindingsSnapshotRegistrar.BINDINGS_TYPE_INDEX_BEAN_NAME;
+
+@DisplayName("Bindings Snapshot Registrar")
+final class BindingsSnapshotRegistrarTest {
+
+    private final SpringApplication application = new SpringApplication();
+
+    private final GenericApplicationContext context = new GenericApplicationContext();
+
+    @Test
+    @DisplayName("returns the same snapshot for an application")
+    void sameSnapshot() {
+        assertThat(BindingsSnapshotRegistrar.getSnapshot(application))
+                .isSameAs(BindingsSnapshotRegistrar.getSnapshot(application))
+                .isNotSameAs(BindingsSnapshotRegistrar.getSnapshot(new SpringApplication()));
+    }
+
+    @Test
+    @DisplayName("registers snapshot beans")
+    void registers() {
+        Bindings bindings = BindingsSnapshotRegistrar.getSnapshot(application);
+
+        new BindingsSnapshotRegistrar().onApplicationEvent(new ApplicationPreparedEvent(application, new String[0], context));
+
+        assertThat(context.getBeanFactory().getBean(BINDINGS_BEAN_NAME)).isSameAs(bindings);
+        assertThat(context.getBeanFactory().getBean(BINDINGS_TYPE_INDEX_BEAN_NAME)).isInstanceOf(BindingsTypeIndex.class);
+        assertThat(context.getBeanFactory().containsBean(BINDING_CERTIFICATES_BEAN_NAME)).isFalse();
+    }
+
+    @Test
+    @DisplayName("registers the certificate index when enabled")
+    void certificatesEnabled() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("org.springframework.cloud.bindings.boot.certificates.enable", "true");
+        context.setEnvironment(environment);
+        BindingsSnapshotRegistrar.getSnapshot(application);
+
+        new BindingsSnapshotRegistrar().onApplicationEvent(new ApplicationPreparedEvent(application, new String[0], context));
+
+        assertThat(context.getBeanFactory().getBean(BINDING_CERTIFICATES_BEAN_NAME)).isInstanceOf(BindingCertificates.class);
+    }
+
+    @Test
+    @DisplayName("does not register the certificate index when bindings are disabled")
+    void certificatesGloballyDisabled() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("org.springframework.cloud.bindings.boot.enable", "false")
+                .withProperty("org.springframework.cloud.bindings.boot.certificates.enable", "true");
+        context.setEnvironment(environment);
+        BindingsSnapshotRegistrar.getSnapshot(application);
+
+        new BindingsSnapshotRegistrar().onApplicationEvent(new ApplicationPreparedEvent(application, new String[0], context));
+
+        assertThat(context.getBeanFactory().containsBean(BINDING_CERTIFICATES_BEAN_NAME)).isFalse();
+    }
+
+    @Test
+    @DisplayName("does not register beans without a snapshot")
+    void noSnapshot() {
+        new BindingsSnapshotRegistrar().onApplicationEvent(new ApplicationPreparedEvent(application, new String[0], context));
+
+        assertThat(context.getBeanFactory().containsBean(BINDINGS_BEAN_NAME)).isFalse();
+        assertThat(context.getBeanFactory().containsBean(BINDINGS_TYPE_INDEX_BEAN_NAME)).isFalse();
+    }
+
+    @Test
+    @DisplayName("does not replace existing beans")
+    void existingBeans() {
+        Bindings existing = new Bindings();
+        context.getBeanFactory().registerSingleton(BINDINGS_BEAN_NAME, existing);
+        BindingsSnapshotRegistrar.getSnapshot(application);
+
+        new BindingsSnapshotRegistrar().onApplicationEvent(new ApplicationPreparedEvent(application, new String[0], context));
+
+        assertThat(context.getBeanFactory().getBean(BINDINGS_BEAN_NAME)).isSameAs(existing);
+        assertThat(context.getBeanFactory().containsBean(BINDINGS_TYPE_INDEX_BEAN_NAME)).isFalse();
+    }
+
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bindings.boot;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.cloud.bindings.boot.ClassPathCapabilities.MARIADB_JDBC_DRIVER;
+import static org.springframework.cloud.bindings.boot.ClassPathCapabilities.MARIADB_R2DBC_CONNECTION;
+import static org.springframework.cloud.bindings.boot.ClassPathCapabilities.MYSQL_JDBC_DRIVER;
+import static org.springframework.cloud.bindings.boot.ClassPathCapabilities.isPresent;
+
+@DisplayName("ClassPath Capabilities")
+final class ClassPathCapabilitiesTest {
+
+    @Test
+    @DisplayName("detects classes on the classpath")
+    void present() {
+        assertThat(isPresent(MARIADB_JDBC_DRIVER)).isTrue();
+        assertThat(isPresent(MARIADB_R2DBC_CONNECTION)).isTrue();
+    }
+
+    @Test
+    @DisplayName("detects classes not on the classpath")
+    void absent() {
+        assertThat(isPresent(MYSQL_JDBC_DRIVER)).isFalse();
+        assertThat(isPresent("org.example.Missing")).isFalse();
+        assertThat(isPresent("org.example.Missing")).isFalse();
+    }
+
+}
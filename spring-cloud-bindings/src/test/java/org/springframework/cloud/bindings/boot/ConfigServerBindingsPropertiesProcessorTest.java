@@ -142,6 +142,32 @@ final class ConfigServerBindingsPropertiesProcessorTest {
         assertThat(f.isFile()).isTrue();
     }
 
+    @Test
+    @DisplayName("contributes only an SSL bundle, without the client's stores, when enabled")
+    void whenSslBundleEnabled() {
+        environment.setProperty("org.springframework.cloud.bindings.boot.config.ssl-bundle", "true");
+        bindings = new Bindings(
+                new Binding("test-name", Paths.get("test-path"),
+                        new FluentMap()
+                                .withEntry(Binding.TYPE, ConfigServerBindingsPropertiesProcessor.TYPE)
+                                .withEntry("tls.key", key)
+                                .withEntry("tls.crt", cert)
+                                .withEntry("ca.crt", cert)
+                )
+        );
+
+        new ConfigServerBindingsPropertiesProcessor().process(environment, bindings, properties);
+
+        assertThat(properties)
+                .containsEntry("spring.ssl.bundle.pem.config.keystore.certificate", cert)
+                .containsEntry("spring.ssl.bundle.pem.config.keystore.private-key", key)
+                .containsEntry("spring.ssl.bundle.pem.config.key.alias", "config")
+                .containsEntry("spring.ssl.bundle.pem.config.truststore.certificate", cert)
+                .doesNotContainKey("spring.cloud.config.tls.enabled")
+                .doesNotContainKey("spring.cloud.config.tls.key-store")
+                .doesNotContainKey("spring.cloud.config.tls.trust-store");
+    }
+
     @Test
     @DisplayName("throws when bad tls key-store values are set")
     void whenKeystoreValueIsNotValid() {
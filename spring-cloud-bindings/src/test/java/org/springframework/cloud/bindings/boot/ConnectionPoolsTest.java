@@ -0,0 +1,273 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.cloud.bindings.boot;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.bindings.Binding;
+import org.springframework.cloud.bindings.FluentMap;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+@DisplayName("Connection Pools")
+final class ConnectionPoolsTest {
+
+    private final HashMap<String, Object> properties = new HashMap<>();
+
+    @Test
+    @DisplayName("maps pool keys to hikari properties")
+    void hikari() {
+        ConnectionPools.mapHikari(binding(new FluentMap()
+                .withEntry("pool.maximum-pool-size", "20")
+                .withEntry("pool.minimum-idle", "5")
+                .withEntry("pool.connection-timeout", "5s")
+                .withEntry("pool.idle-timeout", "600000")
+                .withEntry("pool.max-lifetime", "30m")
+                .withEntry("pool.keepalive-time", "0")
+                .withEntry("pool.validation-timeout", "1s")), properties);
+
+        assertThat(properties)
+                .containsEntry("spring.datasource.hikari.maximum-pool-size", "20")
+                .containsEntry("spring.datasource.hikari.minimum-idle", "5")
+                .containsEntry("spring.datasource.hikari.connection-timeout", "5000")
+                .containsEntry("spring.datasource.hikari.idle-timeout", "600000")
+                .containsEntry("spring.datasource.hikari.max-lifetime", "1800000")
+                .containsEntry("spring.datasource.hikari.keepalive-time", "0")
+                .containsEntry("spring.datasource.hikari.validation-timeout", "1000");
+    }
+
+    @Test
+    @DisplayName("does not contribute properties without pool keys")
+    void none() {
+        ConnectionPools.mapHikari(binding(new FluentMap()), properties);
+
+        assertThat(properties).isEmpty();
+    }
+
+    @Test
+    @DisplayName("rejects values that are not numbers or durations")
+    void malformed() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> ConnectionPools.mapHikari(binding(new FluentMap()
+                        .withEntry("pool.maximum-pool-size", "ten")), properties))
+                .withMessage("Binding 'test-name' has an invalid 'pool.maximum-pool-size': 'ten' is not an integer");
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> ConnectionPools.mapHikari(binding(new FluentMap()
+                        .withEntry("pool.max-lifetime", "forever")), properties))
+                .withMessageContaining("'forever' is not a duration");
+    }
+
+    @Test
+    @DisplayName("rejects values below the pool's limits")
+    void belowLimits() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> ConnectionPools.mapHikari(binding(new FluentMap()
+                        .withEntry("pool.maximum-pool-size", "0")), properties))
+                .withMessageContaining("0 is less than 1");
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> ConnectionPools.mapHikari(binding(new FluentMap()
+                        .withEntry("pool.connection-timeout", "100ms")), properties))
+                .withMessageContaining("'pool.connection-timeout'");
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> ConnectionPools.mapHikari(binding(new FluentMap()
+                        .withEntry("pool.keepalive-time", "10s")), properties))
+                .withMessageContaining("'pool.keepalive-time'");
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> ConnectionPools.mapHikari(binding(new FluentMap()
+                        .withEntry("pool.validation-timeout", "0")), properties))
+                .withMessageContaining("'pool.validation-timeout'");
+    }
+
+    @Test
+    @DisplayName("rejects inconsistent values")
+    void inconsistent() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> ConnectionPools.mapHikari(binding(new FluentMap()
+                        .withEntry("pool.maximum-pool-size", "5")
+                        .withEntry("pool.minimum-idle", "10")), properties))
+                .withMessageContaining("must not be greater than pool.maximum-pool-size (5)");
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> ConnectionPools.mapHikari(binding(new FluentMap()
+                        .withEntry("pool.max-lifetime", "5m")
+                        .withEntry("pool.keepalive-time", "5m")), properties))
+                .withMessageContaining("must be less than pool.max-lifetime");
+        assertThat(properties).isEmpty();
+    }
+
+    @Test
+    @DisplayName("maps r2dbc-pool keys to r2dbc pool properties")
+    void r2dbcPool() {
+        ConnectionPools.mapR2dbcPool(binding(new FluentMap()
+                .withEntry("r2dbc-pool.initial-size", "5")
+                .withEntry("r2dbc-pool.max-size", "20")
+                .withEntry("r2dbc-pool.max-idle-time", "10m")
+                .withEntry("r2dbc-pool.max-acquire-time", "-1")
+                .withEntry("r2dbc-pool.max-validation-time", "2000")
+                .withEntry("r2dbc-pool.validation-query", "SELECT 1")
+                .withEntry("r2dbc-pool.validation-depth", "remote")), properties);
+
+        assertThat(properties)
+                .containsEntry("spring.r2dbc.pool.initial-size", "5")
+                .containsEntry("spring.r2dbc.pool.max-size", "20")
+                .containsEntry("spring.r2dbc.pool.max-idle-time", "600000ms")
+                .containsEntry("spring.r2dbc.pool.max-acquire-time", "-1ms")
+                .containsEntry("spring.r2dbc.pool.max-validation-time", "2000ms")
+                .containsEntry("spring.r2dbc.pool.validation-query", "SELECT 1")
+                .containsEntry("spring.r2dbc.pool.validation-depth", "REMOTE");
+    }
+
+    @Test
+    @DisplayName("limits the default r2dbc initial size to a smaller max size")
+    void r2dbcPoolSmallMaxSize() {
+        ConnectionPools.mapR2dbcPool(binding(new FluentMap()
+                .withEntry("r2dbc-pool.max-size", "4")), properties);
+
+        assertThat(properties)
+                .containsEntry("spring.r2dbc.pool.initial-size", "4")
+                .containsEntry("spring.r2dbc.pool.max-size", "4");
+    }
+
+    @Test
+    @DisplayName("rejects invalid r2dbc pool values")
+    void r2dbcPoolInvalid() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> ConnectionPools.mapR2dbcPool(binding(new FluentMap()
+                        .withEntry("r2dbc-pool.initial-size", "30")
+                        .withEntry("r2dbc-pool.max-size", "20")), properties))
+                .withMessageContaining("must not be greater than r2dbc-pool.max-size (20)");
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> ConnectionPools.mapR2dbcPool(binding(new FluentMap()
+                        .withEntry("r2dbc-pool.max-acquire-time", "0s")), properties))
+                .withMessageContaining("must not be 0");
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> ConnectionPools.mapR2dbcPool(binding(new FluentMap()
+                        .withEntry("r2dbc-pool.validation-depth", "deep")), properties))
+                .withMessage("Binding 'test-name' has an invalid 'r2dbc-pool.validation-depth': must be one of [LOCAL, REMOTE]");
+        assertThat(properties).isEmpty();
+    }
+
+    @Test
+    @DisplayName("sizes pools that the binding does not size")
+    void adaptive() {
+        AdaptivePoolSizing sizing = new AdaptivePoolSizing(2, null, 2, 1, DataSize.ofMegabytes(16));
+        ConnectionPools.mapHikari(binding(new FluentMap()), properties, sizing);
+        ConnectionPools.mapR2dbcPool(binding(new FluentMap()), properties, sizing);
+
+        assertThat(properties)
+                .containsEntry("spring.datasource.hikari.maximum-pool-size", "5")
+                .containsEntry("spring.r2dbc.pool.initial-size", "5")
+                .containsEntry("spring.r2dbc.pool.max-size", "5")
+                .doesNotContainKey("spring.datasource.hikari.minimum-idle");
+    }
+
+    @Test
+    @DisplayName("does not resize pools that the binding sizes")
+    void adaptiveExplicit() {
+        AdaptivePoolSizing sizing = new AdaptivePoolSizing(2, null, 2, 1, DataSize.ofMegabytes(16));
+        ConnectionPools.mapHikari(binding(new FluentMap()
+                .withEntry("pool.maximum-pool-size", "20")), properties, sizing);
+        ConnectionPools.mapR2dbcPool(binding(new FluentMap()
+                .withEntry("r2dbc-pool.initial-size", "8")), properties, sizing);
+
+        assertThat(properties)
+                .containsEntry("spring.datasource.hikari.maximum-pool-size", "20")
+                .containsEntry("spring.r2dbc.pool.initial-size", "8")
+                .containsEntry("spring.r2dbc.pool.max-size", "8");
+    }
+
+    @Test
+    @DisplayName("splits the maximum connections of the binding between its pools")
+    void maxConnections() {
+        ConnectionPools.mapHikari(binding(new FluentMap()
+                .withEntry("pool.max-connections", "3")), properties, new AdaptivePoolSizing(4, null, 2, 1, DataSize.ofMegabytes(16)));
+        ConnectionPools.mapR2dbcPool(binding(new FluentMap()
+                .withEntry("pool.max-connections", "3")), properties);
+
+        assertThat(properties)
+                .containsEntry("spring.datasource.hikari.maximum-pool-size", "2")
+                .containsEntry("spring.r2dbc.pool.initial-size", "1")
+                .containsEntry("spring.r2dbc.pool.max-size", "1");
+    }
+
+    @Test
+    @DisplayName("leaves the maximum connections of the binding that one pool does not use to the other")
+    void maxConnectionsRemainder() {
+        FluentMap secret = new FluentMap()
+                .withEntry("pool.maximum-pool-size", "7")
+                .withEntry("pool.max-connections", "10");
+        ConnectionPools.mapHikari(binding(secret), properties);
+        ConnectionPools.mapR2dbcPool(binding(secret), properties);
+
+        assertThat(properties)
+                .containsEntry("spring.datasource.hikari.maximum-pool-size", "7")
+                .containsEntry("spring.r2dbc.pool.max-size", "3");
+    }
+
+    @Test
+    @DisplayName("rejects pool sizes greater than the maximum connections of the binding")
+    void maxConnectionsInvalid() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> ConnectionPools.mapHikari(binding(new FluentMap()
+                        .withEntry("pool.maximum-pool-size", "10")
+                        .withEntry("pool.max-connections", "10")), properties))
+                .withMessage("Binding 'test-name' has an invalid 'pool.maximum-pool-size': must be less than pool.max-connections (10), "
+                        + "which also limits the pool sized by r2dbc-pool.max-size");
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> ConnectionPools.mapR2dbcPool(binding(new FluentMap()
+                        .withEntry("pool.maximum-pool-size", "6")
+                        .withEntry("r2dbc-pool.max-size", "5")
+                        .withEntry("pool.max-connections", "10")), properties))
+                .withMessage("Binding 'test-name' has an invalid 'r2dbc-pool.max-size': plus pool.maximum-pool-size (6) must not be "
+                        + "greater than pool.max-connections (10)");
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> ConnectionPools.mapR2dbcPool(binding(new FluentMap()
+                        .withEntry("r2dbc-pool.initial-size", "6")
+                        .withEntry("pool.max-connections", "10")), properties))
+                .withMessage("Binding 'test-name' has an invalid 'r2dbc-pool.initial-size': must not be greater than 5, the share of "
+                        + "pool.max-connections (10) left for this pool");
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> ConnectionPools.mapHikari(binding(new FluentMap()
+                        .withEntry("pool.max-connections", "1")), properties))
+                .withMessage("Binding 'test-name' has an invalid 'pool.max-connections': 1 is less than 2");
+        assertThat(properties).isEmpty();
+    }
+
+    @Test
+    @DisplayName("builds a URL query from the parameters that are not null")
+    void toQuery() {
+        Map<String, Object> params = new LinkedHashMap<>();
+        assertThat(ConnectionPools.toQuery(params)).isEmpty();
+
+        params.put("a", 1);
+        params.put("b", null);
+        params.put("c", true);
+        assertThat(ConnectionPools.toQuery(params)).isEqualTo("?a=1&c=true");
+    }
+
+    private static Binding binding(FluentMap secret) {
+        return new Binding("test-name", Paths.get("test-path"), secret.withEntry(Binding.TYPE, "test-type"));
+    }
+
+}
@@ -27,6 +27,7 @@ import java.nio.file.Paths;
 import java.util.HashMap;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 import static org.springframework.cloud.bindings.boot.Db2BindingsPropertiesProcessor.TYPE;
 
 @DisplayName("DB2 BindingsPropertiesProcessor")
@@ -98,6 +99,84 @@ final class Db2BindingsPropertiesProcessorTest {
                 .containsEntry("spring.r2dbc.username", "test-username");
     }
 
+    @Test
+    @DisplayName("contributes hikari pool properties")
+    void testHikari() {
+        Bindings bindings = new Bindings(
+                new Binding("test-name", Paths.get("test-path"), secret
+                        .withEntry("pool.maximum-pool-size", "20")
+                        .withEntry("pool.minimum-idle", "5")
+                        .withEntry("pool.max-lifetime", "30m")
+                        .withEntry("pool.keepalive-time", "5m"))
+        );
+        new Db2BindingsPropertiesProcessor().process(environment, bindings, properties);
+        assertThat(properties)
+                .containsEntry("spring.datasource.hikari.maximum-pool-size", "20")
+                .containsEntry("spring.datasource.hikari.minimum-idle", "5")
+                .containsEntry("spring.datasource.hikari.max-lifetime", "1800000")
+                .containsEntry("spring.datasource.hikari.keepalive-time", "300000");
+    }
+
+    @Test
+    @DisplayName("contributes r2dbc pool properties")
+    void testR2dbcPool() {
+        Bindings bindings = new Bindings(
+                new Binding("test-name", Paths.get("test-path"), secret
+                        .withEntry("r2dbc-pool.initial-size", "5")
+                        .withEntry("r2dbc-pool.max-size", "20")
+                        .withEntry("r2dbc-pool.max-idle-time", "10m")
+                        .withEntry("r2dbc-pool.validation-query", "SELECT 1"))
+        );
+        new Db2BindingsPropertiesProcessor().process(environment, bindings, properties);
+        assertThat(properties)
+                .containsEntry("spring.r2dbc.pool.initial-size", "5")
+                .containsEntry("spring.r2dbc.pool.max-size", "20")
+                .containsEntry("spring.r2dbc.pool.max-idle-time", "600000ms")
+                .containsEntry("spring.r2dbc.pool.validation-query", "SELECT 1");
+    }
+
+    @Test
+    @DisplayName("appends performance properties to composed jdbc url")
+    void testPerformanceProperties() {
+        Bindings bindings = new Bindings(
+                new Binding("test-name", Paths.get("test-path"), secret
+                        .withEntry("blockingReadConnectionTimeout", "60")
+                        .withEntry("fetchSize", "500")
+                        .withEntry("progressiveStreaming", "false")
+                        .withEntry("enableSeamlessFailover", "true"))
+        );
+        new Db2BindingsPropertiesProcessor().process(environment, bindings, properties);
+        assertThat(properties)
+                .containsEntry("spring.datasource.url", "jdbc:db2://test-host:test-port/test-database:blockingReadConnectionTimeout=60;fetchSize=500;progressiveStreaming=2;enableSeamlessFailover=1;")
+                .containsEntry("spring.r2dbc.url", "r2dbc:db2://test-host:test-port/test-database");
+    }
+
+    @Test
+    @DisplayName("rejects invalid performance properties")
+    void testInvalidPerformanceProperties() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new Db2BindingsPropertiesProcessor().process(environment, new Bindings(
+                        new Binding("test-name", Paths.get("test-path"), secret.withEntry("fetchSize", "-1"))), properties))
+                .withMessage("Binding 'test-name' has an invalid 'fetchSize': -1 is less than 0");
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new Db2BindingsPropertiesProcessor().process(environment, new Bindings(
+                        new Binding("test-name", Paths.get("test-path"), new FluentMap().withEntry(Binding.TYPE, TYPE)
+                                .withEntry("progressiveStreaming", "yes"))), properties))
+                .withMessage("Binding 'test-name' has an invalid 'progressiveStreaming': 'yes' is not true or false");
+    }
+
+    @Test
+    @DisplayName("does not map replica bindings")
+    void testReplica() {
+        Bindings bindings = new Bindings(
+                new Binding("test-name", Paths.get("test-path"), secret
+                        .withEntry("role", "replica")
+                        .withEntry("cluster", "test-cluster"))
+        );
+        new Db2BindingsPropertiesProcessor().process(environment, bindings, properties);
+        assertThat(properties).isEmpty();
+    }
+
     @Test
     @DisplayName("can be disabled")
     void disabled() {
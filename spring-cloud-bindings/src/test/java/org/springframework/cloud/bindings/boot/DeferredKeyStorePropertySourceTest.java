@@ -0,0 +1,55 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.cloud.bindings.boot;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Deferred KeyStore PropertySource")
+final class DeferredKeyStorePropertySourceTest {
+
+    private final DeferredKeyStorePropertySource source = new DeferredKeyStorePropertySource();
+
+    @Test
+    @DisplayName("returns a placeholder for each registered store")
+    void register() {
+        assertThat(source.register("test-keystore", () -> "file:/keystore"))
+                .isEqualTo("${org.springframework.cloud.bindings.boot.keystore.location.test-keystore-0}");
+        assertThat(source.register("test-keystore", () -> "file:/keystore"))
+                .isEqualTo("${org.springframework.cloud.bindings.boot.keystore.location.test-keystore-1}");
+    }
+
+    @Test
+    @DisplayName("creates a store once when it is first read")
+    void getProperty() {
+        AtomicInteger count = new AtomicInteger();
+        source.register("test-keystore", () -> "file:/keystore-" + count.incrementAndGet());
+        String name = DeferredKeyStorePropertySource.PREFIX + "test-keystore-0";
+
+        assertThat(source.isResolved(name)).isFalse();
+        assertThat(source.getProperty(name)).isEqualTo("file:/keystore-1");
+        assertThat(source.getProperty(name)).isEqualTo("file:/keystore-1");
+        assertThat(source.isResolved(name)).isTrue();
+        assertThat(source.getProperty(DeferredKeyStorePropertySource.PREFIX + "test-keystore-1")).isNull();
+    }
+
+}
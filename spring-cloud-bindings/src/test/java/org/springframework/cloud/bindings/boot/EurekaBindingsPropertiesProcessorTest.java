@@ -199,6 +199,54 @@ final class EurekaBindingsPropertiesProcessorTest {
         });
     }
 
+    @Test
+    @DisplayName("contributes only an SSL bundle, without the client's stores, when enabled")
+    void testMtlsSslBundle() {
+        environment.setProperty("org.springframework.cloud.bindings.boot.eureka.ssl-bundle", "true");
+        bindings = new Bindings(
+                new Binding("test-name", Paths.get("test-path"),
+                        new FluentMap()
+                                .withEntry(Binding.TYPE, TYPE)
+                                .withEntry("uri", "test-uri")
+                                .withEntry("ca.crt", cert)
+                                .withEntry("tls.crt", cert)
+                                .withEntry("tls.key", key)
+                )
+        );
+
+        new EurekaBindingsPropertiesProcessor().process(environment, bindings, properties);
+
+        assertThat(properties)
+                .containsEntry("eureka.client.region", "default")
+                .containsEntry("spring.ssl.bundle.pem.eureka.truststore.certificate", cert)
+                .containsEntry("spring.ssl.bundle.pem.eureka.keystore.certificate", cert)
+                .containsEntry("spring.ssl.bundle.pem.eureka.keystore.private-key", key)
+                .containsEntry("spring.ssl.bundle.pem.eureka.key.alias", "eureka")
+                .doesNotContainKey("eureka.client.tls.enabled")
+                .doesNotContainKey("eureka.client.tls.key-store")
+                .doesNotContainKey("eureka.client.tls.trust-store");
+    }
+
+    @Test
+    @DisplayName("throws when bad mTls values are set for an SSL bundle")
+    void testBadMtlsSslBundle() {
+        environment.setProperty("org.springframework.cloud.bindings.boot.eureka.ssl-bundle", "true");
+        bindings = new Bindings(
+                new Binding("test-name", Paths.get("test-path"),
+                        new FluentMap()
+                                .withEntry(Binding.TYPE, TYPE)
+                                .withEntry("uri", "test-uri")
+                                .withEntry("ca.crt", cert)
+                                .withEntry("tls.crt", "this is not a valid certificate")
+                                .withEntry("tls.key", "this is not a valid key")
+                )
+        );
+
+        assertThrows(IllegalStateException.class, () -> {
+            new EurekaBindingsPropertiesProcessor().process(environment, bindings, properties);
+        });
+    }
+
     @Test
     @DisplayName("throws when bad mTls values are set")
     void testBadMtls() {
@@ -23,6 +23,7 @@ import org.springframework.mock.env.MockEnvironment;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.cloud.bindings.boot.Guards.isGlobalEnabled;
+import static org.springframework.cloud.bindings.boot.Guards.isSslBundleEnabled;
 import static org.springframework.cloud.bindings.boot.Guards.isTypeEnabled;
 
 @DisplayName("Guards")
@@ -84,4 +85,25 @@ final class GuardsTest {
 
     }
 
+    @Nested
+    @DisplayName("SSL Bundle Guard")
+    final class SslBundleGuard {
+
+        private final MockEnvironment environment = new MockEnvironment();
+
+        @Test
+        @DisplayName("returns false if unset")
+        void unset() {
+            assertThat(isSslBundleEnabled(environment, "test")).isFalse();
+        }
+
+        @Test
+        @DisplayName("returns the set value of true")
+        void setTrue() {
+            environment.setProperty("org.springframework.cloud.bindings.boot.test.ssl-bundle", "true");
+            assertThat(isSslBundleEnabled(environment, "test")).isTrue();
+        }
+
+    }
+
 }
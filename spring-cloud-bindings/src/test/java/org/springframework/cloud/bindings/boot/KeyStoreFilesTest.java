@@ -0,0 +1,180 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.cloud.bindings.boot;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.KeyStore;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("KeyStoreFiles")
+final class KeyStoreFilesTest {
+
+    private final MockEnvironment environment = new MockEnvironment();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("creates new temporary stores by default")
+    void temporary() throws Exception {
+        String cert = TestHelper.resourceAsString(new ClassPathResource("pem/test-cert.pem"));
+        KeyStoreFiles keyStoreFiles = KeyStoreFiles.get(environment);
+
+        String first = keyStoreFiles.createKeyStoreLocation("test-truststore", keyStoreFiles.generatePassword(cert), cert, null, "ca");
+        String second = keyStoreFiles.createKeyStoreLocation("test-truststore", keyStoreFiles.generatePassword(cert), cert, null, "ca");
+
+        assertThat(first).startsWith("file:").isNotEqualTo(second);
+        assertThat(Paths.get(first.substring(5))).isRegularFile();
+    }
+
+    @Test
+    @DisplayName("reuses stores in the cache directory when set")
+    void cached() throws Exception {
+        environment.setProperty(KeyStoreFiles.DIRECTORY_PROPERTY, directory.toString());
+        environment.setProperty(KeyStoreFiles.MAX_AGE_PROPERTY, "1d");
+        String cert = TestHelper.resourceAsString(new ClassPathResource("pem/test-cert.pem"));
+
+        KeyStoreFiles keyStoreFiles = KeyStoreFiles.get(environment);
+        String first = keyStoreFiles.createKeyStoreLocation("test-truststore", keyStoreFiles.generatePassword(cert), cert, null, "ca");
+        keyStoreFiles = KeyStoreFiles.get(environment);
+        String second = keyStoreFiles.createKeyStoreLocation("test-truststore", keyStoreFiles.generatePassword(cert), cert, null, "ca");
+
+        assertThat(first).isEqualTo(second);
+        assertThat(Paths.get(first.substring(5)).getParent()).isEqualTo(directory);
+    }
+
+    @Test
+    @DisplayName("defers store creation until the location is read when enabled")
+    void deferred() throws Exception {
+        environment.setProperty(KeyStoreFiles.DIRECTORY_PROPERTY, directory.toString());
+        environment.setProperty(KeyStoreFiles.DEFERRED_PROPERTY, "true");
+        String cert = TestHelper.resourceAsString(new ClassPathResource("pem/test-cert.pem"));
+
+        KeyStoreFiles keyStoreFiles = KeyStoreFiles.get(environment);
+        String placeholder = keyStoreFiles.createKeyStoreLocation("test-truststore", keyStoreFiles.generatePassword(cert), cert, null, "ca");
+
+        assertThat(placeholder).startsWith("${").endsWith("}");
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files.filter(path -> path.toString().endsWith(".p12"))).isEmpty();
+        }
+
+        String location = environment.resolvePlaceholders(placeholder);
+        assertThat(location).startsWith("file:");
+        assertThat(Paths.get(location.substring(5))).isRegularFile();
+        assertThat(environment.resolvePlaceholders(placeholder)).isEqualTo(location);
+    }
+
+    @Test
+    @DisplayName("writes stores in the background when enabled")
+    void async() throws Exception {
+        environment.setProperty(KeyStoreFiles.ASYNC_PROPERTY, "true");
+        String cert = TestHelper.resourceAsString(new ClassPathResource("pem/test-cert.pem"));
+        String key = TestHelper.resourceAsString(new ClassPathResource("pem/test-key.pem"));
+
+        KeyStoreFiles keyStoreFiles = KeyStoreFiles.get(environment);
+        String password = keyStoreFiles.generatePassword(cert, key);
+        String location = keyStoreFiles.createKeyStoreLocation("test-keystore", password, cert, key, "test");
+        KeyStoreFiles.awaitPending(environment);
+
+        KeyStore store = load(location, password);
+        assertThat(store.getKey("test", new char[0])).isNotNull();
+    }
+
+    @Test
+    @DisplayName("keeps the background writes of each environment apart")
+    void asyncPerEnvironment() throws Exception {
+        environment.setProperty(KeyStoreFiles.ASYNC_PROPERTY, "true");
+        MockEnvironment other = new MockEnvironment().withProperty(KeyStoreFiles.ASYNC_PROPERTY, "true");
+        String cert = TestHelper.resourceAsString(new ClassPathResource("pem/test-cert.pem"));
+
+        KeyStoreFiles.get(environment).createKeyStoreLocation("test-truststore", "password", cert, null, "ca");
+        KeyStoreFiles.get(other).createKeyStoreLocation("test-truststore", "password", cert, null, "ca");
+        KeyStoreFiles.clearPending(other);
+
+        assertThat(KeyStoreFiles.getPendingCount(environment)).isEqualTo(1);
+        assertThat(KeyStoreFiles.getPendingCount(other)).isZero();
+        KeyStoreFiles.awaitPending(environment);
+        assertThat(KeyStoreFiles.getPendingCount(environment)).isZero();
+    }
+
+    @Test
+    @DisplayName("throws when PEM content is invalid before writing in the background")
+    void asyncInvalid() {
+        environment.setProperty(KeyStoreFiles.ASYNC_PROPERTY, "true");
+
+        KeyStoreFiles keyStoreFiles = KeyStoreFiles.get(environment);
+        assertThrows(IllegalStateException.class, () -> keyStoreFiles.createKeyStoreLocation("test-truststore",
+                "password", "this isn't a valid certificate", null, "ca"));
+    }
+
+    @Test
+    @DisplayName("protects keys with the configured algorithm and iteration count")
+    void protection() throws Exception {
+        environment.setProperty(KeyStoreFiles.PROTECTION_ALGORITHM_PROPERTY, "PBEWithHmacSHA256AndAES_128");
+        environment.setProperty(KeyStoreFiles.ITERATION_COUNT_PROPERTY, "1000");
+        String cert = TestHelper.resourceAsString(new ClassPathResource("pem/test-cert.pem"));
+        String key = TestHelper.resourceAsString(new ClassPathResource("pem/test-key.pem"));
+
+        KeyStoreFiles keyStoreFiles = KeyStoreFiles.get(environment);
+        String password = keyStoreFiles.generatePassword(cert, key);
+        String location = keyStoreFiles.createKeyStoreLocation("test-keystore", password, cert, key, "test");
+
+        KeyStore store = load(location, password);
+        assertThat(store.getKey("test", new char[0])).isNotNull();
+    }
+
+    @Test
+    @DisplayName("does not reuse cached stores once the key protection changes")
+    void cachedProtection() throws Exception {
+        environment.setProperty(KeyStoreFiles.DIRECTORY_PROPERTY, directory.toString());
+        String cert = TestHelper.resourceAsString(new ClassPathResource("pem/test-cert.pem"));
+        String key = TestHelper.resourceAsString(new ClassPathResource("pem/test-key.pem"));
+
+        KeyStoreFiles keyStoreFiles = KeyStoreFiles.get(environment);
+        String password = keyStoreFiles.generatePassword(cert, key);
+        String defaults = keyStoreFiles.createKeyStoreLocation("test-keystore", password, cert, key, "test");
+        environment.setProperty(KeyStoreFiles.ITERATION_COUNT_PROPERTY, "1000");
+        String iterations = KeyStoreFiles.get(environment).createKeyStoreLocation("test-keystore", password, cert, key, "test");
+        environment.setProperty(KeyStoreFiles.PROTECTION_ALGORITHM_PROPERTY, "PBEWithHmacSHA256AndAES_128");
+        String algorithm = KeyStoreFiles.get(environment).createKeyStoreLocation("test-keystore", password, cert, key, "test");
+
+        assertThat(defaults).isNotEqualTo(iterations).isNotEqualTo(algorithm);
+        assertThat(iterations).isNotEqualTo(algorithm);
+    }
+
+    private KeyStore load(String location, String password) throws Exception {
+        KeyStore store = KeyStore.getInstance("PKCS12");
+        try (InputStream in = Files.newInputStream(Paths.get(location.substring(5)))) {
+            store.load(in, password.toCharArray());
+        }
+        return store;
+    }
+
+}
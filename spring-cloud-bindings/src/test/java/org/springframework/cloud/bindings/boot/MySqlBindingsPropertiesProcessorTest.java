@@ -27,6 +27,7 @@ import java.nio.file.Paths;
 import java.util.HashMap;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 import static org.springframework.cloud.bindings.boot.MySqlBindingsPropertiesProcessor.TYPE;
 
 @DisplayName("MySQL BindingsPropertiesProcessor")
@@ -98,6 +99,95 @@ final class MySqlBindingsPropertiesProcessorTest {
                 .containsEntry("spring.r2dbc.username", "test-username");
     }
 
+    @Test
+    @DisplayName("contributes hikari pool properties")
+    void testHikari() {
+        Bindings bindings = new Bindings(
+                new Binding("test-name", Paths.get("test-path"), secret
+                        .withEntry("pool.maximum-pool-size", "20")
+                        .withEntry("pool.minimum-idle", "5")
+                        .withEntry("pool.max-lifetime", "30m")
+                        .withEntry("pool.keepalive-time", "5m"))
+        );
+        new MySqlBindingsPropertiesProcessor().process(environment, bindings, properties);
+        assertThat(properties)
+                .containsEntry("spring.datasource.hikari.maximum-pool-size", "20")
+                .containsEntry("spring.datasource.hikari.minimum-idle", "5")
+                .containsEntry("spring.datasource.hikari.max-lifetime", "1800000")
+                .containsEntry("spring.datasource.hikari.keepalive-time", "300000");
+    }
+
+    @Test
+    @DisplayName("contributes r2dbc pool properties")
+    void testR2dbcPool() {
+        Bindings bindings = new Bindings(
+                new Binding("test-name", Paths.get("test-path"), secret
+                        .withEntry("r2dbc-pool.initial-size", "5")
+                        .withEntry("r2dbc-pool.max-size", "20")
+                        .withEntry("r2dbc-pool.max-idle-time", "10m")
+                        .withEntry("r2dbc-pool.validation-query", "SELECT 1"))
+        );
+        new MySqlBindingsPropertiesProcessor().process(environment, bindings, properties);
+        assertThat(properties)
+                .containsEntry("spring.r2dbc.pool.initial-size", "5")
+                .containsEntry("spring.r2dbc.pool.max-size", "20")
+                .containsEntry("spring.r2dbc.pool.max-idle-time", "600000ms")
+                .containsEntry("spring.r2dbc.pool.validation-query", "SELECT 1");
+    }
+
+    @Test
+    @DisplayName("adds throughput parameters using the names of the mariadb drivers")
+    void testThroughputParameters() {
+        Bindings bindings = new Bindings(
+                new Binding("test-name", Paths.get("test-path"), secret
+                        .withEntry("rewriteBatchedStatements", "true")
+                        .withEntry("cachePrepStmts", "true")
+                        .withEntry("prepStmtCacheSize", "500")
+                        .withEntry("useServerPrepStmts", "True"))
+        );
+        new MySqlBindingsPropertiesProcessor().process(environment, bindings, properties);
+        assertThat(properties)
+                .containsEntry("spring.datasource.url", "jdbc:mariadb://test-host:test-port/test-database?useBulkStmts=true&cachePrepStmts=true&prepStmtCacheSize=500&useServerPrepStmts=true")
+                .containsEntry("spring.r2dbc.url", "r2dbc:mariadb://test-host:test-port/test-database?prepareCacheSize=500&useServerPrepStmts=true");
+    }
+
+    @Test
+    @DisplayName("disables the r2dbc prepared statement cache when cachePrepStmts is false")
+    void testCachePrepStmtsDisabled() {
+        Bindings bindings = new Bindings(
+                new Binding("test-name", Paths.get("test-path"), secret
+                        .withEntry("cachePrepStmts", "false")
+                        .withEntry("prepStmtCacheSize", "500"))
+        );
+        new MySqlBindingsPropertiesProcessor().process(environment, bindings, properties);
+        assertThat(properties)
+                .containsEntry("spring.datasource.url", "jdbc:mariadb://test-host:test-port/test-database?cachePrepStmts=false&prepStmtCacheSize=500")
+                .containsEntry("spring.r2dbc.url", "r2dbc:mariadb://test-host:test-port/test-database?prepareCacheSize=0");
+    }
+
+    @Test
+    @DisplayName("rejects invalid throughput parameters")
+    void testInvalidThroughputParameters() {
+        Bindings bindings = new Bindings(
+                new Binding("test-name", Paths.get("test-path"), secret.withEntry("prepStmtCacheSize", "-1"))
+        );
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new MySqlBindingsPropertiesProcessor().process(environment, bindings, properties))
+                .withMessage("Binding 'test-name' has an invalid 'prepStmtCacheSize': -1 is less than 0");
+    }
+
+    @Test
+    @DisplayName("does not map replica bindings")
+    void testReplica() {
+        Bindings bindings = new Bindings(
+                new Binding("test-name", Paths.get("test-path"), secret
+                        .withEntry("role", "replica")
+                        .withEntry("cluster", "test-cluster"))
+        );
+        new MySqlBindingsPropertiesProcessor().process(environment, bindings, properties);
+        assertThat(properties).isEmpty();
+    }
+
     @Test
     @DisplayName("can be disabled")
     void disabled() {
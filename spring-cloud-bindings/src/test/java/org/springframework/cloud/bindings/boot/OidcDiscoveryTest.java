@@ -0,0 +1,242 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.cloud.bindings.boot;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("OIDC Discovery")
+final class OidcDiscoveryTest {
+
+    private final Map<String, Throwable> failures = new ConcurrentHashMap<>();
+
+    @TempDir
+    Path directory;
+
+    private ProviderStandIn provider;
+
+    @BeforeEach
+    void start() throws IOException {
+        OidcDiscovery.clearCache();
+        provider = new ProviderStandIn();
+    }
+
+    @AfterEach
+    void stop() {
+        provider.stop();
+        OidcDiscovery.clearCache();
+    }
+
+    @Test
+    @DisplayName("is disabled by default")
+    void disabled() {
+        assertThat(OidcDiscovery.get(new MockEnvironment())).isNull();
+    }
+
+    @Test
+    @DisplayName("fetches the configuration of each issuer in parallel")
+    void parallel() {
+        provider.latch = new CountDownLatch(2);
+        OidcDiscovery discovery = new OidcDiscovery(null, Duration.ofDays(1), Duration.ofSeconds(5));
+
+        Map<String, Map<String, Object>> configurations = discovery.discover(
+                List.of(provider.issuer("one"), provider.issuer("two")), failures::put);
+
+        // Each response waits for both requests to arrive, so serial fetches would time out
+        assertThat(failures).isEmpty();
+        assertThat(configurations).containsOnlyKeys(provider.issuer("one"), provider.issuer("two"));
+        assertThat(configurations.get(provider.issuer("one")))
+                .containsEntry("token_endpoint", provider.issuer("one") + "/token");
+    }
+
+    @Test
+    @DisplayName("caches configurations by issuer in the cache directory")
+    void cached() throws IOException {
+        String issuer = provider.issuer("cached");
+
+        new OidcDiscovery(directory, Duration.ofDays(1), Duration.ofSeconds(5)).discover(List.of(issuer), failures::put);
+        OidcDiscovery.clearCache();
+        Map<String, Map<String, Object>> configurations =
+                new OidcDiscovery(directory, Duration.ofDays(1), Duration.ofSeconds(5)).discover(List.of(issuer), failures::put);
+
+        assertThat(provider.requests.get()).isEqualTo(1);
+        assertThat(configurations.get(issuer)).containsEntry("issuer", issuer);
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files).hasSize(1).allMatch(file -> file.toString().endsWith(".json"));
+        }
+    }
+
+    @Test
+    @DisplayName("fetches configurations again when they are older than the cache TTL")
+    void expired() throws IOException {
+        String issuer = provider.issuer("expired");
+
+        new OidcDiscovery(directory, Duration.ofHours(1), Duration.ofSeconds(5)).discover(List.of(issuer), failures::put);
+        OidcDiscovery.clearCache();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(Duration.ofHours(2))));
+            }
+        }
+        new OidcDiscovery(directory, Duration.ofHours(1), Duration.ofSeconds(5)).discover(List.of(issuer), failures::put);
+
+        assertThat(provider.requests.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("uses an expired configuration when it cannot be fetched again")
+    void stale() throws IOException {
+        String issuer = provider.issuer("stale");
+        new OidcDiscovery(directory, Duration.ofDays(1), Duration.ofSeconds(5)).discover(List.of(issuer), failures::put);
+        OidcDiscovery.clearCache();
+        provider.stop();
+
+        Map<String, Map<String, Object>> configurations =
+                new OidcDiscovery(directory, Duration.ZERO, Duration.ofSeconds(5)).discover(List.of(issuer), failures::put);
+
+        assertThat(configurations.get(issuer)).containsEntry("issuer", issuer);
+        assertThat(failures).containsOnlyKeys(issuer);
+    }
+
+    @Test
+    @DisplayName("falls back to the authorization server metadata location")
+    void authorizationServer() {
+        String issuer = provider.issuer("oauth");
+
+        Map<String, Map<String, Object>> configurations =
+                new OidcDiscovery(null, Duration.ofDays(1), Duration.ofSeconds(5)).discover(List.of(issuer), failures::put);
+
+        assertThat(failures).isEmpty();
+        assertThat(configurations.get(issuer)).containsEntry("token_endpoint", issuer + "/token");
+    }
+
+    @Test
+    @DisplayName("rejects configurations for a different issuer")
+    void mismatchedIssuer() {
+        String issuer = provider.issuer("mismatched");
+
+        Map<String, Map<String, Object>> configurations =
+                new OidcDiscovery(null, Duration.ofDays(1), Duration.ofSeconds(5)).discover(List.of(issuer), failures::put);
+
+        assertThat(configurations).isEmpty();
+        assertThat(failures.get(issuer)).hasMessageContaining("does not match");
+    }
+
+    @Test
+    @DisplayName("tries the same locations as Spring Security")
+    void configurationUris() {
+        assertThat(OidcDiscovery.getConfigurationUris("https://example.com/issuer/1")).containsExactly(
+                URI.create("https://example.com/issuer/1/.well-known/openid-configuration"),
+                URI.create("https://example.com/.well-known/openid-configuration/issuer/1"),
+                URI.create("https://example.com/.well-known/oauth-authorization-server/issuer/1"));
+        assertThat(OidcDiscovery.getConfigurationUris("https://example.com/")).containsExactly(
+                URI.create("https://example.com/.well-known/openid-configuration"),
+                URI.create("https://example.com/.well-known/openid-configuration"),
+                URI.create("https://example.com/.well-known/oauth-authorization-server"));
+    }
+
+    /**
+     * A local stand-in for OAuth2 providers.  Issuers named {@code oauth} only publish authorization server metadata,
+     * and issuers named {@code mismatched} publish a configuration for another issuer.
+     */
+    static final class ProviderStandIn {
+
+        final AtomicInteger requests = new AtomicInteger();
+
+        volatile CountDownLatch latch = new CountDownLatch(0);
+
+        private final HttpServer server;
+
+        ProviderStandIn() throws IOException {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+            server.setExecutor(Executors.newCachedThreadPool());
+            server.createContext("/", this::handle);
+            server.start();
+        }
+
+        String issuer(String name) {
+            return String.format("http://%s:%d/%s", server.getAddress().getHostString(), server.getAddress().getPort(), name);
+        }
+
+        void stop() {
+            server.stop(0);
+        }
+
+        private void handle(HttpExchange exchange) throws IOException {
+            String path = exchange.getRequestURI().getPath();
+            String name;
+            if (path.endsWith("/.well-known/openid-configuration") && !path.startsWith("/oauth")) {
+                name = path.substring(1, path.indexOf('/', 1));
+            } else if (path.equals("/.well-known/oauth-authorization-server/oauth")) {
+                name = "oauth";
+            } else {
+                exchange.sendResponseHeaders(404, -1);
+                exchange.close();
+                return;
+            }
+
+            requests.incrementAndGet();
+            latch.countDown();
+            try {
+                latch.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            String issuer = issuer(name);
+            byte[] body = String.format("{\"issuer\":\"%s\",\"authorization_endpoint\":\"%2$s/authorize\","
+                            + "\"token_endpoint\":\"%2$s/token\",\"userinfo_endpoint\":\"%2$s/userinfo\",\"jwks_uri\":\"%2$s/jwks\"}",
+                    "mismatched".equals(name) ? issuer("other") : issuer, issuer).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+
+    }
+
+}
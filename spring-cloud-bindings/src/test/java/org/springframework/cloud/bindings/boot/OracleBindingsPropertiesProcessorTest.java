@@ -27,6 +27,7 @@ import java.nio.file.Paths;
 import java.util.HashMap;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 import static org.springframework.cloud.bindings.boot.OracleBindingsPropertiesProcessor.TYPE;
 
 @DisplayName("Oracle BindingsPropertiesProcessor")
@@ -98,6 +99,159 @@ final class OracleBindingsPropertiesProcessorTest {
                 .containsEntry("spring.r2dbc.username", "test-username");
     }
 
+    @Test
+    @DisplayName("contributes hikari pool properties")
+    void testHikari() {
+        Bindings bindings = new Bindings(
+                new Binding("test-name", Paths.get("test-path"), secret
+                        .withEntry("pool.maximum-pool-size", "20")
+                        .withEntry("pool.minimum-idle", "5")
+                        .withEntry("pool.max-lifetime", "30m")
+                        .withEntry("pool.keepalive-time", "5m"))
+        );
+        new OracleBindingsPropertiesProcessor().process(environment, bindings, properties);
+        assertThat(properties)
+                .containsEntry("spring.datasource.hikari.maximum-pool-size", "20")
+                .containsEntry("spring.datasource.hikari.minimum-idle", "5")
+                .containsEntry("spring.datasource.hikari.max-lifetime", "1800000")
+                .containsEntry("spring.datasource.hikari.keepalive-time", "300000");
+    }
+
+    @Test
+    @DisplayName("contributes r2dbc pool properties")
+    void testR2dbcPool() {
+        Bindings bindings = new Bindings(
+                new Binding("test-name", Paths.get("test-path"), secret
+                        .withEntry("r2dbc-pool.initial-size", "5")
+                        .withEntry("r2dbc-pool.max-size", "20")
+                        .withEntry("r2dbc-pool.max-idle-time", "10m")
+                        .withEntry("r2dbc-pool.validation-query", "SELECT 1"))
+        );
+        new OracleBindingsPropertiesProcessor().process(environment, bindings, properties);
+        assertThat(properties)
+                .containsEntry("spring.r2dbc.pool.initial-size", "5")
+                .containsEntry("spring.r2dbc.pool.max-size", "20")
+                .containsEntry("spring.r2dbc.pool.max-idle-time", "600000ms")
+                .containsEntry("spring.r2dbc.pool.validation-query", "SELECT 1");
+    }
+
+    @Test
+    @DisplayName("selects ucp when it is on the classpath")
+    void testUcp() {
+        Bindings bindings = new Bindings(
+                new Binding("test-name", Paths.get("test-path"), secret
+                        .withEntry("pool.type", "ucp")
+                        .withEntry("pool.maximum-pool-size", "20")
+                        .withEntry("ucp.initial-pool-size", "5")
+                        .withEntry("ucp.min-pool-size", "5")
+                        .withEntry("ucp.max-pool-size", "20")
+                        .withEntry("ucp.connection-wait-timeout", "5s")
+                        .withEntry("ucp.inactive-connection-timeout", "5m")
+                        .withEntry("ucp.fast-connection-failover-enabled", "true")
+                        .withEntry("ucp.ons-configuration", "nodes=racnode1:6200,racnode2:6200"))
+        );
+        new OracleBindingsPropertiesProcessor(true).process(environment, bindings, properties);
+        assertThat(properties)
+                .containsEntry("spring.datasource.type", "oracle.ucp.jdbc.PoolDataSourceImpl")
+                .containsEntry("spring.datasource.oracleucp.initial-pool-size", "5")
+                .containsEntry("spring.datasource.oracleucp.min-pool-size", "5")
+                .containsEntry("spring.datasource.oracleucp.max-pool-size", "20")
+                .containsEntry("spring.datasource.oracleucp.connection-wait-timeout", "5")
+                .containsEntry("spring.datasource.oracleucp.inactive-connection-timeout", "300")
+                .containsEntry("spring.datasource.oracleucp.fast-connection-failover-enabled", "true")
+                .containsEntry("spring.datasource.oracleucp.o-n-s-configuration", "nodes=racnode1:6200,racnode2:6200")
+                .doesNotContainKey("spring.datasource.hikari.maximum-pool-size");
+    }
+
+    @Test
+    @DisplayName("falls back to hikari when ucp is not on the classpath")
+    void testUcpNotPresent() {
+        Bindings bindings = new Bindings(
+                new Binding("test-name", Paths.get("test-path"), secret
+                        .withEntry("pool.type", "ucp")
+                        .withEntry("pool.maximum-pool-size", "20")
+                        .withEntry("ucp.max-pool-size", "20"))
+        );
+        new OracleBindingsPropertiesProcessor(false).process(environment, bindings, properties);
+        assertThat(properties)
+                .containsEntry("spring.datasource.hikari.maximum-pool-size", "20")
+                .doesNotContainKey("spring.datasource.type")
+                .doesNotContainKey("spring.datasource.oracleucp.max-pool-size");
+    }
+
+    @Test
+    @DisplayName("shares the maximum connections of the binding between the ucp and r2dbc pools")
+    void testUcpMaxConnections() {
+        Bindings bindings = new Bindings(
+                new Binding("test-name", Paths.get("test-path"), secret
+                        .withEntry("pool.type", "ucp")
+                        .withEntry("ucp.initial-pool-size", "2")
+                        .withEntry("pool.max-connections", "8"))
+        );
+        new OracleBindingsPropertiesProcessor(true).process(environment, bindings, properties);
+        assertThat(properties)
+                .containsEntry("spring.datasource.oracleucp.initial-pool-size", "2")
+                .containsEntry("spring.datasource.oracleucp.max-pool-size", "4")
+                .containsEntry("spring.r2dbc.pool.max-size", "4");
+    }
+
+    @Test
+    @DisplayName("rejects invalid ucp properties")
+    void testUcpInvalid() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new OracleBindingsPropertiesProcessor(true).process(environment, new Bindings(
+                        new Binding("test-name", Paths.get("test-path"), secret.withEntry("pool.type", "dbcp"))), properties))
+                .withMessage("Binding 'test-name' has an invalid 'pool.type': 'dbcp' is not hikari or ucp");
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new OracleBindingsPropertiesProcessor(true).process(environment, new Bindings(
+                        new Binding("test-name", Paths.get("test-path"), new FluentMap().withEntry(Binding.TYPE, TYPE)
+                                .withEntry("pool.type", "ucp")
+                                .withEntry("ucp.min-pool-size", "30")
+                                .withEntry("ucp.max-pool-size", "20"))), properties))
+                .withMessage("Binding 'test-name' has an invalid 'ucp.min-pool-size': must not be greater than ucp.max-pool-size (20)");
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new OracleBindingsPropertiesProcessor(true).process(environment, new Bindings(
+                        new Binding("test-name", Paths.get("test-path"), new FluentMap().withEntry(Binding.TYPE, TYPE)
+                                .withEntry("pool.type", "ucp")
+                                .withEntry("ucp.connection-wait-timeout", "1500ms"))), properties))
+                .withMessageContaining("PT1.5S is not a whole number of seconds");
+    }
+
+    @Test
+    @DisplayName("contributes driver connection properties")
+    void testConnectionProperties() {
+        Bindings bindings = new Bindings(
+                new Binding("test-name", Paths.get("test-path"), secret
+                        .withEntry("implicitStatementCacheSize", "50")
+                        .withEntry("defaultRowPrefetch", "100"))
+        );
+        new OracleBindingsPropertiesProcessor(false).process(environment, bindings, properties);
+        assertThat(properties)
+                .containsEntry("spring.datasource.hikari.data-source-properties[oracle.jdbc.implicitStatementCacheSize]", "50")
+                .containsEntry("spring.datasource.hikari.data-source-properties[defaultRowPrefetch]", "100")
+                .containsEntry("spring.r2dbc.url", "r2dbc:oracle://test-host:test-port/test-database?oracle.jdbc.implicitStatementCacheSize=50&oracle.jdbc.defaultRowPrefetch=100");
+
+        properties.clear();
+        new OracleBindingsPropertiesProcessor(true).process(environment, new Bindings(
+                new Binding("test-name", Paths.get("test-path"), secret.withEntry("pool.type", "ucp"))
+        ), properties);
+        assertThat(properties)
+                .containsEntry("spring.datasource.oracleucp.connection-properties[oracle.jdbc.implicitStatementCacheSize]", "50")
+                .containsEntry("spring.datasource.oracleucp.connection-properties[defaultRowPrefetch]", "100");
+    }
+
+    @Test
+    @DisplayName("does not map replica bindings")
+    void testReplica() {
+        Bindings bindings = new Bindings(
+                new Binding("test-name", Paths.get("test-path"), secret
+                        .withEntry("role", "replica")
+                        .withEntry("cluster", "test-cluster"))
+        );
+        new OracleBindingsPropertiesProcessor().process(environment, bindings, properties);
+        assertThat(properties).isEmpty();
+    }
+
     @Test
     @DisplayName("can be disabled")
     void disabled() {
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bindings.boot;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.bindings.Binding;
+import org.springframework.cloud.bindings.Bindings;
+import org.springframework.cloud.bindings.FluentMap;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.nio.file.Paths;
+import java.util.HashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Pass-through BindingsPropertiesProcessor")
+final class PassThroughBindingsPropertiesProcessorTest {
+
+    private final Bindings bindings = new Bindings(
+            new Binding("test-name", Paths.get("test-path"),
+                    new FluentMap()
+                            .withEntry(Binding.TYPE, PostgreSqlBindingsPropertiesProcessor.TYPE)
+                            .withEntry("host", "test-host")
+                            .withEntry("passthrough.spring.datasource.hikari.maximum-pool-size", "20")
+                            .withEntry("passthrough.spring.r2dbc.pool.max-size", "30")
+                            .withEntry("passthrough.spring.datasource.url", "test-url")
+            )
+    );
+
+    private final MockEnvironment environment = new MockEnvironment();
+
+    private final HashMap<String, Object> properties = new HashMap<>();
+
+    @Test
+    @DisplayName("passes through allowed properties")
+    void allowed() {
+        new PassThroughBindingsPropertiesProcessor().process(environment, bindings, properties);
+
+        assertThat(properties)
+                .containsEntry("spring.datasource.hikari.maximum-pool-size", "20")
+                .containsEntry("spring.r2dbc.pool.max-size", "30")
+                .doesNotContainKey("spring.datasource.url")
+                .hasSize(2);
+    }
+
+    @Test
+    @DisplayName("uses configured patterns")
+    void configuredPatterns() {
+        environment.setProperty("org.springframework.cloud.bindings.boot.postgresql.passthrough",
+                "spring.datasource.url, spring.r2dbc.pool.*");
+
+        new PassThroughBindingsPropertiesProcessor().process(environment, bindings, properties);
+
+        assertThat(properties)
+                .containsEntry("spring.datasource.url", "test-url")
+                .containsEntry("spring.r2dbc.pool.max-size", "30")
+                .hasSize(2);
+    }
+
+    @Test
+    @DisplayName("passes nothing through for types without patterns")
+    void unknownType() {
+        Bindings bindings = new Bindings(
+                new Binding("test-name", Paths.get("test-path"),
+                        new FluentMap()
+                                .withEntry(Binding.TYPE, "test-type")
+                                .withEntry("passthrough.spring.datasource.hikari.maximum-pool-size", "20")
+                )
+        );
+
+        new PassThroughBindingsPropertiesProcessor().process(environment, bindings, properties);
+
+        assertThat(properties).isEmpty();
+    }
+
+    @Test
+    @DisplayName("can be disabled")
+    void disabled() {
+        environment.setProperty("org.springframework.cloud.bindings.boot.passthrough.enable", "false");
+
+        new PassThroughBindingsPropertiesProcessor().process(environment, bindings, properties);
+
+        assertThat(properties).isEmpty();
+    }
+
+    @Test
+    @DisplayName("is disabled with the binding type")
+    void typeDisabled() {
+        environment.setProperty("org.springframework.cloud.bindings.boot.postgresql.enable", "false");
+
+        new PassThroughBindingsPropertiesProcessor().process(environment, bindings, properties);
+
+        assertThat(properties).isEmpty();
+    }
+
+}
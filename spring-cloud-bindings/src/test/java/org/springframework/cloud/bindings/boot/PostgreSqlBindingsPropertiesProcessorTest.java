@@ -27,6 +27,7 @@ import java.nio.file.Paths;
 import java.util.HashMap;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 import static org.springframework.cloud.bindings.boot.PostgreSqlBindingsPropertiesProcessor.TYPE;
 
 @DisplayName("PostgreSQL BindingsPropertiesProcessor")
@@ -98,6 +99,103 @@ final class PostgreSqlBindingsPropertiesProcessorTest {
                 .containsEntry("spring.r2dbc.username", "test-username");
     }
 
+    @Test
+    @DisplayName("contributes hikari pool properties")
+    void testHikari() {
+        Bindings bindings = new Bindings(
+                new Binding("test-name", Paths.get("test-path"), secret
+                        .withEntry("pool.maximum-pool-size", "20")
+                        .withEntry("pool.minimum-idle", "5")
+                        .withEntry("pool.max-lifetime", "30m")
+                        .withEntry("pool.keepalive-time", "5m"))
+        );
+        new PostgreSqlBindingsPropertiesProcessor().process(environment, bindings, properties);
+        assertThat(properties)
+                .containsEntry("spring.datasource.hikari.maximum-pool-size", "20")
+                .containsEntry("spring.datasource.hikari.minimum-idle", "5")
+                .containsEntry("spring.datasource.hikari.max-lifetime", "1800000")
+                .containsEntry("spring.datasource.hikari.keepalive-time", "300000");
+    }
+
+    @Test
+    @DisplayName("contributes r2dbc pool properties")
+    void testR2dbcPool() {
+        Bindings bindings = new Bindings(
+                new Binding("test-name", Paths.get("test-path"), secret
+                        .withEntry("r2dbc-pool.initial-size", "5")
+                        .withEntry("r2dbc-pool.max-size", "20")
+                        .withEntry("r2dbc-pool.max-idle-time", "10m")
+                        .withEntry("r2dbc-pool.validation-query", "SELECT 1"))
+        );
+        new PostgreSqlBindingsPropertiesProcessor().process(environment, bindings, properties);
+        assertThat(properties)
+                .containsEntry("spring.r2dbc.pool.initial-size", "5")
+                .containsEntry("spring.r2dbc.pool.max-size", "20")
+                .containsEntry("spring.r2dbc.pool.max-idle-time", "600000ms")
+                .containsEntry("spring.r2dbc.pool.validation-query", "SELECT 1");
+    }
+
+    @Test
+    @DisplayName("adds performance parameters to the jdbc and r2dbc urls")
+    void testPerformanceParameters() {
+        Bindings bindings = new Bindings(
+                new Binding("test-name", Paths.get("test-path"), secret
+                        .withEntry("sslmode", "require")
+                        .withEntry("reWriteBatchedInserts", "TRUE")
+                        .withEntry("defaultRowFetchSize", "500")
+                        .withEntry("prepareThreshold", "3"))
+        );
+        new PostgreSqlBindingsPropertiesProcessor().process(environment, bindings, properties);
+        assertThat(properties)
+                .containsEntry("spring.datasource.url", "jdbc:postgresql://test-host:test-port/test-database?sslmode=require&reWriteBatchedInserts=true&defaultRowFetchSize=500&prepareThreshold=3")
+                .containsEntry("spring.r2dbc.url", "r2dbc:postgresql://test-host:test-port/test-database?sslmode=require&fetchSize=500");
+    }
+
+    @Test
+    @DisplayName("disables server-side prepared statements for pgbouncer")
+    void testPgBouncer() {
+        Bindings bindings = new Bindings(
+                new Binding("test-name", Paths.get("test-path"), secret.withEntry("pooler", "pgbouncer"))
+        );
+        new PostgreSqlBindingsPropertiesProcessor().process(environment, bindings, properties);
+        assertThat(properties)
+                .containsEntry("spring.datasource.url", "jdbc:postgresql://test-host:test-port/test-database?prepareThreshold=0")
+                .containsEntry("spring.r2dbc.url", "r2dbc:postgresql://test-host:test-port/test-database?preparedStatementCacheQueries=0");
+    }
+
+    @Test
+    @DisplayName("rejects invalid performance parameters")
+    void testInvalidPerformanceParameters() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new PostgreSqlBindingsPropertiesProcessor().process(environment, new Bindings(
+                        new Binding("test-name", Paths.get("test-path"), new FluentMap().withEntry(Binding.TYPE, TYPE)
+                                .withEntry("pooler", "pgbouncer")
+                                .withEntry("prepareThreshold", "5"))), properties))
+                .withMessage("Binding 'test-name' has an invalid 'prepareThreshold': must be 0 when pooler is pgbouncer");
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new PostgreSqlBindingsPropertiesProcessor().process(environment, new Bindings(
+                        new Binding("test-name", Paths.get("test-path"), new FluentMap().withEntry(Binding.TYPE, TYPE)
+                                .withEntry("pooler", "pgpool"))), properties))
+                .withMessageContaining("'pgpool' is not supported");
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new PostgreSqlBindingsPropertiesProcessor().process(environment, new Bindings(
+                        new Binding("test-name", Paths.get("test-path"), new FluentMap().withEntry(Binding.TYPE, TYPE)
+                                .withEntry("reWriteBatchedInserts", "yes"))), properties))
+                .withMessageContaining("'yes' is not true or false");
+    }
+
+    @Test
+    @DisplayName("does not map replica bindings")
+    void testReplica() {
+        Bindings bindings = new Bindings(
+                new Binding("test-name", Paths.get("test-path"), secret
+                        .withEntry("role", "replica")
+                        .withEntry("cluster", "test-cluster"))
+        );
+        new PostgreSqlBindingsPropertiesProcessor().process(environment, bindings, properties);
+        assertThat(properties).isEmpty();
+    }
+
     @Test
     @DisplayName("can be disabled")
     void disabled() {
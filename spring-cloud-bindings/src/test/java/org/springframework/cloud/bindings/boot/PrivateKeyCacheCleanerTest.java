@@ -0,0 +1,42 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bindings.boot;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.event.ApplicationFailedEvent;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.ContextRefreshedEvent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Private Key Cache Cleaner")
+final class PrivateKeyCacheCleanerTest {
+
+    private final PrivateKeyCacheCleaner cleaner = new PrivateKeyCacheCleaner();
+
+    @Test
+    @DisplayName("clears the cache once the context has been refreshed or has failed")
+    void supportsEventType() {
+        assertThat(cleaner.supportsEventType(ContextRefreshedEvent.class)).isTrue();
+        assertThat(cleaner.supportsEventType(ApplicationFailedEvent.class)).isTrue();
+        assertThat(cleaner.supportsEventType(ApplicationReadyEvent.class)).isFalse();
+        assertThat(cleaner.supportsEventType(ContextClosedEvent.class)).isFalse();
+    }
+
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bindings.boot;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.cloud.bindings.Binding;
+import org.springframework.cloud.bindings.Bindings;
+import org.springframework.cloud.bindings.FluentMap;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.mock.env.MockEnvironment;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.springframework.cloud.bindings.boot.ReplicaDataSourceRegistrar.DATA_SOURCE_BEAN_NAME;
+
+@DisplayName("Replica DataSource Registrar")
+final class ReplicaDataSourceRegistrarTest {
+
+    private final MockEnvironment environment = new MockEnvironment()
+            .withProperty("spring.datasource.type", DataSourceStandIn.class.getName());
+
+    private final Map<String, Object> properties = new HashMap<>();
+
+    private final ApplicationContextRunner runner = new ApplicationContextRunner(() -> {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.setEnvironment(environment);
+        return context;
+    }).withConfiguration(AutoConfigurations.of(RoutingDataSourceAutoConfiguration.class, DataSourceAutoConfiguration.class));
+
+    @Test
+    @DisplayName("registers a routing data source for the replicas of the primary")
+    void registers() {
+        process(binding("primary", "primary-host", null, "orders"),
+                binding("replica-1", "replica-1-host", "replica", "orders"),
+                binding("replica-2", "replica-2-host", "replica", "orders"));
+        assertThat(properties).containsEntry("spring.datasource.url", "jdbc:mariadb://primary-host:3306/test-database");
+        environment.getPropertySources().addFirst(new MapPropertySource("bindings", properties));
+
+        runner.run(context -> {
+            assertThat(context).hasSingleBean(DataSource.class);
+            ReplicaRoutingDataSource dataSource = context.getBean(DATA_SOURCE_BEAN_NAME, ReplicaRoutingDataSource.class);
+            assertThat(dataSource.getPrimary()).hasToString("jdbc:mariadb://primary-host:3306/test-database");
+            assertThat(dataSource.getReplicas()).map(Object::toString).containsExactly(
+                    "jdbc:mariadb://replica-1-host:3306/test-database",
+                    "jdbc:mariadb://replica-2-host:3306/test-database");
+        });
+    }
+
+    @Test
+    @DisplayName("resolves placeholders in the properties of replicas")
+    void placeholders() {
+        environment.setProperty("test.replica-url", "jdbc:mariadb://resolved-host:3306/test-database");
+        Binding replica = binding("replica", "replica-host", "replica", "orders");
+        FluentMap secret = new FluentMap();
+        secret.putAll(replica.getSecret());
+        process(binding("primary", "primary-host", null, "orders"),
+                new Binding(replica.getName(), replica.getPath(), secret
+                        .withEntry(Binding.TYPE, replica.getType())
+                        .withEntry("jdbc-url", "${test.replica-url}")));
+        environment.getPropertySources().addFirst(new MapPropertySource("bindings", properties));
+
+        runner.run(context -> assertThat(context.getBean(ReplicaRoutingDataSource.class).getReplicas())
+                .map(Object::toString).containsExactly("jdbc:mariadb://resolved-host:3306/test-database"));
+    }
+
+    @Test
+    @DisplayName("backs off when the application defines a data source")
+    void userDataSource() {
+        process(binding("primary", "primary-host", null, "orders"),
+                binding("replica", "replica-host", "replica", "orders"));
+        environment.getPropertySources().addFirst(new MapPropertySource("bindings", properties));
+
+        runner.withUserConfiguration(UserDataSourceConfiguration.class).run(context -> {
+            assertThat(context).hasSingleBean(DataSource.class);
+            assertThat(context.getBean(DataSource.class)).hasToString("user");
+        });
+    }
+
+    @Test
+    @DisplayName("does not register a data source for replicas of another cluster")
+    void otherCluster() {
+        process(binding("primary", "primary-host", "primary", "orders"),
+                binding("replica", "replica-host", "replica", "customers"));
+        environment.getPropertySources().addFirst(new MapPropertySource("bindings", properties));
+
+        runner.run(context -> assertThat(context).doesNotHaveBean(ReplicaRoutingDataSource.class));
+    }
+
+    @Test
+    @DisplayName("ignores replicas when disabled")
+    void disabled() {
+        environment.setProperty("org.springframework.cloud.bindings.boot.replicas.enable", "false");
+        process(binding("primary", "primary-host", null, "orders"),
+                binding("replica", "replica-host", "replica", "orders"));
+        assertThat(properties).containsEntry("spring.datasource.url", "jdbc:mariadb://primary-host:3306/test-database");
+        environment.getPropertySources().addFirst(new MapPropertySource("bindings", properties));
+
+        runner.run(context -> assertThat(context).doesNotHaveBean(ReplicaRoutingDataSource.class));
+    }
+
+    @Test
+    @DisplayName("treats unknown roles as primaries and rejects replicas without a cluster")
+    void invalid() {
+        process(binding("test-name", "test-host", "standby", null));
+        assertThat(properties).containsEntry("spring.datasource.url", "jdbc:mariadb://test-host:3306/test-database");
+
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> process(binding("test-name", "test-host", "replica", null)))
+                .withMessage("Binding 'test-name' has an invalid 'cluster': is required for a replica");
+    }
+
+    private void process(Binding... bindings) {
+        new MySqlBindingsPropertiesProcessor().process(environment, new Bindings(bindings), properties);
+    }
+
+    private static Binding binding(String name, String host, String role, String cluster) {
+        FluentMap secret = new FluentMap()
+                .withEntry(Binding.TYPE, MySqlBindingsPropertiesProcessor.TYPE)
+                .withEntry("database", "test-database")
+                .withEntry("host", host)
+                .withEntry("password", "test-password")
+                .withEntry("port", "3306")
+                .withEntry("username", "test-username");
+        if (role != null) {
+            secret.withEntry("role", role);
+        }
+        if (cluster != null) {
+            secret.withEntry("cluster", cluster);
+        }
+        return new Binding(name, Paths.get("test-path", name), secret);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class UserDataSourceConfiguration {
+
+        @Bean
+        DataSource dataSource() {
+            DataSourceStandIn dataSource = new DataSourceStandIn();
+            dataSource.setUrl("user");
+            return dataSource;
+        }
+
+    }
+
+    /**
+     * A {@link DataSource} that can be created by {@code DataSourceBuilder}, and is identified by its URL.
+     */
+    public static final class DataSourceStandIn implements DataSource {
+
+        private String url;
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public void setUsername(String username) {
+        }
+
+        public void setPassword(String password) {
+        }
+
+        public void setDriverClassName(String driverClassName) {
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            throw new SQLException("Not connected");
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            throw new SQLException("Not connected");
+        }
+
+        @Override
+        public PrintWriter getLogWriter() {
+            return null;
+        }
+
+        @Override
+        public void setLogWriter(PrintWriter out) {
+        }
+
+        @Override
+        public void setLoginTimeout(int seconds) {
+        }
+
+        @Override
+        public int getLoginTimeout() {
+            return 0;
+        }
+
+        @Override
+        public Logger getParentLogger() {
+            return Logger.getGlobal();
+        }
+
+        @Override
+        public <T> T unwrap(Class<T> iface) throws SQLException {
+            throw new SQLException("Not a wrapper");
+        }
+
+        @Override
+        public boolean isWrapperFor(Class<?> iface) {
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return url;
+        }
+
+    }
+
+}
@@ -0,0 +1,249 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bindings.boot;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Replica Routing DataSource")
+final class ReplicaRoutingDataSourceTest {
+
+    private final DataSourceStandIn primary = new DataSourceStandIn("primary");
+
+    private final DataSourceStandIn replica1 = new DataSourceStandIn("replica-1");
+
+    private final DataSourceStandIn replica2 = new DataSourceStandIn("replica-2");
+
+    private final ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(primary, List.of(replica1, replica2));
+
+    @AfterEach
+    void clearReadOnly() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    @DisplayName("routes read-only transactions to replicas in turn")
+    void readOnly() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        for (int i = 0; i < 3; i++) {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setReadOnly(true);
+                connection.setAutoCommit(false);
+                connection.createStatement();
+                connection.commit();
+            }
+        }
+
+        assertThat(replica1.calls).containsExactly("setReadOnly", "setAutoCommit", "createStatement", "commit", "close",
+                "setReadOnly", "setAutoCommit", "createStatement", "commit", "close");
+        assertThat(replica2.calls).containsExactly("setReadOnly", "setAutoCommit", "createStatement", "commit", "close");
+        assertThat(primary.calls).isEmpty();
+    }
+
+    @Test
+    @DisplayName("routes other connections to the primary")
+    void readWrite() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.createStatement();
+        }
+
+        assertThat(primary.calls).containsExactly("createStatement", "close");
+        assertThat(replica1.calls).isEmpty();
+        assertThat(replica2.calls).isEmpty();
+    }
+
+    @Test
+    @DisplayName("does not obtain a connection until it is used")
+    void lazy() throws SQLException {
+        dataSource.afterPropertiesSet();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setReadOnly(true);
+            assertThat(connection.isReadOnly()).isTrue();
+            connection.commit();
+        }
+
+        assertThat(primary.obtained + replica1.obtained + replica2.obtained).isZero();
+    }
+
+    @Test
+    @DisplayName("falls back to the primary when no replica is available")
+    void fallback() throws SQLException {
+        replica1.available = false;
+        replica2.available = false;
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setReadOnly(true);
+            connection.createStatement();
+        }
+
+        assertThat(primary.calls).containsExactly("setReadOnly", "createStatement", "close");
+    }
+
+    @Test
+    @DisplayName("backs off a replica that is not available")
+    void backoff() throws SQLException {
+        replica1.available = false;
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        for (int i = 0; i < 4; i++) {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.createStatement();
+            }
+        }
+
+        assertThat(replica1.attempts).isEqualTo(1);
+        assertThat(replica2.obtained).isEqualTo(4);
+        assertThat(primary.obtained).isZero();
+    }
+
+    @Test
+    @DisplayName("tries a replica again once its back-off has elapsed")
+    void retry() throws SQLException {
+        ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(primary, List.of(replica1), Duration.ZERO);
+        replica1.available = false;
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try (Connection connection = dataSource.getConnection()) {
+            connection.createStatement();
+        }
+        replica1.available = true;
+        try (Connection connection = dataSource.getConnection()) {
+            connection.createStatement();
+        }
+
+        assertThat(replica1.attempts).isEqualTo(2);
+        assertThat(replica1.obtained).isEqualTo(1);
+        assertThat(primary.obtained).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("closes closeable data sources")
+    void close() throws SQLException {
+        dataSource.close();
+
+        assertThat(primary.closed).isTrue();
+        assertThat(replica1.closed).isTrue();
+        assertThat(replica2.closed).isTrue();
+    }
+
+    /**
+     * A {@link DataSource} that records the calls made to its connections.
+     */
+    private static final class DataSourceStandIn implements DataSource, AutoCloseable {
+
+        private final String name;
+
+        private final List<String> calls = new ArrayList<>();
+
+        private boolean available = true;
+
+        private int attempts;
+
+        private int obtained;
+
+        private boolean closed;
+
+        private DataSourceStandIn(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            attempts++;
+            if (!available) {
+                throw new SQLException(name + " is not available");
+            }
+
+            obtained++;
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "getAutoCommit":
+                                return true;
+                            case "getTransactionIsolation":
+                                return Connection.TRANSACTION_READ_COMMITTED;
+                            case "toString":
+                                return name;
+                            default:
+                                calls.add(method.getName());
+                                return null;
+                        }
+                    });
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return getConnection();
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        @Override
+        public PrintWriter getLogWriter() {
+            return null;
+        }
+
+        @Override
+        public void setLogWriter(PrintWriter out) {
+        }
+
+        @Override
+        public void setLoginTimeout(int seconds) {
+        }
+
+        @Override
+        public int getLoginTimeout() {
+            return 0;
+        }
+
+        @Override
+        public Logger getParentLogger() {
+            return Logger.getGlobal();
+        }
+
+        @Override
+        public <T> T unwrap(Class<T> iface) throws SQLException {
+            throw new SQLException("Not a wrapper");
+        }
+
+        @Override
+        public boolean isWrapperFor(Class<?> iface) {
+            return false;
+        }
+
+    }
+
+}
@@ -18,15 +18,19 @@ package org.springframework.cloud.bindings.boot;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationPreparedEvent;
 import org.springframework.cloud.bindings.Binding;
 import org.springframework.cloud.bindings.Bindings;
 import org.springframework.cloud.bindings.FluentMap;
+import org.springframework.context.support.GenericApplicationContext;
 import org.springframework.mock.env.MockEnvironment;
 
 import java.nio.file.Paths;
 import java.util.HashMap;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.cloud.bindings.boot.SpringSecurityOAuth2BindingsPropertiesProcessor.JWK_SET_BEAN_NAME_PREFIX;
 import static org.springframework.cloud.bindings.boot.SpringSecurityOAuth2BindingsPropertiesProcessor.TYPE;
 
 @DisplayName("Spring Security OAuth2 BindingsPropertiesProcessor")
@@ -209,6 +213,103 @@ final class SpringSecurityOAuth2BindingsPropertiesProcessorTest {
                 .containsEntry("spring.security.oauth2.client.registration.binding-name.redirect-uri", "https://other-app.example.com/login");
     }
 
+    @Test
+    @DisplayName("registers a JWK set bean for bindings with jwks.json")
+    void jwkSet() throws Exception {
+        String jwks = BindingJwkSetTest.jwks(BindingJwkSetTest.rsa("rsa-1", BindingJwkSetTest.rsaKey()));
+        Bindings bindings = new Bindings(new Binding("resource-server", Paths.get("test-path"),
+                new FluentMap()
+                        .withEntry(Binding.TYPE, TYPE)
+                        .withEntry("jwks.json", jwks)
+        ));
+        GenericApplicationContext context = new GenericApplicationContext();
+        context.setEnvironment(environment);
+
+        SpringSecurityOAuth2BindingsPropertiesProcessor processor = new SpringSecurityOAuth2BindingsPropertiesProcessor();
+        processor.process(environment, bindings, properties);
+        processor.onApplicationEvent(new ApplicationPreparedEvent(new SpringApplication(), new String[0], context));
+
+        Object jwkSet = context.getBeanFactory().getBean(JWK_SET_BEAN_NAME_PREFIX + "resource-server");
+        assertThat(jwkSet).isInstanceOf(BindingJwkSet.class);
+        assertThat(((BindingJwkSet) jwkSet).getJson()).isEqualTo(jwks);
+        assertThat(((BindingJwkSet) jwkSet).getPublicKeys()).containsOnlyKeys("rsa-1");
+    }
+
+    @Test
+    @DisplayName("does not parse the JWK set until it is used")
+    void jwkSetMalformed() {
+        Bindings bindings = new Bindings(new Binding("resource-server", Paths.get("test-path"),
+                new FluentMap()
+                        .withEntry(Binding.TYPE, TYPE)
+                        .withEntry("jwks.json", "{\"keys\":")
+        ));
+        GenericApplicationContext context = new GenericApplicationContext();
+        context.setEnvironment(environment);
+
+        SpringSecurityOAuth2BindingsPropertiesProcessor processor = new SpringSecurityOAuth2BindingsPropertiesProcessor();
+        processor.process(environment, bindings, properties);
+        processor.onApplicationEvent(new ApplicationPreparedEvent(new SpringApplication(), new String[0], context));
+
+        Object jwkSet = context.getBeanFactory().getBean(JWK_SET_BEAN_NAME_PREFIX + "resource-server");
+        assertThat(((BindingJwkSet) jwkSet).getJson()).isEqualTo("{\"keys\":");
+    }
+
+    @Test
+    @DisplayName("writes discovered provider endpoints and keeps issuer-uri")
+    void discovery() throws Exception {
+        OidcDiscoveryTest.ProviderStandIn provider = new OidcDiscoveryTest.ProviderStandIn();
+        try {
+            String issuer = provider.issuer("okta");
+            Bindings bindings = new Bindings(new Binding("test-name", Paths.get("test-path"),
+                    new FluentMap()
+                            .withEntry(Binding.TYPE, TYPE)
+                            .withEntry("provider", "okta")
+                            .withEntry("issuer-uri", issuer)
+            ));
+            environment.setProperty(OidcDiscovery.ENABLE_PROPERTY, "true");
+
+            new SpringSecurityOAuth2BindingsPropertiesProcessor().process(environment, bindings, properties);
+
+            assertThat(properties)
+                    .containsEntry("spring.security.oauth2.client.provider.okta.issuer-uri", issuer)
+                    .containsEntry("spring.security.oauth2.client.provider.okta.token-uri", issuer + "/token");
+        } finally {
+            provider.stop();
+            OidcDiscovery.clearCache();
+        }
+    }
+
+    @Test
+    @DisplayName("writes discovered provider endpoints in place of issuer-uri when enabled")
+    void discoveryReplacesIssuerUri() throws Exception {
+        OidcDiscoveryTest.ProviderStandIn provider = new OidcDiscoveryTest.ProviderStandIn();
+        try {
+            String issuer = provider.issuer("okta");
+            Bindings bindings = new Bindings(new Binding("test-name", Paths.get("test-path"),
+                    new FluentMap()
+                            .withEntry(Binding.TYPE, TYPE)
+                            .withEntry("provider", "okta")
+                            .withEntry("issuer-uri", issuer)
+                            .withEntry("token-uri", "okta-token-uri")
+            ));
+            environment.setProperty(OidcDiscovery.ENABLE_PROPERTY, "true");
+            environment.setProperty(OidcDiscovery.REPLACE_ISSUER_URI_PROPERTY, "true");
+
+            new SpringSecurityOAuth2BindingsPropertiesProcessor().process(environment, bindings, properties);
+
+            assertThat(properties)
+                    .doesNotContainKey("spring.security.oauth2.client.provider.okta.issuer-uri")
+                    .containsEntry("spring.security.oauth2.client.provider.okta.authorization-uri", issuer + "/authorize")
+                    .containsEntry("spring.security.oauth2.client.provider.okta.token-uri", "okta-token-uri")
+                    .containsEntry("spring.security.oauth2.client.provider.okta.user-info-uri", issuer + "/userinfo")
+                    .containsEntry("spring.security.oauth2.client.provider.okta.jwk-set-uri", issuer + "/jwks")
+                    .containsEntry("spring.security.oauth2.client.provider.okta.user-name-attribute", "sub");
+        } finally {
+            provider.stop();
+            OidcDiscovery.clearCache();
+        }
+    }
+
     @Test
     @DisplayName("can be disabled")
     void disabled() {
@@ -27,6 +27,7 @@ import java.nio.file.Paths;
 import java.util.HashMap;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 import static org.springframework.cloud.bindings.boot.SqlServerBindingsPropertiesProcessor.TYPE;
 
 @DisplayName("SQLServer BindingsPropertiesProcessor")
@@ -98,6 +99,89 @@ final class SqlServerBindingsPropertiesProcessorTest {
                 .containsEntry("spring.r2dbc.username", "test-username");
     }
 
+    @Test
+    @DisplayName("contributes hikari pool properties")
+    void testHikari() {
+        Bindings bindings = new Bindings(
+                new Binding("test-name", Paths.get("test-path"), secret
+                        .withEntry("pool.maximum-pool-size", "20")
+                        .withEntry("pool.minimum-idle", "5")
+                        .withEntry("pool.max-lifetime", "30m")
+                        .withEntry("pool.keepalive-time", "5m"))
+        );
+        new SqlServerBindingsPropertiesProcessor().process(environment, bindings, properties);
+        assertThat(properties)
+                .containsEntry("spring.datasource.hikari.maximum-pool-size", "20")
+                .containsEntry("spring.datasource.hikari.minimum-idle", "5")
+                .containsEntry("spring.datasource.hikari.max-lifetime", "1800000")
+                .containsEntry("spring.datasource.hikari.keepalive-time", "300000");
+    }
+
+    @Test
+    @DisplayName("contributes r2dbc pool properties")
+    void testR2dbcPool() {
+        Bindings bindings = new Bindings(
+                new Binding("test-name", Paths.get("test-path"), secret
+                        .withEntry("r2dbc-pool.initial-size", "5")
+                        .withEntry("r2dbc-pool.max-size", "20")
+                        .withEntry("r2dbc-pool.max-idle-time", "10m")
+                        .withEntry("r2dbc-pool.validation-query", "SELECT 1"))
+        );
+        new SqlServerBindingsPropertiesProcessor().process(environment, bindings, properties);
+        assertThat(properties)
+                .containsEntry("spring.r2dbc.pool.initial-size", "5")
+                .containsEntry("spring.r2dbc.pool.max-size", "20")
+                .containsEntry("spring.r2dbc.pool.max-idle-time", "600000ms")
+                .containsEntry("spring.r2dbc.pool.validation-query", "SELECT 1");
+    }
+
+    @Test
+    @DisplayName("adds performance properties to the jdbc and r2dbc urls")
+    void testPerformanceProperties() {
+        Bindings bindings = new Bindings(
+                new Binding("test-name", Paths.get("test-path"), secret
+                        .withEntry("sendStringParametersAsUnicode", "false")
+                        .withEntry("packetSize", "8000")
+                        .withEntry("statementPoolingCacheSize", "100")
+                        .withEntry("selectMethod", "cursor"))
+        );
+        new SqlServerBindingsPropertiesProcessor().process(environment, bindings, properties);
+        assertThat(properties)
+                .containsEntry("spring.datasource.url", "jdbc:sqlserver://test-host:test-port/test-database;sendStringParametersAsUnicode=false;packetSize=8000;statementPoolingCacheSize=100;disableStatementPooling=false;selectMethod=cursor")
+                .containsEntry("spring.r2dbc.url", "r2dbc:sqlserver://test-host:test-port/test-database?sendStringParametersAsUnicode=false&preferCursoredExecution=true");
+    }
+
+    @Test
+    @DisplayName("rejects invalid performance properties")
+    void testInvalidPerformanceProperties() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new SqlServerBindingsPropertiesProcessor().process(environment, new Bindings(
+                        new Binding("test-name", Paths.get("test-path"), secret.withEntry("packetSize", "100"))), properties))
+                .withMessage("Binding 'test-name' has an invalid 'packetSize': 100 must be -1, 0, or between 512 and 32767");
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new SqlServerBindingsPropertiesProcessor().process(environment, new Bindings(
+                        new Binding("test-name", Paths.get("test-path"), new FluentMap().withEntry(Binding.TYPE, TYPE)
+                                .withEntry("disableStatementPooling", "false"))), properties))
+                .withMessageContaining("requires statementPoolingCacheSize to be greater than 0");
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new SqlServerBindingsPropertiesProcessor().process(environment, new Bindings(
+                        new Binding("test-name", Paths.get("test-path"), new FluentMap().withEntry(Binding.TYPE, TYPE)
+                                .withEntry("selectMethod", "fast"))), properties))
+                .withMessageContaining("'fast' is not direct or cursor");
+    }
+
+    @Test
+    @DisplayName("does not map replica bindings")
+    void testReplica() {
+        Bindings bindings = new Bindings(
+                new Binding("test-name", Paths.get("test-path"), secret
+                        .withEntry("role", "replica")
+                        .withEntry("cluster", "test-cluster"))
+        );
+        new SqlServerBindingsPropertiesProcessor().process(environment, bindings, properties);
+        assertThat(properties).isEmpty();
+    }
+
     @Test
     @DisplayName("can be disabled")
     void disabled() {
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bindings.boot;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.cloud.bindings.Binding;
+import org.springframework.cloud.bindings.Bindings;
+import org.springframework.cloud.bindings.FluentMap;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.mock.env.MockEnvironment;
+
+import javax.sql.DataSource;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.springframework.cloud.bindings.boot.ReplicaDataSourceRegistrar.DATA_SOURCE_BEAN_NAME;
+
+@DisplayName("Tenant DataSource Registrar")
+final class TenantDataSourceRegistrarTest {
+
+    private final MockEnvironment environment = new MockEnvironment()
+            .withProperty("org.springframework.cloud.bindings.boot.tenants.enable", "true");
+
+    private final Map<String, Object> properties = new HashMap<>();
+
+    private final ApplicationContextRunner runner = new ApplicationContextRunner(() -> {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.setEnvironment(environment);
+        return context;
+    }).withConfiguration(AutoConfigurations.of(RoutingDataSourceAutoConfiguration.class, DataSourceAutoConfiguration.class));
+
+    @Test
+    @DisplayName("registers a routing data source for the tenants")
+    void registers() {
+        process(binding("tenant-1-db", "tenant-1-host", "tenant-1"),
+                binding("tenant-2-db", "tenant-2-host", "tenant-2"));
+        assertThat(properties).isEmpty();
+        environment.setProperty("spring.datasource.type", ReplicaDataSourceRegistrarTest.DataSourceStandIn.class.getName());
+
+        runner.run(context -> {
+            assertThat(context).hasSingleBean(DataSource.class);
+            TenantRoutingDataSource dataSource = context.getBean(DATA_SOURCE_BEAN_NAME, TenantRoutingDataSource.class);
+            assertThat(dataSource.getTenants()).containsExactly("tenant-1", "tenant-2");
+            assertThat(dataSource.getOpenTenants()).isEmpty();
+        });
+    }
+
+    @Test
+    @DisplayName("resolves tenants with the tenant resolver of the application")
+    void userTenantResolver() {
+        process(binding("tenant-1-db", "tenant-1-host", "tenant-1"));
+        environment.setProperty("spring.datasource.type", ReplicaDataSourceRegistrarTest.DataSourceStandIn.class.getName());
+
+        runner.withUserConfiguration(UserTenantResolverConfiguration.class).run(context -> {
+            TenantRoutingDataSource dataSource = context.getBean(DATA_SOURCE_BEAN_NAME, TenantRoutingDataSource.class);
+            assertThatExceptionOfType(SQLException.class)
+                    .isThrownBy(dataSource::getConnection)
+                    .withMessage("Unknown tenant 'user-tenant'");
+        });
+    }
+
+    @Test
+    @DisplayName("backs off when the application defines a data source")
+    void userDataSource() {
+        process(binding("tenant-1-db", "tenant-1-host", "tenant-1"));
+
+        runner.withUserConfiguration(ReplicaDataSourceRegistrarTest.UserDataSourceConfiguration.class).run(context -> {
+            assertThat(context).hasSingleBean(DataSource.class);
+            assertThat(context.getBean(DataSource.class)).hasToString("user");
+        });
+    }
+
+    @Test
+    @DisplayName("fails when both replicas and tenants would be routed to")
+    void replicasAndTenants() {
+        process(binding("tenant-1-db", "tenant-1-host", "tenant-1"),
+                new Binding("primary", Paths.get("test-path", "primary"), secret("primary-host")
+                        .withEntry("cluster", "orders")),
+                new Binding("replica", Paths.get("test-path", "replica"), secret("replica-host")
+                        .withEntry("cluster", "orders")
+                        .withEntry("role", "replica")));
+        environment.getPropertySources().addFirst(new MapPropertySource("bindings", properties));
+
+        runner.run(context -> assertThat(context).getFailure().rootCause()
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Replica bindings [replica] and tenants [tenant-1] cannot both be routed to by the 'dataSource' bean"));
+    }
+
+    @Test
+    @DisplayName("maps bindings without a tenant to spring.datasource")
+    void noTenant() {
+        process(binding("shared-db", "shared-host", null),
+                binding("tenant-1-db", "tenant-1-host", "tenant-1"));
+        assertThat(properties).containsEntry("spring.datasource.url", "jdbc:postgresql://shared-host:5432/test-database");
+    }
+
+    @Test
+    @DisplayName("does not route to tenants unless enabled")
+    void disabled() {
+        environment.setProperty("org.springframework.cloud.bindings.boot.tenants.enable", "false");
+        process(binding("tenant-1-db", "tenant-1-host", "tenant-1"));
+        assertThat(properties).containsEntry("spring.datasource.url", "jdbc:postgresql://tenant-1-host:5432/test-database");
+        environment.getPropertySources().addFirst(new MapPropertySource("bindings", properties));
+
+        runner.run(context -> assertThat(context).doesNotHaveBean(TenantRoutingDataSource.class));
+    }
+
+    @Test
+    @DisplayName("rejects blank tenants, tenants with more than one binding, and replicas of tenants")
+    void invalid() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> process(binding("tenant-1-db", "tenant-1-host", " ")))
+                .withMessage("Binding 'tenant-1-db' has an invalid 'tenant': must not be blank");
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> process(binding("tenant-1-db", "tenant-1-host", "tenant-1"),
+                        binding("other-db", "other-host", "tenant-1")))
+                .withMessage("Binding 'other-db' has an invalid 'tenant': 'tenant-1' is also the tenant of binding 'tenant-1-db'");
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> process(new Binding("tenant-2-replica", Paths.get("test-path", "tenant-2-replica"),
+                        new FluentMap()
+                                .withEntry(Binding.TYPE, PostgreSqlBindingsPropertiesProcessor.TYPE)
+                                .withEntry("host", "tenant-2-replica-host")
+                                .withEntry("role", "replica")
+                                .withEntry("tenant", "tenant-2"))))
+                .withMessage("Binding 'tenant-2-replica' has an invalid 'role': replicas of tenants are not supported");
+    }
+
+    private void process(Binding... bindings) {
+        new PostgreSqlBindingsPropertiesProcessor().process(environment, new Bindings(bindings), properties);
+    }
+
+    private static Binding binding(String name, String host, String tenant) {
+        FluentMap secret = secret(host);
+        if (tenant != null) {
+            secret.withEntry("tenant", tenant);
+        }
+        return new Binding(name, Paths.get("test-path", name), secret);
+    }
+
+    private static FluentMap secret(String host) {
+        return new FluentMap()
+                .withEntry(Binding.TYPE, PostgreSqlBindingsPropertiesProcessor.TYPE)
+                .withEntry("database", "test-database")
+                .withEntry("host", host)
+                .withEntry("password", "test-password")
+                .withEntry("port", "5432")
+                .withEntry("username", "test-username");
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class UserTenantResolverConfiguration {
+
+        @Bean
+        TenantResolver tenantResolver() {
+            return () -> "user-tenant";
+        }
+
+    }
+
+}
@@ -0,0 +1,320 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bindings.boot;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+@DisplayName("Tenant Routing DataSource")
+final class TenantRoutingDataSourceTest {
+
+    private final Map<String, DataSourceStandIn> created = new LinkedHashMap<>();
+
+    private final DataSourceStandIn defaultDataSource = new DataSourceStandIn("default");
+
+    private final MutableClock clock = new MutableClock();
+
+    private final TenantRoutingDataSource dataSource = new TenantRoutingDataSource(
+            Map.of("tenant-1", factory("tenant-1"), "tenant-2", factory("tenant-2"), "tenant-3", factory("tenant-3")),
+            defaultDataSource, TenantRoutingDataSource::getCurrentTenant, 2, Duration.ofMinutes(10), clock, false);
+
+    @AfterEach
+    void clearTenant() {
+        TenantRoutingDataSource.setCurrentTenant(null);
+    }
+
+    @Test
+    @DisplayName("creates the pool of a tenant on first use")
+    void lazy() throws SQLException {
+        assertThat(dataSource.getTenants()).containsExactly("tenant-1", "tenant-2", "tenant-3");
+        assertThat(created).isEmpty();
+
+        TenantRoutingDataSource.setCurrentTenant("tenant-1");
+        try (Connection connection = dataSource.getConnection()) {
+            assertThat(connection).hasToString("tenant-1");
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            assertThat(connection).hasToString("tenant-1");
+        }
+
+        assertThat(created).containsOnlyKeys("tenant-1");
+        assertThat(dataSource.getOpenTenants()).containsExactly("tenant-1");
+    }
+
+    @Test
+    @DisplayName("uses the default data source without a tenant")
+    void noTenant() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            assertThat(connection).hasToString("default");
+        }
+
+        assertThat(created).isEmpty();
+    }
+
+    @Test
+    @DisplayName("rejects unknown tenants")
+    void unknownTenant() {
+        TenantRoutingDataSource.setCurrentTenant("tenant-4");
+
+        assertThatExceptionOfType(SQLException.class)
+                .isThrownBy(dataSource::getConnection)
+                .withMessage("Unknown tenant 'tenant-4'");
+    }
+
+    @Test
+    @DisplayName("closes the least recently used pool beyond the maximum")
+    void leastRecentlyUsed() throws SQLException {
+        use("tenant-1");
+        use("tenant-2");
+        use("tenant-1");
+        use("tenant-3");
+
+        assertThat(dataSource.getOpenTenants()).containsExactly("tenant-1", "tenant-3");
+        assertThat(created.get("tenant-2").closed).isTrue();
+        assertThat(created.get("tenant-1").closed).isFalse();
+    }
+
+    @Test
+    @DisplayName("does not close pools with borrowed connections")
+    void borrowed() throws SQLException {
+        TenantRoutingDataSource.setCurrentTenant("tenant-1");
+        Connection connection = dataSource.getConnection();
+        use("tenant-2");
+        use("tenant-3");
+
+        assertThat(dataSource.getOpenTenants()).containsExactly("tenant-1", "tenant-3");
+        assertThat(created.get("tenant-1").closed).isFalse();
+
+        connection.close();
+        clock.advance(Duration.ofMinutes(10));
+        dataSource.closeIdlePools();
+
+        assertThat(created.get("tenant-1").closed).isTrue();
+    }
+
+    @Test
+    @DisplayName("closes pools that have been idle for longer than the idle timeout")
+    void idle() throws SQLException {
+        use("tenant-1");
+        clock.advance(Duration.ofMinutes(5));
+        use("tenant-2");
+        clock.advance(Duration.ofMinutes(5));
+
+        dataSource.closeIdlePools();
+
+        assertThat(dataSource.getOpenTenants()).containsExactly("tenant-2");
+        assertThat(created.get("tenant-1").closed).isTrue();
+    }
+
+    @Test
+    @DisplayName("connects other tenants while the pool of a tenant is created")
+    void concurrentCreation() throws Exception {
+        CountDownLatch creating = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        TenantRoutingDataSource dataSource = new TenantRoutingDataSource(Map.of(
+                "slow", () -> {
+                    creating.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return new DataSourceStandIn("slow");
+                },
+                "fast", () -> new DataSourceStandIn("fast")),
+                null, TenantRoutingDataSource::getCurrentTenant, 2, Duration.ofMinutes(10), clock, false);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> slow = executor.submit(() -> connect(dataSource, "slow"));
+            assertThat(creating.await(10, TimeUnit.SECONDS)).isTrue();
+
+            assertThat(assertTimeoutPreemptively(Duration.ofSeconds(10), () -> connect(dataSource, "fast"))).isEqualTo("fast");
+
+            release.countDown();
+            assertThat(slow.get(10, TimeUnit.SECONDS)).isEqualTo("slow");
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("creates the pool of a tenant again if it could not be created")
+    void failedCreation() throws SQLException {
+        AtomicInteger attempts = new AtomicInteger();
+        TenantRoutingDataSource dataSource = new TenantRoutingDataSource(Map.of("tenant-1", () -> {
+            if (attempts.getAndIncrement() == 0) {
+                throw new IllegalStateException("Unavailable");
+            }
+            return new DataSourceStandIn("tenant-1");
+        }), null, TenantRoutingDataSource::getCurrentTenant, 2, Duration.ofMinutes(10), clock, false);
+
+        TenantRoutingDataSource.setCurrentTenant("tenant-1");
+        assertThatIllegalStateException()
+                .isThrownBy(dataSource::getConnection)
+                .withMessage("Unavailable");
+        assertThat(connect(dataSource, "tenant-1")).isEqualTo("tenant-1");
+    }
+
+    @Test
+    @DisplayName("closes all pools")
+    void close() throws SQLException {
+        use("tenant-1");
+
+        dataSource.close();
+
+        assertThat(dataSource.getOpenTenants()).isEmpty();
+        assertThat(created.get("tenant-1").closed).isTrue();
+        assertThat(defaultDataSource.closed).isTrue();
+    }
+
+    private void use(String tenant) throws SQLException {
+        TenantRoutingDataSource.setCurrentTenant(tenant);
+        dataSource.getConnection().close();
+    }
+
+    private static String connect(TenantRoutingDataSource dataSource, String tenant) throws SQLException {
+        TenantRoutingDataSource.setCurrentTenant(tenant);
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.toString();
+        } finally {
+            TenantRoutingDataSource.setCurrentTenant(null);
+        }
+    }
+
+    private Supplier<DataSource> factory(String tenant) {
+        return () -> created.computeIfAbsent(tenant, DataSourceStandIn::new);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant = Instant.parse("2023-01-01T00:00:00Z");
+
+        private void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+
+    }
+
+    /**
+     * A {@link DataSource} whose connections are identified by its name.
+     */
+    private static final class DataSourceStandIn implements DataSource, AutoCloseable {
+
+        private final String name;
+
+        private boolean closed;
+
+        private DataSourceStandIn(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Connection getConnection() {
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> "toString".equals(method.getName()) ? name : null);
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) {
+            return getConnection();
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        @Override
+        public PrintWriter getLogWriter() {
+            return null;
+        }
+
+        @Override
+        public void setLogWriter(PrintWriter out) {
+        }
+
+        @Override
+        public void setLoginTimeout(int seconds) {
+        }
+
+        @Override
+        public int getLoginTimeout() {
+            return 0;
+        }
+
+        @Override
+        public Logger getParentLogger() {
+            return Logger.getGlobal();
+        }
+
+        @Override
+        public <T> T unwrap(Class<T> iface) throws SQLException {
+            throw new SQLException("Not a wrapper");
+        }
+
+        @Override
+        public boolean isWrapperFor(Class<?> iface) {
+            return false;
+        }
+
+    }
+
+}
@@ -0,0 +1,261 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.cloud.bindings.boot;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.bindings.Binding;
+import org.springframework.cloud.bindings.Bindings;
+import org.springframework.cloud.bindings.FluentMap;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.nio.file.Paths;
+import java.util.HashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("TLS BindingsPropertiesProcessor")
+final class TlsBindingsPropertiesProcessorTest {
+
+    private final MockEnvironment environment = new MockEnvironment();
+
+    private final HashMap<String, Object> properties = new HashMap<>();
+
+    private String cert;
+
+    private String key;
+
+    @BeforeEach
+    void fetchCerts() {
+        assertDoesNotThrow(() -> {
+            this.cert = TestHelper.resourceAsString(new ClassPathResource("pem/test-cert.pem"));
+            this.key = TestHelper.resourceAsString(new ClassPathResource("pem/test-key.pem"));
+        });
+    }
+
+    @Test
+    @DisplayName("contributes an SSL bundle and client properties")
+    void test() {
+        Bindings bindings = new Bindings(
+                new Binding("test-redis", Paths.get("test-path"),
+                        new FluentMap()
+                                .withEntry(Binding.TYPE, RedisBindingsPropertiesProcessor.TYPE)
+                                .withEntry("tls.crt", cert)
+                                .withEntry("tls.key", key)
+                                .withEntry("ca.crt", cert)
+                ),
+                new Binding("test-kafka", Paths.get("test-path"),
+                        new FluentMap()
+                                .withEntry(Binding.TYPE, KafkaBindingsPropertiesProcessor.TYPE)
+                                .withEntry("ca.crt", cert)
+                )
+        );
+
+        new TlsBindingsPropertiesProcessor().process(environment, bindings, properties);
+
+        assertThat(properties)
+                .containsEntry("spring.ssl.bundle.pem.test-redis.keystore.certificate", cert)
+                .containsEntry("spring.ssl.bundle.pem.test-redis.keystore.private-key", key)
+                .containsEntry("spring.ssl.bundle.pem.test-redis.truststore.certificate", cert)
+                .containsEntry("spring.data.redis.ssl.bundle", "test-redis")
+                .containsEntry("spring.data.redis.ssl.enabled", true)
+                .containsEntry("spring.ssl.bundle.pem.test-kafka.truststore.certificate", cert)
+                .containsEntry("spring.kafka.ssl.trust-store-type", "PEM")
+                .containsEntry("spring.kafka.ssl.trust-store-certificates", cert)
+                .doesNotContainKey("spring.kafka.ssl.bundle")
+                .doesNotContainKey("spring.kafka.ssl.key-store-key")
+                .doesNotContainKey("spring.ssl.bundle.pem.test-kafka.keystore.certificate");
+    }
+
+    @Test
+    @DisplayName("contributes PEM content for Kafka")
+    void kafka() {
+        Bindings bindings = new Bindings(
+                new Binding("test-kafka", Paths.get("test-path"),
+                        new FluentMap()
+                                .withEntry(Binding.TYPE, KafkaBindingsPropertiesProcessor.TYPE)
+                                .withEntry("tls.crt", cert)
+                                .withEntry("tls.key", key)
+                )
+        );
+
+        new TlsBindingsPropertiesProcessor().process(environment, bindings, properties);
+
+        assertThat(properties)
+                .containsEntry("spring.kafka.ssl.key-store-type", "PEM")
+                .containsEntry("spring.kafka.ssl.key-store-certificate-chain", cert)
+                .containsEntry("spring.kafka.ssl.key-store-key", key)
+                .doesNotContainKey("spring.kafka.ssl.trust-store-type");
+    }
+
+    @Test
+    @DisplayName("contributes key stores for RabbitMQ")
+    void rabbitMq() {
+        Bindings bindings = new Bindings(
+                new Binding("test-rabbitmq", Paths.get("test-path"),
+                        new FluentMap()
+                                .withEntry(Binding.TYPE, RabbitMqBindingsPropertiesProcessor.TYPE)
+                                .withEntry("tls.crt", cert)
+                                .withEntry("tls.key", key)
+                                .withEntry("ca.crt", cert)
+                )
+        );
+
+        new TlsBindingsPropertiesProcessor().process(environment, bindings, properties);
+
+        assertThat(properties)
+                .containsEntry("spring.rabbitmq.ssl.enabled", true)
+                .containsEntry("spring.rabbitmq.ssl.key-store-type", "PKCS12")
+                .containsEntry("spring.rabbitmq.ssl.trust-store-type", "PKCS12")
+                .containsKey("spring.rabbitmq.ssl.key-store-password")
+                .containsKey("spring.rabbitmq.ssl.trust-store-password")
+                .doesNotContainKey("spring.rabbitmq.ssl.bundle");
+        assertThat((String) properties.get("spring.rabbitmq.ssl.key-store")).startsWith("file:");
+        assertThat((String) properties.get("spring.rabbitmq.ssl.trust-store")).startsWith("file:");
+    }
+
+    @Test
+    @DisplayName("only contributes an SSL bundle for PostgreSQL")
+    void postgresql() {
+        Bindings bindings = new Bindings(
+                new Binding("test-postgresql", Paths.get("test-path"),
+                        new FluentMap()
+                                .withEntry(Binding.TYPE, PostgreSqlBindingsPropertiesProcessor.TYPE)
+                                .withEntry("ca.crt", cert)
+                )
+        );
+
+        new TlsBindingsPropertiesProcessor().process(environment, bindings, properties);
+
+        assertThat(properties)
+                .hasSize(1)
+                .containsEntry("spring.ssl.bundle.pem.test-postgresql.truststore.certificate", cert);
+    }
+
+    @Test
+    @DisplayName("ignores bindings without TLS material or of other types")
+    void ignored() {
+        Bindings bindings = new Bindings(
+                new Binding("test-redis", Paths.get("test-path"),
+                        new FluentMap()
+                                .withEntry(Binding.TYPE, RedisBindingsPropertiesProcessor.TYPE)
+                ),
+                new Binding("test-eureka", Paths.get("test-path"),
+                        new FluentMap()
+                                .withEntry(Binding.TYPE, EurekaBindingsPropertiesProcessor.TYPE)
+                                .withEntry("ca.crt", cert)
+                )
+        );
+
+        new TlsBindingsPropertiesProcessor().process(environment, bindings, properties);
+
+        assertThat(properties).isEmpty();
+    }
+
+    @Test
+    @DisplayName("skips bindings with tls.crt set but not tls.key")
+    void noKey() {
+        Bindings bindings = new Bindings(
+                new Binding("test-redis", Paths.get("test-path"),
+                        new FluentMap()
+                                .withEntry(Binding.TYPE, RedisBindingsPropertiesProcessor.TYPE)
+                                .withEntry("tls.crt", cert)
+                )
+        );
+
+        new TlsBindingsPropertiesProcessor().process(environment, bindings, properties);
+
+        assertThat(properties).isEmpty();
+    }
+
+    @Test
+    @DisplayName("throws when bad tls values are set")
+    void invalid() {
+        Bindings bindings = new Bindings(
+                new Binding("test-redis", Paths.get("test-path"),
+                        new FluentMap()
+                                .withEntry(Binding.TYPE, RedisBindingsPropertiesProcessor.TYPE)
+                                .withEntry("ca.crt", "this isn't a valid certificate")
+                )
+        );
+
+        assertThrows(IllegalStateException.class, () ->
+                new TlsBindingsPropertiesProcessor().process(environment, bindings, properties));
+    }
+
+    @Test
+    @DisplayName("can be disabled")
+    void disabled() {
+        environment.setProperty("org.springframework.cloud.bindings.boot.tls.enable", "false");
+        Bindings bindings = new Bindings(
+                new Binding("test-redis", Paths.get("test-path"),
+                        new FluentMap()
+                                .withEntry(Binding.TYPE, RedisBindingsPropertiesProcessor.TYPE)
+                                .withEntry("ca.crt", cert)
+                )
+        );
+
+        new TlsBindingsPropertiesProcessor().process(environment, bindings, properties);
+
+        assertThat(properties).isEmpty();
+    }
+
+    @Test
+    @DisplayName("normalizes binding names to bundle names")
+    void bundleName() {
+        Bindings bindings = new Bindings(
+                new Binding("Orders.Redis_1", Paths.get("test-path"),
+                        new FluentMap()
+                                .withEntry(Binding.TYPE, RedisBindingsPropertiesProcessor.TYPE)
+                                .withEntry("ca.crt", cert)
+                )
+        );
+
+        new TlsBindingsPropertiesProcessor().process(environment, bindings, properties);
+
+        assertThat(properties)
+                .containsEntry("spring.ssl.bundle.pem.orders-redis-1.truststore.certificate", cert)
+                .containsEntry("spring.data.redis.ssl.bundle", "orders-redis-1");
+    }
+
+    @Test
+    @DisplayName("rejects bindings with the same bundle name")
+    void bundleNameConflict() {
+        Bindings bindings = new Bindings(
+                new Binding("orders.redis", Paths.get("test-path"),
+                        new FluentMap()
+                                .withEntry(Binding.TYPE, RedisBindingsPropertiesProcessor.TYPE)
+                                .withEntry("ca.crt", cert)
+                ),
+                new Binding("orders-redis", Paths.get("test-path"),
+                        new FluentMap()
+                                .withEntry(Binding.TYPE, RedisBindingsPropertiesProcessor.TYPE)
+                                .withEntry("ca.crt", cert)
+                )
+        );
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> new TlsBindingsPropertiesProcessor().process(environment, bindings, properties));
+        assertThat(e).hasMessage("Bindings 'orders.redis' and 'orders-redis' both have the SSL bundle name 'orders-redis'");
+    }
+
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2012-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bindings.boot.pem;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.KeyStore;
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.core.io.ClassPathResource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.cloud.bindings.boot.TestHelper.resourceAsString;
+
+/**
+ * Tests for {@link KeyStoreFileCache}.
+ */
+class KeyStoreFileCacheTests {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void createKeyStoreFileReusesExistingStore() throws Exception {
+		KeyStoreFileCache cache = new KeyStoreFileCache(this.directory, Duration.ofDays(1), Duration.ofHours(1));
+		String cert = read("pem/test-cert.pem");
+		String key = read("pem/test-key.pem");
+		String password = cache.generatePassword(cert, key);
+
+		Path first = cache.createKeyStoreFile("test-keystore", password, cert, key, "test");
+		Path second = cache.createKeyStoreFile("test-keystore", password, cert, key, "test");
+
+		assertThat(first).isEqualTo(second);
+		assertThat(first.getParent()).isEqualTo(this.directory);
+		assertThat(first.getFileName().toString()).startsWith("test-keystore-").endsWith(".p12");
+		try (InputStream in = Files.newInputStream(first)) {
+			KeyStore store = KeyStore.getInstance("PKCS12");
+			store.load(in, password.toCharArray());
+			assertThat(store.isKeyEntry("test")).isTrue();
+		}
+		try (var files = Files.list(this.directory)) {
+			assertThat(files.filter((path) -> path.toString().endsWith(".tmp"))).isEmpty();
+		}
+	}
+
+	@Test
+	void createKeyStoreFileWhenContentDiffers() throws Exception {
+		KeyStoreFileCache cache = new KeyStoreFileCache(this.directory, Duration.ofDays(1), Duration.ofHours(1));
+		String cert = read("pem/test-cert.pem");
+		String chain = read("pem/test-cert-chain.pem");
+
+		Path first = cache.createKeyStoreFile("test-truststore", "password", cert, null, "ca");
+		Path second = cache.createKeyStoreFile("test-truststore", "password", chain, null, "ca");
+		Path third = cache.createKeyStoreFile("test-truststore", "other", cert, null, "ca");
+
+		assertThat(first).isNotEqualTo(second).isNotEqualTo(third);
+	}
+
+	@Test
+	void generatePasswordIsStable() throws Exception {
+		KeyStoreFileCache cache = new KeyStoreFileCache(this.directory, Duration.ofDays(1), Duration.ofHours(1));
+		String cert = read("pem/test-cert.pem");
+		String key = read("pem/test-key.pem");
+
+		assertThat(cache.generatePassword(cert, key)).hasSize(20).isEqualTo(cache.generatePassword(cert, key));
+		assertThat(cache.generatePassword(cert, key)).isNotEqualTo(cache.generatePassword(key, cert));
+	}
+
+	@Test
+	void cleanUpDeletesStaleStores() throws Exception {
+		KeyStoreFileCache cache = new KeyStoreFileCache(this.directory, Duration.ofDays(1), Duration.ofHours(1));
+		String cert = read("pem/test-cert.pem");
+		Path stale = cache.createKeyStoreFile("stale", "password", cert, null, "ca");
+		Path fresh = cache.createKeyStoreFile("fresh", "password", cert, null, "ca");
+		Files.setLastModifiedTime(stale, FileTime.from(Instant.now().minus(Duration.ofDays(2))));
+
+		cache.cleanUp();
+
+		assertThat(stale).doesNotExist();
+		assertThat(fresh).exists();
+	}
+
+	private String read(String path) throws IOException {
+		return resourceAsString(new ClassPathResource(path));
+	}
+
+}
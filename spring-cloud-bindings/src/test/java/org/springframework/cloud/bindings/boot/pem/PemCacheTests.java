@@ -0,0 +1,138 @@
+/*
+ * Copyright 2012-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bindings.boot.pem;
+
+import java.io.IOException;
+import java.security.PrivateKey;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.io.ClassPathResource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.springframework.cloud.bindings.boot.TestHelper.resourceAsString;
+
+/**
+ * Tests for {@link PemCache}.
+ */
+class PemCacheTests {
+
+	@AfterEach
+	void clear() {
+		PemCache.clear();
+	}
+
+	@Test
+	void getCertificatesReusesParsedCertificates() throws Exception {
+		X509Certificate[] first = PemCache.getCertificates(read("pem/test-cert-chain.pem"));
+		X509Certificate[] second = PemCache.getCertificates(read("pem/test-cert-chain.pem"));
+		assertThat(first).hasSize(2);
+		assertThat(second).isNotSameAs(first);
+		assertThat(second[0]).isSameAs(first[0]);
+		assertThat(second[1]).isSameAs(first[1]);
+	}
+
+	@Test
+	void getCertificatesDistinguishesContent() throws Exception {
+		X509Certificate[] chain = PemCache.getCertificates(read("pem/test-cert-chain.pem"));
+		X509Certificate[] single = PemCache.getCertificates(read("pem/test-cert.pem"));
+		assertThat(single).hasSize(1);
+		assertThat(single[0]).isNotSameAs(chain[0]);
+	}
+
+	@Test
+	void getCertificatesWhenNoCertificates() throws Exception {
+		assertThat(PemCache.getCertificates(read("pem/test-key.pem"))).isNull();
+		assertThat(PemCache.getCertificates(null)).isNull();
+	}
+
+	@Test
+	void getPrivateKeyReusesParsedKey() throws Exception {
+		PrivateKey first = PemCache.getPrivateKey(read("pem/test-key.pem"));
+		PrivateKey second = PemCache.getPrivateKey(read("pem/test-key.pem"));
+		assertThat(first.getAlgorithm()).isEqualTo("RSA");
+		assertThat(second).isSameAs(first);
+	}
+
+	@Test
+	void getCertificatesEvictsLeastRecentlyUsed() throws Exception {
+		String content = read("pem/test-cert.pem");
+		for (int i = 0; i <= PemCache.MAX_CERTIFICATES; i++) {
+			PemCache.getCertificates(content + "\n".repeat(i));
+		}
+		assertThat(PemCache.getCertificateCount()).isEqualTo(PemCache.MAX_CERTIFICATES);
+	}
+
+	@Test
+	void getCertificatesKeepsRecentlyUsed() throws Exception {
+		String content = read("pem/test-cert.pem");
+		X509Certificate[] first = PemCache.getCertificates(content);
+		for (int i = 1; i <= PemCache.MAX_CERTIFICATES; i++) {
+			PemCache.getCertificates(content);
+			PemCache.getCertificates(content + "\n".repeat(i));
+		}
+		assertThat(PemCache.getCertificateCount()).isEqualTo(PemCache.MAX_CERTIFICATES);
+		assertThat(PemCache.getCertificates(content)[0]).isSameAs(first[0]);
+	}
+
+	@Test
+	void getCertificatesParsesOnceWhenConcurrent() throws Exception {
+		String content = read("pem/test-cert-chain.pem");
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<X509Certificate[]>> results = new ArrayList<>();
+			for (int i = 0; i < 32; i++) {
+				results.add(executor.submit(() -> PemCache.getCertificates(content)));
+			}
+			X509Certificate first = results.get(0).get()[0];
+			for (Future<X509Certificate[]> result : results) {
+				assertThat(result.get()[0]).isSameAs(first);
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	void getPrivateKeyDoesNotCacheFailures() {
+		assertThatIllegalStateException().isThrownBy(() -> PemCache.getPrivateKey("not a key"));
+		assertThat(PemCache.getPrivateKeyCount()).isZero();
+	}
+
+	@Test
+	void clearPrivateKeyCacheKeepsCertificates() throws Exception {
+		X509Certificate[] certificates = PemCache.getCertificates(read("pem/test-cert.pem"));
+		PrivateKey key = PemCache.getPrivateKey(read("pem/test-key.pem"));
+		PemSslStoreHelper.clearPrivateKeyCache();
+		assertThat(PemCache.getPrivateKey(read("pem/test-key.pem"))).isNotSameAs(key);
+		assertThat(PemCache.getCertificates(read("pem/test-cert.pem"))[0]).isSameAs(certificates[0]);
+	}
+
+	private String read(String path) throws IOException {
+		return resourceAsString(new ClassPathResource(path));
+	}
+
+}
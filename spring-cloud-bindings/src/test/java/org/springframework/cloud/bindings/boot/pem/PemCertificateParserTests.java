@@ -50,6 +50,16 @@ class PemCertificateParserTests {
 		assertThat(certificates[1].getType()).isEqualTo("X.509");
 	}
 
+	@Test
+	void parseLargeCertificateBundle() throws Exception {
+		X509Certificate[] chain = PemCertificateParser.parse(read("pem/test-cert-chain.pem"));
+		X509Certificate[] certificates = PemCertificateParser.parse(read("pem/test-cert-chain.pem").repeat(100));
+		assertThat(certificates).hasSize(200);
+		for (int i = 0; i < certificates.length; i++) {
+			assertThat(certificates[i]).isEqualTo(chain[i % 2]);
+		}
+	}
+
 	private String read(String path) throws IOException {
 		return resourceAsString(new ClassPathResource(path));
 	}
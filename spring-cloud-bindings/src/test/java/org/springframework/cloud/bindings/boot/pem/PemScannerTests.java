@@ -0,0 +1,61 @@
+/*
+ * Copyright 2012-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bindings.boot.pem;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link PemScanner}.
+ */
+class PemScannerTests {
+
+	@Test
+	void scanFindsBlocks() {
+		List<PemScanner.Block> blocks = PemScanner.scan("""
+				leading text
+				-----BEGIN TRUSTED  CERTIFICATE-----
+				AQID
+				BAU=
+				-----END TRUSTED CERTIFICATE-----
+				-----begin private key-----\r
+				BgcI\r
+				-----end private key-----
+				""");
+		assertThat(blocks).hasSize(2);
+		assertThat(blocks.get(0).getLabel()).isEqualTo("TRUSTED CERTIFICATE");
+		assertThat(blocks.get(0).decode()).containsExactly(1, 2, 3, 4, 5);
+		assertThat(blocks.get(1).getLabel()).isEqualTo("PRIVATE KEY");
+		assertThat(blocks.get(1).decode()).containsExactly(6, 7, 8);
+	}
+
+	@Test
+	void scanIgnoresUnterminatedBlock() {
+		assertThat(PemScanner.scan("-----BEGIN CERTIFICATE-----\nAQID\n")).isEmpty();
+	}
+
+	@Test
+	void isPemContent() {
+		assertThat(PemScanner.isPemContent("-----BEGIN CERTIFICATE-----\nAQID\n-----END CERTIFICATE-----")).isTrue();
+		assertThat(PemScanner.isPemContent("-----BEGIN CERTIFICATE-----\nAQID\n")).isFalse();
+		assertThat(PemScanner.isPemContent("classpath:pem/test-cert.pem")).isFalse();
+	}
+
+}